@@ -8,21 +8,25 @@ import static com.hartwig.hmftools.common.utils.collection.Multimaps.filterEntri
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ThreadFactory;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.amber.AmberBAF;
 import com.hartwig.hmftools.common.amber.AmberSite;
-import com.hartwig.hmftools.common.amber.AmberSiteFactory;
+import com.hartwig.hmftools.common.amber.AmberSiteIndex;
 import com.hartwig.hmftools.common.amber.BaseDepth;
 import com.hartwig.hmftools.common.amber.BaseDepthEvidence;
 import com.hartwig.hmftools.common.amber.BaseDepthFactory;
@@ -32,7 +36,7 @@ import com.hartwig.hmftools.common.amber.NormalHomozygousFilter;
 import com.hartwig.hmftools.common.amber.TumorBAF;
 import com.hartwig.hmftools.common.amber.TumorBAFEvidence;
 import com.hartwig.hmftools.common.amber.TumorContamination;
-import com.hartwig.hmftools.common.amber.TumorContaminationEvidence;
+import com.hartwig.hmftools.common.amber.TumorEvidence;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.utils.Doubles;
@@ -62,7 +66,7 @@ public class AmberApplication implements AutoCloseable {
     private final Predicate<BaseDepth> heterozygousFilter;
     private final AmberPersistence persistence;
     private final VersionInfo versionInfo;
-    private final ListMultimap<Chromosome, AmberSite> sites;
+    private final AmberSiteIndex sites;
 
     public static void main(final String... args) throws IOException, InterruptedException, ExecutionException {
         final Options options = AmberConfig.createOptions();
@@ -86,7 +90,6 @@ public class AmberApplication implements AutoCloseable {
         final Predicate<BaseDepth> isValidFilter = BaseDepth::isValid;
         homozygousFilter = new NormalHomozygousFilter().and(isValidFilter);
         heterozygousFilter = new NormalHetrozygousFilter(config.minHetAfPercent(), config.maxHetAfPercent()).and(isValidFilter);
-        persistence = new AmberPersistence(config);
 
         final File outputDir = new File(config.outputDirectory());
         if (!outputDir.exists() && !outputDir.mkdirs()) {
@@ -111,9 +114,10 @@ public class AmberApplication implements AutoCloseable {
 
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("-%d").build();
         executorService = Executors.newFixedThreadPool(config.threadCount(), namedThreadFactory);
+        persistence = new AmberPersistence(config, executorService);
 
-        LOGGER.info("Loading vcf file {}", config.bafLociPath());
-        sites = AmberSiteFactory.sites(config.bafLociPath());
+        LOGGER.info("Loading sites from {}", config.bafLociPath());
+        sites = AmberSiteIndex.load(config.bafLociPath());
         snpCheckFilter = new SnpCheckFilter(sites);
     }
 
@@ -148,12 +152,12 @@ public class AmberApplication implements AutoCloseable {
         }
 
         final Predicate<BaseDepth> intersectionFilter = hetNormalEvidence.intersectionFilter();
-        final ListMultimap<Chromosome, TumorBAF> tumorBAFMap = tumorBAF(readerFactory, filterEntries(hetNormal, intersectionFilter));
-        final List<TumorBAF> tumorBAFList = tumorBAFMap.values().stream().sorted().collect(toList());
+        final List<TumorEvidence> tumorEvidence = tumorEvidence(readerFactory, filterEntries(hetNormal, intersectionFilter), homNormal);
+        final List<TumorBAF> tumorBAFList = tumorEvidence.stream().flatMap(x -> x.baf().stream()).sorted().collect(toList());
         final List<AmberBAF> amberBAFList = tumorBAFList.stream().map(AmberBAF::create).filter(AmberApplication::isValid).collect(toList());
 
-        final ListMultimap<Chromosome, TumorContamination> tumorContamination = contamination(readerFactory, homNormal);
-        final List<TumorContamination> contaminationList = Lists.newArrayList(tumorContamination.values());
+        final List<TumorContamination> contaminationList =
+                tumorEvidence.stream().flatMap(x -> x.contamination().stream()).collect(toList());
 
         persistence.persisQC(amberBAFList, contaminationList);
         persistence.persistVersionInfo(versionInfo);
@@ -186,18 +190,51 @@ public class AmberApplication implements AutoCloseable {
         persistence.persistBAF(amberBAFList);
     }
 
+    @NotNull
+    private ListMultimap<Chromosome, BaseDepth> normalDepth(final SamReaderFactory readerFactory, final String bamPath,
+            final AmberSiteIndex sites) throws InterruptedException, ExecutionException {
+        final int partitionSize = Math.max(config.minPartition(), sites.size() / config.threadCount());
+
+        // Site objects are only created once a partition is being processed
+        final List<Supplier<List<AmberSite>>> partitions = Lists.newArrayList();
+        for (final String contig : sites.contigs()) {
+            final int contigSize = sites.size(contig);
+            for (int start = 0; start < contigSize; start += partitionSize) {
+                final int fromIndex = start;
+                final int toIndex = Math.min(contigSize, start + partitionSize);
+                partitions.add(() -> sites.sites(contig, fromIndex, toIndex));
+            }
+        }
+
+        return normalDepth(readerFactory, bamPath, sites.size(), partitions);
+    }
+
     @NotNull
     private ListMultimap<Chromosome, BaseDepth> normalDepth(final SamReaderFactory readerFactory, final String bamPath,
             final ListMultimap<Chromosome, AmberSite> bedRegionsSortedSet) throws InterruptedException, ExecutionException {
 
         final int partitionSize = Math.max(config.minPartition(), bedRegionsSortedSet.size() / config.threadCount());
 
-        LOGGER.info("Processing {} potential sites in reference bam {}", bedRegionsSortedSet.values().size(), bamPath);
+        final List<Supplier<List<AmberSite>>> partitions = Lists.newArrayList();
+        for (final Chromosome contig : bedRegionsSortedSet.keySet()) {
+            for (final List<AmberSite> inner : Lists.partition(Lists.newArrayList(bedRegionsSortedSet.get(contig)), partitionSize)) {
+                partitions.add(() -> inner);
+            }
+        }
+
+        return normalDepth(readerFactory, bamPath, bedRegionsSortedSet.size(), partitions);
+    }
+
+    @NotNull
+    private ListMultimap<Chromosome, BaseDepth> normalDepth(final SamReaderFactory readerFactory, final String bamPath, int siteCount,
+            final List<Supplier<List<AmberSite>>> partitions) throws InterruptedException, ExecutionException {
+        LOGGER.info("Processing {} potential sites in reference bam {}", siteCount, bamPath);
         final AmberTaskCompletion completion = new AmberTaskCompletion();
 
         final List<Future<BaseDepthEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome contig : bedRegionsSortedSet.keySet()) {
-            for (final List<AmberSite> inner : Lists.partition(Lists.newArrayList(bedRegionsSortedSet.get(contig)), partitionSize)) {
+        for (final Supplier<List<AmberSite>> partition : partitions) {
+            futures.add(executorService.submit(completion.task(() -> {
+                final List<AmberSite> inner = partition.get();
                 final BaseDepthEvidence evidence = new BaseDepthEvidence(config.typicalReadDepth(),
                         config.minMappingQuality(),
                         config.minBaseQuality(),
@@ -205,8 +242,8 @@ public class AmberApplication implements AutoCloseable {
                         bamPath,
                         readerFactory,
                         inner);
-                futures.add(executorService.submit(completion.task(evidence)));
-            }
+                return evidence.call();
+            })));
         }
 
         final ListMultimap<Chromosome, BaseDepth> normalEvidence = ArrayListMultimap.create();
@@ -215,10 +252,11 @@ public class AmberApplication implements AutoCloseable {
     }
 
     @NotNull
-    private ListMultimap<Chromosome, BaseDepth> emptyNormalHetSites(@NotNull final ListMultimap<Chromosome, AmberSite> sites) {
+    private ListMultimap<Chromosome, BaseDepth> emptyNormalHetSites(@NotNull final AmberSiteIndex sites) {
         final ListMultimap<Chromosome, BaseDepth> result = ArrayListMultimap.create();
-        for (Chromosome chromosome : sites.keySet()) {
-            result.putAll(chromosome, sites.get(chromosome).stream().map(BaseDepthFactory::create).collect(toList()));
+        for (String contig : sites.contigs()) {
+            result.putAll(HumanChromosome.fromString(contig),
+                    sites.sites(contig, 0, sites.size(contig)).stream().map(BaseDepthFactory::create).collect(toList()));
         }
 
         return result;
@@ -256,34 +294,45 @@ public class AmberApplication implements AutoCloseable {
     }
 
     @NotNull
-    private ListMultimap<Chromosome, TumorContamination> contamination(@NotNull final SamReaderFactory readerFactory,
+    private List<TumorEvidence> tumorEvidence(@NotNull final SamReaderFactory readerFactory,
+            @NotNull final ListMultimap<Chromosome, BaseDepth> normalHetSites,
             @NotNull final ListMultimap<Chromosome, BaseDepth> normalHomSites) throws ExecutionException, InterruptedException {
-        final int partitionSize = Math.max(config.minPartition(), normalHomSites.values().size() / config.threadCount());
+        final int siteCount = normalHetSites.size() + normalHomSites.size();
+        final int partitionSize = Math.max(config.minPartition(), siteCount / config.threadCount());
 
-        LOGGER.info("Processing {} homozygous sites in tumor bam {} for contamination", normalHomSites.size(), config.tumorBamPath());
+        LOGGER.info("Processing {} heterozygous and {} homozygous sites in tumor bam {}",
+                normalHetSites.size(),
+                normalHomSites.size(),
+                config.tumorBamPath());
         final AmberTaskCompletion completion = new AmberTaskCompletion();
 
-        final List<Future<TumorContaminationEvidence>> futures = Lists.newArrayList();
-        for (final Chromosome chromosome : normalHomSites.keySet()) {
-            for (final List<BaseDepth> chromosomeBafPoints : Lists.partition(normalHomSites.get(chromosome), partitionSize)) {
-                if (!chromosomeBafPoints.isEmpty()) {
-                    final String contig = chromosomeBafPoints.get(0).chromosome();
-                    final TumorContaminationEvidence evidence = new TumorContaminationEvidence(config.typicalReadDepth(),
-                            config.minMappingQuality(),
-                            config.minBaseQuality(),
-                            contig,
-                            config.tumorBamPath(),
-                            readerFactory,
-                            chromosomeBafPoints);
-                    futures.add(executorService.submit(completion.task(evidence)));
-                }
+        final Set<Chromosome> chromosomes = Sets.newLinkedHashSet(normalHetSites.keySet());
+        chromosomes.addAll(normalHomSites.keySet());
+
+        final List<Future<TumorEvidence>> futures = Lists.newArrayList();
+        for (final Chromosome chromosome : chromosomes) {
+            final Set<BaseDepth> hetSites = Sets.newIdentityHashSet();
+            hetSites.addAll(normalHetSites.get(chromosome));
+
+            final List<BaseDepth> sites = Lists.newArrayList(normalHetSites.get(chromosome));
+            sites.addAll(normalHomSites.get(chromosome));
+            Collections.sort(sites);
+
+            for (final List<BaseDepth> partition : Lists.partition(sites, partitionSize)) {
+                final String contig = partition.get(0).chromosome();
+                final TumorEvidence evidence = new TumorEvidence(config.typicalReadDepth(),
+                        config.minMappingQuality(),
+                        config.minBaseQuality(),
+                        contig,
+                        config.tumorBamPath(),
+                        readerFactory,
+                        partition.stream().filter(hetSites::contains).collect(toList()),
+                        partition.stream().filter(x -> !hetSites.contains(x)).collect(toList()));
+                futures.add(executorService.submit(completion.task(evidence)));
             }
         }
 
-        final ListMultimap<Chromosome, TumorContamination> result = ArrayListMultimap.create();
-        getFuture(futures).forEach(x -> result.putAll(HumanChromosome.fromString(x.contig()), x.evidence()));
-
-        return result;
+        return getFuture(futures);
     }
 
     @NotNull
@@ -0,0 +1,56 @@
+package com.hartwig.hmftools.amber;
+
+import java.io.IOException;
+
+import com.google.common.collect.ListMultimap;
+import com.hartwig.hmftools.common.amber.AmberSite;
+import com.hartwig.hmftools.common.amber.AmberSiteFactory;
+import com.hartwig.hmftools.common.amber.AmberSiteIndex;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.CommandLineParser;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.HelpFormatter;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Compiles a loci vcf into the binary site index that AMBER loads when the loci argument ends with the index extension.
+ */
+public class AmberSiteIndexApplication {
+
+    private static final Logger LOGGER = LogManager.getLogger(AmberSiteIndexApplication.class);
+
+    private static final String OUT = "out";
+
+    public static void main(final String... args) throws IOException, ParseException {
+        final Options options = createOptions();
+        final CommandLine cmd = new DefaultParser().parse(options, args);
+        final String lociPath = cmd.getOptionValue(AmberConfig.BAF_LOCI);
+        final String outputPath = cmd.getOptionValue(OUT);
+
+        if (lociPath == null || outputPath == null || !outputPath.endsWith(AmberSiteIndex.EXTENSION)) {
+            final HelpFormatter formatter = new HelpFormatter();
+            formatter.printHelp("AmberSiteIndexApplication", options);
+            System.exit(1);
+        }
+
+        LOGGER.info("Loading vcf file {}", lociPath);
+        final ListMultimap<Chromosome, AmberSite> sites = AmberSiteFactory.sites(lociPath);
+
+        LOGGER.info("Writing {} sites to {}", sites.size(), outputPath);
+        AmberSiteIndex.write(outputPath, sites);
+    }
+
+    @NotNull
+    private static Options createOptions() {
+        final Options options = new Options();
+        options.addOption(AmberConfig.BAF_LOCI, true, "Path to BAF loci vcf file");
+        options.addOption(OUT, true, "Path of site index to write. Must end with " + AmberSiteIndex.EXTENSION);
+        return options;
+    }
+}
@@ -1,28 +1,36 @@
 package com.hartwig.hmftools.amber;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
 
-import com.hartwig.hmftools.common.amber.AmberBAFFile;
+import com.hartwig.hmftools.common.amber.AmberBAF;
+import com.hartwig.hmftools.common.utils.collection.Multimaps;
 import com.hartwig.hmftools.common.utils.pcf.PCFFile;
-import com.hartwig.hmftools.common.utils.r.RExecutor;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegmenter;
 
 import org.jetbrains.annotations.NotNull;
 
 class BAFSegmentation {
 
+    private static final String SAMPLE_ID = "tumorModifiedBAF";
+
     @NotNull
     private final String outputDirectory;
+    @NotNull
+    private final PCFSegmenter segmenter;
 
-    BAFSegmentation(@NotNull final String outputDirectory) {
+    BAFSegmentation(@NotNull final String outputDirectory, @NotNull final ExecutorService executorService) {
         this.outputDirectory = outputDirectory;
+        this.segmenter = new PCFSegmenter(PCFSegmenter.DEFAULT_GAMMA, executorService);
     }
 
-    void applySegmentation(@NotNull final String tumor) throws InterruptedException, IOException {
-        final String ratioFile = AmberBAFFile.generateAmberFilenameForReading(outputDirectory, tumor);
+    void applySegmentation(@NotNull final String tumor, @NotNull final List<AmberBAF> bafs)
+            throws InterruptedException, IOException, ExecutionException {
         final String pcfFile = PCFFile.generateBAFFilename(outputDirectory, tumor);
-        int result = RExecutor.executeFromClasspath("r/bafSegmentation.R", ratioFile, pcfFile);
-        if (result != 0) {
-            throw new IOException("R execution failed. Unable to complete segmentation.");
-        }
+        final List<PCFSegment> segments = segmenter.segment(Multimaps.fromPositions(bafs), AmberBAF::tumorModifiedBAF);
+        PCFFile.write(pcfFile, SAMPLE_ID, segments);
     }
 }
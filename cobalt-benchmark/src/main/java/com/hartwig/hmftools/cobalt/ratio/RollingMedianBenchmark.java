@@ -0,0 +1,71 @@
+package com.hartwig.hmftools.cobalt.ratio;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Slides a window over synthetic read ratios as diploid ratio normalization does, adding the leading ratio, removing the trailing
+ * ratio and taking the median at every step. Window 10001 matches the 5000 bin either side used by COBALT.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RollingMedianBenchmark {
+
+    private static final int RATIO_COUNT = 50_000;
+    private static final long SEED = 1;
+
+    @Param({ "1001", "10001" })
+    public int window;
+
+    private double[] ratios;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(SEED);
+        ratios = new double[RATIO_COUNT];
+        for (int i = 0; i < RATIO_COUNT; i++) {
+            ratios[i] = Math.max(0.01, 1 + 0.1 * random.nextGaussian());
+        }
+    }
+
+    @Benchmark
+    public void heap(final Blackhole blackhole) {
+        final HeapRollingMedian median = new HeapRollingMedian();
+        for (int i = 0; i < ratios.length; i++) {
+            median.add(ratios[i]);
+            if (i >= window) {
+                median.remove(ratios[i - window]);
+            }
+            blackhole.consume(median.median());
+        }
+    }
+
+    @Benchmark
+    public void fenwick(final Blackhole blackhole) {
+        final RollingMedian median = new RollingMedian(ratios);
+        for (int i = 0; i < ratios.length; i++) {
+            median.add(ratios[i]);
+            if (i >= window) {
+                median.remove(ratios[i - window]);
+            }
+            blackhole.consume(median.median());
+        }
+    }
+}
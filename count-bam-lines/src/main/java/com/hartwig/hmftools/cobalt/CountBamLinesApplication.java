@@ -102,7 +102,7 @@ public class CountBamLinesApplication implements AutoCloseable {
         versionInfo.write(config.outputDirectory());
         CobaltRatioFile.write(outputFilename, ratios);
 
-        new RatioSegmentation(executorService, config.outputDirectory()).applySegmentation(config.reference(), config.tumor());
+        new RatioSegmentation(executorService, config.outputDirectory()).applySegmentation(config.reference(), config.tumor(), ratios);
     }
 
     @NotNull
@@ -4,12 +4,14 @@ import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
 
-import com.google.common.collect.Lists;
-import com.hartwig.hmftools.common.cobalt.CobaltRatioFile;
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.utils.pcf.PCFFile;
-import com.hartwig.hmftools.common.utils.r.RExecutor;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegment;
+import com.hartwig.hmftools.common.utils.pcf.PCFSegmenter;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -19,35 +21,33 @@ class RatioSegmentation {
 
     private static final Logger LOGGER = LogManager.getLogger(RatioSegmentation.class);
 
+    private static final String SAMPLE_ID = "S1";
+    private static final double MIN_RATIO = 0.001;
+
     private final String outputDirectory;
-    private final ExecutorService executorService;
+    private final PCFSegmenter segmenter;
 
     RatioSegmentation(final ExecutorService executorService, final String outputDirectory) {
         this.outputDirectory = outputDirectory;
-        this.executorService = executorService;
+        this.segmenter = new PCFSegmenter(PCFSegmenter.DEFAULT_GAMMA, executorService);
     }
 
-    void applySegmentation(@NotNull final String reference, @NotNull final String tumor) throws ExecutionException, InterruptedException {
-        final String ratioFile = CobaltRatioFile.generateFilenameForReading(outputDirectory, tumor);
-        final List<Future<Object>> futures = Lists.newArrayList();
-        futures.add(executorService.submit(() -> ratioSegmentation(ratioFile, reference, "referenceGCDiploidRatio")));
-        futures.add(executorService.submit(() -> ratioSegmentation(ratioFile, tumor, "tumorGCRatio")));
-
-        for (Future<Object> future : futures) {
-            future.get();
-        }
+    void applySegmentation(@NotNull final String reference, @NotNull final String tumor,
+            @NotNull final Multimap<Chromosome, CobaltRatio> ratios) throws ExecutionException, InterruptedException, IOException {
+        ratioSegmentation(ratios, reference, CobaltRatio::referenceGCDiploidRatio);
+        ratioSegmentation(ratios, tumor, CobaltRatio::tumorGCRatio);
 
         LOGGER.info("Segmentation Complete");
     }
 
-    private Object ratioSegmentation(@NotNull final String ratioFile, @NotNull final String sample, @NotNull final String column)
-            throws IOException, InterruptedException {
+    private void ratioSegmentation(@NotNull final Multimap<Chromosome, CobaltRatio> ratios, @NotNull final String sample,
+            @NotNull final ToDoubleFunction<CobaltRatio> ratio) throws ExecutionException, InterruptedException, IOException {
         final String pcfFile = PCFFile.generateRatioFilename(outputDirectory, sample);
-        int result = RExecutor.executeFromClasspath("r/ratioSegmentation.R", ratioFile, column, pcfFile);
-        if (result != 0) {
-            throw new IOException("R execution failed. Unable to complete segmentation.");
-        }
+        final List<PCFSegment> segments = segmenter.segment(ratios, x -> log2(ratio.applyAsDouble(x)));
+        PCFFile.write(pcfFile, SAMPLE_ID, segments);
+    }
 
-        return null;
+    private static double log2(double ratio) {
+        return ratio < 0 ? Double.NaN : Math.log(Math.max(MIN_RATIO, ratio)) / Math.log(2);
     }
 }
@@ -0,0 +1,103 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.Chunk;
+import htsjdk.samtools.util.BlockCompressedInputStream;
+
+/**
+ * Reads the fixed length fields of BAM records directly from the decompressed BGZF stream, leaving the read name, cigar, bases,
+ * qualities and tags undecoded. Records are visited in file order over a list of chunks, typically taken from the bam index.
+ */
+class BamRecordScanner implements Closeable {
+
+    static final int FLAG_UNMAPPED = 0x4;
+    static final int FLAG_SECONDARY = 0x100;
+    static final int FLAG_DUPLICATE = 0x400;
+    static final int FLAG_SUPPLEMENTARY = 0x800;
+
+    private static final int FIXED_LENGTH = 16;
+
+    private final BlockCompressedInputStream stream;
+    private final List<Chunk> chunks;
+    private byte[] buffer = new byte[512];
+
+    private int chunkIndex = -1;
+    private int referenceIndex;
+    private int alignmentStart;
+    private int mappingQuality;
+    private int flag;
+
+    BamRecordScanner(@NotNull final File bamFile, @NotNull final List<Chunk> chunks) throws IOException {
+        this.stream = new BlockCompressedInputStream(bamFile);
+        this.chunks = chunks;
+    }
+
+    boolean next() throws IOException {
+        while (chunkIndex < 0 || stream.getFilePointer() >= chunks.get(chunkIndex).getChunkEnd()) {
+            if (++chunkIndex >= chunks.size()) {
+                return false;
+            }
+            stream.seek(chunks.get(chunkIndex).getChunkStart());
+        }
+
+        readFully(buffer, 4);
+        final int blockSize = readInt(buffer, 0);
+        if (blockSize < FIXED_LENGTH) {
+            throw new IOException("Invalid bam record length " + blockSize);
+        }
+        if (blockSize > buffer.length) {
+            buffer = new byte[Math.max(blockSize, 2 * buffer.length)];
+        }
+        readFully(buffer, blockSize);
+
+        referenceIndex = readInt(buffer, 0);
+        alignmentStart = readInt(buffer, 4) + 1;
+        mappingQuality = buffer[9] & 0xFF;
+        flag = (buffer[14] & 0xFF) | (buffer[15] & 0xFF) << 8;
+        return true;
+    }
+
+    int referenceIndex() {
+        return referenceIndex;
+    }
+
+    int alignmentStart() {
+        return alignmentStart;
+    }
+
+    int mappingQuality() {
+        return mappingQuality;
+    }
+
+    int flag() {
+        return flag;
+    }
+
+    @Override
+    public void close() throws IOException {
+        stream.close();
+    }
+
+    private void readFully(@NotNull final byte[] bytes, int length) throws IOException {
+        int offset = 0;
+        while (offset < length) {
+            int read = stream.read(bytes, offset, length - offset);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of bam file");
+            }
+            offset += read;
+        }
+    }
+
+    private static int readInt(@NotNull final byte[] bytes, int offset) {
+        return (bytes[offset] & 0xFF) | (bytes[offset + 1] & 0xFF) << 8 | (bytes[offset + 2] & 0xFF) << 16
+                | (bytes[offset + 3] & 0xFF) << 24;
+    }
+}
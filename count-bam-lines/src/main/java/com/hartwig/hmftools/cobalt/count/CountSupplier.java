@@ -2,19 +2,18 @@ package com.hartwig.hmftools.cobalt.count;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
 import com.google.common.collect.ArrayListMultimap;
-import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.cobalt.CountBamLinesApplication;
 import com.hartwig.hmftools.common.cobalt.CobaltCount;
-import com.hartwig.hmftools.common.cobalt.CobaltCountFactory;
-import com.hartwig.hmftools.common.cobalt.ReadCount;
+import com.hartwig.hmftools.common.cobalt.ImmutableCobaltRatio;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLength;
 import com.hartwig.hmftools.common.genome.chromosome.ChromosomeLengthFactory;
@@ -31,6 +30,8 @@ public class CountSupplier {
 
     private static final Logger LOGGER = LogManager.getLogger(CountBamLinesApplication.class);
 
+    private static final int CHUNK_SIZE = 10_000_000;
+
     private final String tumor;
     private final String outputDirectory;
     private final int windowSize;
@@ -61,48 +62,70 @@ public class CountSupplier {
         }
         ChromosomeLengthFile.write(chromosomeLengthFileName, lengths);
 
-        LOGGER.info("Calculating Read Count from {}", tumorFile.toString());
-        final List<Future<ChromosomeReadCount>> tumorFutures = createFutures(readerFactory, tumorFile, lengths);
+        LOGGER.info("Calculating Read Count from {} and {}", tumorFile.toString(), referenceFile.toString());
+        final List<ChromosomeReadCount> tumorCounts = Lists.newArrayList();
+        final List<ChromosomeReadCount> referenceCounts = Lists.newArrayList();
+        final List<ReadCountChunk> chunks = Lists.newArrayList();
+        for (ChromosomeLength chromosome : lengths) {
+            final ChromosomeReadCount tumorCount = new ChromosomeReadCount(chromosome.chromosome(), chromosome.length(), windowSize);
+            final ChromosomeReadCount referenceCount = new ChromosomeReadCount(chromosome.chromosome(), chromosome.length(), windowSize);
+            tumorCounts.add(tumorCount);
+            referenceCounts.add(referenceCount);
+            chunks.addAll(chunks(tumorFile, tumorCount));
+            chunks.addAll(chunks(referenceFile, referenceCount));
+        }
 
-        LOGGER.info("Calculating Read Count from {}", referenceFile.toString());
-        final List<Future<ChromosomeReadCount>> referenceFutures = createFutures(readerFactory, referenceFile, lengths);
+        // Longest first so the final chunks to finish are the short chromosome ends
+        chunks.sort(Comparator.comparingInt(ReadCountChunk::windowCount).reversed());
+        final List<Future<ReadCountChunk>> futures = Lists.newArrayList();
+        for (ReadCountChunk chunk : chunks) {
+            futures.add(executorService.submit(chunk));
+        }
 
-        final Multimap<Chromosome, ReadCount> tumorCounts = fromFutures(tumorFutures);
-        final Multimap<Chromosome, ReadCount> referenceCounts = fromFutures(referenceFutures);
+        for (Future<ReadCountChunk> future : futures) {
+            future.get();
+        }
 
         LOGGER.info("Read Count Complete");
-        return CobaltCountFactory.merge(referenceCounts, tumorCounts);
+        return merge(referenceCounts, tumorCounts);
     }
 
     @NotNull
-    private List<Future<ChromosomeReadCount>> createFutures(final SamReaderFactory readerFactory, final File file,
-            final List<ChromosomeLength> lengths) {
-        final List<Future<ChromosomeReadCount>> futures = Lists.newArrayList();
-        for (ChromosomeLength chromosome : lengths) {
-            final ChromosomeReadCount callable = new ChromosomeReadCount(file,
-                    readerFactory,
-                    chromosome.chromosome(),
-                    chromosome.length(),
-                    windowSize,
-                    minMappingQuality);
-            futures.add(executorService.submit(callable));
+    private List<ReadCountChunk> chunks(@NotNull final File file, @NotNull final ChromosomeReadCount counts) {
+        final int windowsPerChunk = Math.max(1, CHUNK_SIZE / windowSize);
+        final List<ReadCountChunk> result = Lists.newArrayList();
+        for (int start = 0; start < counts.windowCount(); start += windowsPerChunk) {
+            final int end = Math.min(counts.windowCount(), start + windowsPerChunk);
+            result.add(new ReadCountChunk(file, readerFactory, counts, minMappingQuality, start, end));
         }
 
-        return futures;
+        return result;
     }
 
     @NotNull
-    private static Multimap<Chromosome, ReadCount> fromFutures(List<Future<ChromosomeReadCount>> futures)
-            throws ExecutionException, InterruptedException {
-        final ListMultimap<Chromosome, ReadCount> readCounts = ArrayListMultimap.create();
-        for (Future<ChromosomeReadCount> future : futures) {
-            final ChromosomeReadCount readCount = future.get();
-            final Chromosome chromosome = readCount.chromosome();
-            final List<ReadCount> result = readCount.readCount();
-
-            readCounts.putAll(chromosome, result);
+    static Multimap<Chromosome, CobaltCount> merge(@NotNull final List<ChromosomeReadCount> referenceCounts,
+            @NotNull final List<ChromosomeReadCount> tumorCounts) {
+        final Multimap<Chromosome, CobaltCount> result = ArrayListMultimap.create();
+        for (int i = 0; i < referenceCounts.size(); i++) {
+            final ChromosomeReadCount reference = referenceCounts.get(i);
+            final ChromosomeReadCount tumor = tumorCounts.get(i);
+            final Chromosome chromosome = reference.chromosome();
+            for (int window = 0; window < reference.windowCount(); window++) {
+                if (reference.isReported(window)) {
+                    result.put(chromosome,
+                            ImmutableCobaltRatio.builder()
+                                    .chromosome(reference.contig())
+                                    .position(reference.position(window))
+                                    .referenceReadCount(reference.readCount(window))
+                                    .tumorReadCount(tumor.isReported(window) ? tumor.readCount(window) : 0)
+                                    .referenceGCRatio(-1)
+                                    .referenceGCDiploidRatio(-1)
+                                    .tumorGCRatio(-1)
+                                    .build());
+                }
+            }
         }
 
-        return readCounts;
+        return result;
     }
 }
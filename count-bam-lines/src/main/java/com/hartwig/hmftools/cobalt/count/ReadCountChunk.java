@@ -0,0 +1,113 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.BAMFileSpan;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMRecordIterator;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+/**
+ * Counts the eligible reads starting in a range of whole windows. Reads are attributed to the chunk containing their alignment
+ * start so adjacent chunks never count the same read.
+ *
+ * Indexed bams are scanned for the fixed length record fields only. Other inputs such as cram are read through htsjdk.
+ */
+class ReadCountChunk implements Callable<ReadCountChunk> {
+
+    private static final int INELIGIBLE_FLAGS = BamRecordScanner.FLAG_UNMAPPED | BamRecordScanner.FLAG_SECONDARY
+            | BamRecordScanner.FLAG_DUPLICATE | BamRecordScanner.FLAG_SUPPLEMENTARY;
+
+    private final File inputFile;
+    private final SamReaderFactory readerFactory;
+    private final ChromosomeReadCount counts;
+    private final int minMappingQuality;
+    private final int startIndex;
+    private final int endIndex;
+
+    ReadCountChunk(@NotNull final File inputFile, @NotNull final SamReaderFactory readerFactory, @NotNull final ChromosomeReadCount counts,
+            final int minMappingQuality, final int startIndex, final int endIndex) {
+        this.inputFile = inputFile;
+        this.readerFactory = readerFactory;
+        this.counts = counts;
+        this.minMappingQuality = minMappingQuality;
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    int windowCount() {
+        return endIndex - startIndex;
+    }
+
+    @Override
+    public ReadCountChunk call() throws Exception {
+        try (final SamReader reader = readerFactory.open(inputFile)) {
+            if (reader.type() == SamReader.Type.BAM_TYPE && reader.hasIndex()) {
+                countBam(reader);
+            } else {
+                countRecords(reader);
+            }
+        }
+
+        return this;
+    }
+
+    void countRecords(@NotNull final SamReader reader) {
+        final int start = start();
+        final int end = end();
+        try (final SAMRecordIterator iterator = reader.queryOverlapping(counts.contig(), start, end)) {
+            while (iterator.hasNext()) {
+                final SAMRecord record = iterator.next();
+                final int alignmentStart = record.getAlignmentStart();
+                if (alignmentStart >= start && alignmentStart <= end && isEligible(record)) {
+                    counts.increment(counts.index(alignmentStart));
+                }
+            }
+        }
+    }
+
+    void countBam(@NotNull final SamReader reader) throws IOException {
+        final int start = start();
+        final int end = end();
+        final int referenceIndex = reader.getFileHeader().getSequenceIndex(counts.contig());
+        final BAMFileSpan span = reader.indexing().getIndex().getSpanOverlapping(referenceIndex, start, end);
+        if (span == null || span.isEmpty()) {
+            return;
+        }
+
+        try (final BamRecordScanner scanner = new BamRecordScanner(inputFile, span.getChunks())) {
+            while (scanner.next()) {
+                if (scanner.referenceIndex() != referenceIndex || scanner.alignmentStart() < start) {
+                    continue;
+                }
+
+                // Records are coordinate sorted
+                if (scanner.alignmentStart() > end) {
+                    return;
+                }
+
+                if (scanner.mappingQuality() >= minMappingQuality && (scanner.flag() & INELIGIBLE_FLAGS) == 0) {
+                    counts.increment(counts.index(scanner.alignmentStart()));
+                }
+            }
+        }
+    }
+
+    private int start() {
+        return (int) counts.position(startIndex);
+    }
+
+    private int end() {
+        return (int) counts.position(endIndex) - 1;
+    }
+
+    private boolean isEligible(@NotNull SAMRecord record) {
+        return record.getMappingQuality() >= minMappingQuality && !(record.getReadUnmappedFlag() || record.getDuplicateReadFlag()
+                || record.isSecondaryOrSupplementary());
+    }
+}
@@ -17,12 +17,13 @@ class DiploidRatioNormalization {
     private final long maxWindowDistance;
     private final List<ReadRatio> ratios;
     private final List<ReadRatio> result = Lists.newArrayList();
-    private final RollingMedian rollingMedian = new RollingMedian();
+    private final RollingMedian rollingMedian;
 
     DiploidRatioNormalization(final double expectedRatio, final long maxWindowDistance, final long minWindowCoverage,
             final List<ReadRatio> ratios) {
         this.maxWindowDistance = maxWindowDistance;
         this.ratios = ratios;
+        this.rollingMedian = new RollingMedian(ratios.stream().filter(this::isValid).mapToDouble(ReadRatio::ratio).toArray());
 
         for (int currentIndex = 0; currentIndex < ratios.size(); currentIndex++) {
             final ReadRatio current = ratios.get(currentIndex);
@@ -1,82 +1,122 @@
 package com.hartwig.hmftools.cobalt.ratio;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
+import java.util.Arrays;
 
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Median of a multiset of doubles with logarithmic add and remove. Values are counted in a Fenwick tree indexed by their rank
+ * amongst the distinct values that can be added. Supplying those values up front avoids rebuilding the tree when a new value is
+ * first seen.
+ */
 class RollingMedian {
 
-    private final PriorityQueue<Double> minheap = new PriorityQueue<>(new MinHeapComparator());
-    private final PriorityQueue<Double> maxheap = new PriorityQueue<>(new MaxHeapComparator());
+    private double[] values;
+    private int[] counts;
+    private int[] tree;
+    private int size;
+
+    RollingMedian() {
+        this(new double[0]);
+    }
+
+    RollingMedian(@NotNull final double[] expectedValues) {
+        values = distinct(expectedValues);
+        counts = new int[values.length];
+        tree = new int[values.length + 1];
+    }
 
     void add(double n) {
-        if (isEmpty()) {
-            minheap.add(n);
-        } else {
-            if (Double.compare(n, median()) <= 0) {
-                maxheap.add(n);
-            } else {
-                minheap.add(n);
-            }
+        int index = Arrays.binarySearch(values, n);
+        if (index < 0) {
+            index = insert(-index - 1, n);
         }
-        fixChaos();
+
+        counts[index]++;
+        update(index, 1);
+        size++;
     }
 
     void remove(double n) {
-        if (!isEmpty()) {
-            if (Double.compare(n, median()) <= 0) {
-                maxheap.remove(n);
-            } else {
-                minheap.remove(n);
-            }
+        final int index = Arrays.binarySearch(values, n);
+        if (index >= 0 && counts[index] > 0) {
+            counts[index]--;
+            update(index, -1);
+            size--;
         }
-        fixChaos();
     }
 
     int size() {
-        return maxheap.size() + minheap.size();
+        return size;
     }
 
-    private boolean isEmpty() {
-        return size() == 0;
+    double median() {
+        if (size == 0) {
+            return 0;
+        }
+
+        if (size % 2 == 0) {
+            return (select(size / 2) + select(size / 2 + 1)) / 2;
+        }
+
+        return select(size / 2 + 1);
     }
 
-    private void fixChaos() {
-        //if sizes of heaps differ by 2, then it's a chaos, since median must be the middle element
-        if (Math.abs(maxheap.size() - minheap.size()) > 1) {
-            //check which one is the culprit and take action by kicking out the root from culprit into victim
-            if (maxheap.size() > minheap.size()) {
-                minheap.add(maxheap.poll());
-            } else {
-                maxheap.add(minheap.poll());
+    // Value with the given 1-based rank
+    private double select(int rank) {
+        int index = 0;
+        int remaining = rank;
+        for (int step = Integer.highestOneBit(tree.length); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next < tree.length && tree[next] < remaining) {
+                index = next;
+                remaining -= tree[next];
             }
         }
+
+        return values[index];
     }
 
-    double median() {
-        if (isEmpty()) {
-            return 0;
-        }
-        if (maxheap.size() == minheap.size()) {
-            return (maxheap.peek() + minheap.peek()) / 2;
-        } else if (maxheap.size() > minheap.size()) {
-            return maxheap.peek();
-        } else {
-            return minheap.peek();
+    private void update(int index, int delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
         }
     }
 
-    private static class MinHeapComparator implements Comparator<Double> {
-        @Override
-        public int compare(Double i, Double j) {
-            return Double.compare(i, j);
+    private int insert(int index, double n) {
+        final double[] newValues = new double[values.length + 1];
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(values, index, newValues, index + 1, values.length - index);
+        newValues[index] = n;
+
+        final int[] newCounts = new int[counts.length + 1];
+        System.arraycopy(counts, 0, newCounts, 0, index);
+        System.arraycopy(counts, index, newCounts, index + 1, counts.length - index);
+
+        values = newValues;
+        counts = newCounts;
+        tree = new int[values.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                update(i, counts[i]);
+            }
         }
+
+        return index;
     }
 
-    private static class MaxHeapComparator implements Comparator<Double> {
-        // opposite to minHeapComparator, invert the return values
-        @Override
-        public int compare(Double i, Double j) {
-            return -1 * Double.compare(i, j);
+    @NotNull
+    private static double[] distinct(@NotNull final double[] values) {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (distinct == 0 || Double.compare(sorted[distinct - 1], sorted[i]) != 0) {
+                sorted[distinct++] = sorted[i];
+            }
         }
+
+        return Arrays.copyOf(sorted, distinct);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.cobalt.CobaltCount;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class CountSupplierTest {
+
+    private static final int WINDOW_SIZE = 1000;
+
+    @Test
+    public void testReportedWindows() {
+        final ChromosomeReadCount reference = new ChromosomeReadCount("1", 10_500, WINDOW_SIZE);
+        final ChromosomeReadCount tumor = new ChromosomeReadCount("1", 10_500, WINDOW_SIZE);
+        assertEquals(11, reference.windowCount());
+
+        increment(reference, 1, 2);
+        increment(reference, 2_500, 3);
+        increment(reference, 7_001, 1);
+        increment(tumor, 2_999, 4);
+        increment(tumor, 5_000, 2);
+
+        final List<CobaltCount> counts =
+                Lists.newArrayList(CountSupplier.merge(Lists.newArrayList(reference), Lists.newArrayList(tumor)).get(HumanChromosome._1));
+        assertEquals(4, counts.size());
+        assertCount(counts.get(0), 1, 1, -1);
+        assertCount(counts.get(1), 2_001, 3, 4);
+        assertCount(counts.get(2), 7_001, 1, 0);
+        assertCount(counts.get(3), 10_001, -1, -1);
+    }
+
+    private static void increment(@NotNull final ChromosomeReadCount counts, long position, int reads) {
+        for (int i = 0; i < reads; i++) {
+            counts.increment(counts.index(position));
+        }
+    }
+
+    private static void assertCount(@NotNull final CobaltCount count, long position, int referenceReadCount, int tumorReadCount) {
+        assertEquals(position, count.position());
+        assertEquals(referenceReadCount, count.referenceReadCount());
+        assertEquals(tumorReadCount, count.tumorReadCount());
+    }
+}
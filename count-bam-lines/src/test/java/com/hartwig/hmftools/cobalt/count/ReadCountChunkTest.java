@@ -0,0 +1,106 @@
+package com.hartwig.hmftools.cobalt.count;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import htsjdk.samtools.SAMFileHeader;
+import htsjdk.samtools.SAMFileWriter;
+import htsjdk.samtools.SAMFileWriterFactory;
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+public class ReadCountChunkTest {
+
+    private static final int WINDOW_SIZE = 1000;
+    private static final int CONTIG_LENGTH = 100_000;
+    private static final int MIN_MAPPING_QUALITY = 10;
+    private static final int[] FLAGS = { 0, 0, 0, 0x4, 0x10, 0x100, 0x400, 0x800 };
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testScannerMatchesRecords() throws Exception {
+        final File bam = writeBam(folder.newFile("sample.bam"));
+        final SamReaderFactory readerFactory = SamReaderFactory.makeDefault();
+
+        for (String contig : new String[] { "1", "2", "3" }) {
+            final ChromosomeReadCount expected = new ChromosomeReadCount(contig, CONTIG_LENGTH, WINDOW_SIZE);
+            final ChromosomeReadCount victim = new ChromosomeReadCount(contig, CONTIG_LENGTH, WINDOW_SIZE);
+
+            for (int start = 0; start < expected.windowCount(); start += 17) {
+                final int end = Math.min(expected.windowCount(), start + 17);
+                try (SamReader reader = readerFactory.open(bam)) {
+                    assertTrue(reader.hasIndex());
+                    new ReadCountChunk(bam, readerFactory, expected, MIN_MAPPING_QUALITY, start, end).countRecords(reader);
+                    new ReadCountChunk(bam, readerFactory, victim, MIN_MAPPING_QUALITY, start, end).countBam(reader);
+                }
+            }
+
+            for (int i = 0; i < expected.windowCount(); i++) {
+                assertEquals(expected.isReported(i), victim.isReported(i));
+                assertEquals(expected.readCount(i), victim.readCount(i));
+            }
+        }
+    }
+
+    @NotNull
+    private static File writeBam(@NotNull final File file) throws IOException {
+        final SAMFileHeader header = new SAMFileHeader();
+        header.setSortOrder(SAMFileHeader.SortOrder.coordinate);
+        header.addSequence(new SAMSequenceRecord("1", CONTIG_LENGTH));
+        header.addSequence(new SAMSequenceRecord("2", CONTIG_LENGTH));
+        header.addSequence(new SAMSequenceRecord("3", CONTIG_LENGTH));
+
+        final Random random = new Random(0);
+        try (SAMFileWriter writer = new SAMFileWriterFactory().setCreateIndex(true).makeBAMWriter(header, true, file)) {
+            for (int referenceIndex = 0; referenceIndex < 2; referenceIndex++) {
+                int position = 1;
+                for (int i = 0; position < CONTIG_LENGTH - 200; i++) {
+                    final SAMRecord record = new SAMRecord(header);
+                    record.setReadName("read" + referenceIndex + "_" + i);
+                    record.setReferenceIndex(referenceIndex);
+                    record.setAlignmentStart(position);
+                    record.setCigarString("100M");
+                    record.setReadString(bases(random, 100));
+                    record.setBaseQualityString(qualities(100));
+                    record.setFlags(FLAGS[random.nextInt(FLAGS.length)]);
+                    record.setMappingQuality(record.getReadUnmappedFlag() ? 0 : random.nextInt(60));
+                    writer.addAlignment(record);
+                    position += random.nextInt(8);
+                }
+            }
+        }
+
+        return file;
+    }
+
+    @NotNull
+    private static String bases(@NotNull final Random random, int length) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append("ACGT".charAt(random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+
+    @NotNull
+    private static String qualities(int length) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append('I');
+        }
+        return builder.toString();
+    }
+}
@@ -2,6 +2,12 @@ package com.hartwig.hmftools.cobalt.ratio;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.Doubles;
+
 import org.junit.Before;
 import org.junit.Test;
 
@@ -44,6 +50,41 @@ public class RollingMedianTest {
         assertMedian(5.5);
     }
 
+    @Test
+    public void testRemoveMissingValueIsIgnored() {
+        testThreeElements();
+        victim.remove(8);
+        assertMedian(6);
+        assertEquals(3, victim.size());
+    }
+
+    @Test
+    public void testMatchesSortedWindow() {
+        final Random random = new Random(0);
+        final double[] values = new double[5_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(200) / 100d;
+        }
+
+        final int window = 101;
+        final RollingMedian expectedValuesVictim = new RollingMedian(values);
+        final List<Double> sorted = Lists.newArrayList();
+        for (int i = 0; i < values.length; i++) {
+            victim.add(values[i]);
+            expectedValuesVictim.add(values[i]);
+            sorted.add(values[i]);
+            if (i >= window) {
+                victim.remove(values[i - window]);
+                expectedValuesVictim.remove(values[i - window]);
+                sorted.remove(values[i - window]);
+            }
+
+            final double expected = Doubles.median(sorted);
+            assertMedian(expected);
+            assertEquals(expected, expectedValuesVictim.median(), EPSILON);
+        }
+    }
+
     private void assertMedian(double expected) {
         assertEquals(expected, victim.median(), EPSILON);
     }
@@ -0,0 +1,251 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sorted positions and packed alleles of the AMBER sites of each contig. The binary form is memory mapped so loading time does not
+ * depend on the number of sites, and site objects are only created for the ranges that are requested.
+ *
+ * The file is a header of contig names and site counts followed by the positions of every contig as big endian ints and then one
+ * byte per site holding the ref base, alt base and snp check flag.
+ */
+public final class AmberSiteIndex {
+
+    public static final String EXTENSION = ".amber.sites";
+
+    private static final int MAGIC = 0x414D4253;
+    private static final int VERSION = 1;
+    private static final int BASE_BITS = 3;
+    private static final int BASE_MASK = 0x7;
+    private static final int SNP_CHECK = 0x40;
+    private static final BaseDepth.Base[] BASES = BaseDepth.Base.values();
+
+    private final List<String> contigs;
+    private final Map<String, IntBuffer> positions;
+    private final Map<String, ByteBuffer> alleles;
+    private final int size;
+
+    private AmberSiteIndex(@NotNull final ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not an AMBER site index");
+        }
+
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported AMBER site index version " + version);
+        }
+
+        final int contigCount = buffer.getInt();
+        final List<Integer> counts = Lists.newArrayList();
+        contigs = Lists.newArrayList();
+        for (int i = 0; i < contigCount; i++) {
+            final byte[] name = new byte[buffer.getShort()];
+            buffer.get(name);
+            contigs.add(new String(name, StandardCharsets.UTF_8));
+            counts.add(buffer.getInt());
+        }
+
+        positions = Maps.newHashMap();
+        alleles = Maps.newHashMap();
+        int total = 0;
+        int offset = buffer.position();
+        for (int i = 0; i < contigCount; i++) {
+            int count = counts.get(i);
+            positions.put(contigs.get(i), slice(buffer, offset, 4 * count).asIntBuffer());
+            offset += 4 * count;
+            total += count;
+        }
+
+        for (int i = 0; i < contigCount; i++) {
+            int count = counts.get(i);
+            alleles.put(contigs.get(i), slice(buffer, offset, count));
+            offset += count;
+        }
+
+        size = total;
+    }
+
+    /**
+     * Loads a site index if the path has the index extension, otherwise reads the sites from vcf.
+     */
+    @NotNull
+    public static AmberSiteIndex load(@NotNull final String path) throws IOException {
+        return path.endsWith(EXTENSION) ? read(path) : create(AmberSiteFactory.sites(path));
+    }
+
+    @NotNull
+    public static AmberSiteIndex read(@NotNull final String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(new File(filename).toPath(), StandardOpenOption.READ)) {
+            return new AmberSiteIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    @NotNull
+    public static AmberSiteIndex create(@NotNull final ListMultimap<Chromosome, AmberSite> sites) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(bytes, sites);
+        return new AmberSiteIndex(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    public static void write(@NotNull final String filename, @NotNull final ListMultimap<Chromosome, AmberSite> sites)
+            throws IOException {
+        try (OutputStream output = new FileOutputStream(filename)) {
+            write(output, sites);
+        }
+    }
+
+    private static void write(@NotNull final OutputStream outputStream, @NotNull final ListMultimap<Chromosome, AmberSite> sites)
+            throws IOException {
+        final List<Chromosome> chromosomes = Lists.newArrayList(sites.keySet());
+        chromosomes.sort(Comparator.comparingInt(x -> HumanChromosome.fromString(sites.get(x).get(0).chromosome()).ordinal()));
+
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(outputStream));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        output.writeInt(chromosomes.size());
+        for (Chromosome chromosome : chromosomes) {
+            final byte[] name = sites.get(chromosome).get(0).chromosome().getBytes(StandardCharsets.UTF_8);
+            output.writeShort(name.length);
+            output.write(name);
+            output.writeInt(sites.get(chromosome).size());
+        }
+
+        for (Chromosome chromosome : chromosomes) {
+            long previous = 0;
+            for (AmberSite site : sites.get(chromosome)) {
+                if (site.position() < previous) {
+                    throw new IllegalArgumentException("Sites are not sorted at " + site.chromosome() + ":" + site.position());
+                }
+                output.writeInt((int) site.position());
+                previous = site.position();
+            }
+        }
+
+        for (Chromosome chromosome : chromosomes) {
+            for (AmberSite site : sites.get(chromosome)) {
+                output.writeByte(encode(site));
+            }
+        }
+
+        output.flush();
+    }
+
+    @NotNull
+    public List<String> contigs() {
+        return contigs;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int size(@NotNull final String contig) {
+        final IntBuffer contigPositions = positions.get(contig);
+        return contigPositions == null ? 0 : contigPositions.limit();
+    }
+
+    public int position(@NotNull final String contig, int index) {
+        return positions.get(contig).get(index);
+    }
+
+    /**
+     * Returns the index of the first site at or after the position.
+     */
+    public int lowerBound(@NotNull final String contig, long position) {
+        final IntBuffer contigPositions = positions.get(contig);
+        if (contigPositions == null) {
+            return 0;
+        }
+
+        int low = 0;
+        int high = contigPositions.limit();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (contigPositions.get(mid) < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
+
+    public boolean snpCheck(@NotNull final String contig, long position) {
+        final int contigSize = size(contig);
+        for (int i = lowerBound(contig, position); i < contigSize && position(contig, i) == position; i++) {
+            if ((alleles.get(contig).get(i) & SNP_CHECK) != 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @NotNull
+    public AmberSite site(@NotNull final String contig, int index) {
+        final byte packed = alleles.get(contig).get(index);
+        return ImmutableAmberSite.builder()
+                .chromosome(contig)
+                .position(position(contig, index))
+                .ref(BASES[packed & BASE_MASK].toString())
+                .alt(BASES[(packed >> BASE_BITS) & BASE_MASK].toString())
+                .snpCheck((packed & SNP_CHECK) != 0)
+                .build();
+    }
+
+    @NotNull
+    public List<AmberSite> sites(@NotNull final String contig, int fromIndex, int toIndex) {
+        final List<AmberSite> result = Lists.newArrayListWithExpectedSize(toIndex - fromIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            result.add(site(contig, i));
+        }
+        return result;
+    }
+
+    @NotNull
+    public ListMultimap<Chromosome, AmberSite> sites() {
+        final ListMultimap<Chromosome, AmberSite> result = ArrayListMultimap.create();
+        for (String contig : contigs) {
+            result.putAll(HumanChromosome.fromString(contig), sites(contig, 0, size(contig)));
+        }
+        return result;
+    }
+
+    private static int encode(@NotNull final AmberSite site) {
+        final BaseDepth.Base ref = BaseDepth.Base.valueOf(site.ref());
+        final BaseDepth.Base alt = BaseDepth.Base.valueOf(site.alt());
+        return ref.ordinal() | alt.ordinal() << BASE_BITS | (site.snpCheck() ? SNP_CHECK : 0);
+    }
+
+    @NotNull
+    private static ByteBuffer slice(@NotNull final ByteBuffer buffer, int offset, int length) {
+        final ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(offset);
+        duplicate.limit(offset + length);
+        return duplicate.slice();
+    }
+}
@@ -3,13 +3,9 @@ package com.hartwig.hmftools.common.amber;
 import java.io.File;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.stream.Collectors;
 
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
-import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
-import com.hartwig.hmftools.common.utils.collection.Multimaps;
 import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
 
 import org.jetbrains.annotations.NotNull;
@@ -23,24 +19,31 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
     private final String contig;
     private final String bamFile;
     private final SamReaderFactory samReaderFactory;
-    private final List<ModifiableBaseDepth> evidence;
-    private final GenomePositionSelector<ModifiableBaseDepth> selector;
-    private final BaseDepthFactory bafFactory;
+    private final List<AmberSite> sites;
+    private final SitePileup pileup;
     private final SAMSlicer supplier;
 
     public BaseDepthEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig, final String bamFile,
             final SamReaderFactory samReaderFactory, final List<AmberSite> bafRegions) {
-        this.bafFactory = new BaseDepthFactory(minBaseQuality);
         this.contig = contig;
         this.bamFile = bamFile;
         this.samReaderFactory = samReaderFactory;
+        this.sites = bafRegions;
+
         final GenomeRegions builder = new GenomeRegions(contig, typicalReadDepth);
-        bafRegions.forEach(x -> builder.addPosition(x.position()));
-        final List<GenomeRegion> bafRegions1 = builder.build();
+        final int[] positions = new int[bafRegions.size()];
+        final byte[] ref = new byte[bafRegions.size()];
+        final byte[] alt = new byte[bafRegions.size()];
+        for (int i = 0; i < bafRegions.size(); i++) {
+            final AmberSite site = bafRegions.get(i);
+            builder.addPosition(site.position());
+            positions[i] = (int) site.position();
+            ref[i] = SitePileup.base(BaseDepth.Base.valueOf(site.ref()));
+            alt[i] = SitePileup.base(BaseDepth.Base.valueOf(site.alt()));
+        }
 
-        this.evidence = bafRegions.stream().map(BaseDepthFactory::create).collect(Collectors.toList());
-        this.selector = GenomePositionSelectorFactory.create(Multimaps.fromPositions(evidence));
-        this.supplier = new SAMSlicer(minMappingQuality, bafRegions1);
+        this.pileup = new SitePileup(minBaseQuality, true, positions, ref, alt);
+        this.supplier = new SAMSlicer(minMappingQuality, builder.build());
     }
 
     @NotNull
@@ -50,7 +53,17 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
 
     @NotNull
     public List<BaseDepth> evidence() {
-        return evidence.stream().filter(x -> x.readDepth() > 0).collect(Collectors.toList());
+        final List<BaseDepth> result = Lists.newArrayList();
+        for (int i = 0; i < pileup.size(); i++) {
+            if (pileup.readDepth[i] > 0) {
+                result.add(BaseDepthFactory.create(sites.get(i))
+                        .setReadDepth(pileup.readDepth[i])
+                        .setRefSupport(pileup.refSupport[i])
+                        .setAltSupport(pileup.altSupport[i])
+                        .setIndelCount(pileup.indelCount[i]));
+            }
+        }
+        return result;
     }
 
     @Override
@@ -63,11 +76,6 @@ public class BaseDepthEvidence implements Callable<BaseDepthEvidence> {
     }
 
     private void record(@NotNull final SAMRecord record) {
-        selector.select(asRegion(record), bafEvidence -> bafFactory.addEvidence(bafEvidence, record));
-    }
-
-    @NotNull
-    private static GenomeRegion asRegion(@NotNull final SAMRecord record) {
-        return GenomeRegions.create(record.getContig(), record.getAlignmentStart(), record.getAlignmentEnd());
+        pileup.add(record);
     }
 }
@@ -0,0 +1,208 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Accumulates read depth, ref, alt and indel support at a sorted array of site positions in primitive counters. Each record's cigar
+ * is walked once into reusable alignment block arrays, after which every overlapping site is resolved without allocating.
+ *
+ * Counting follows BaseDepthFactory.addEvidence: a site within a deletion counts towards depth using the quality of the first base
+ * after the deletion, and a site immediately followed by an insert or delete counts as an indel.
+ */
+class SitePileup {
+
+    private final int minBaseQuality;
+    private final boolean ignoreCase;
+    private final int[] positions;
+    private final byte[] ref;
+    private final byte[] alt;
+
+    final int[] readDepth;
+    final int[] refSupport;
+    final int[] altSupport;
+    final int[] altQuality;
+    final int[] indelCount;
+
+    private int blockCount;
+    private int[] blockRefStart = new int[8];
+    private int[] blockReadStart = new int[8];
+    private int[] blockLength = new int[8];
+
+    SitePileup(int minBaseQuality, boolean ignoreCase, @NotNull final int[] positions, @NotNull final byte[] ref,
+            @NotNull final byte[] alt) {
+        for (int i = 1; i < positions.length; i++) {
+            if (positions[i] < positions[i - 1]) {
+                throw new IllegalArgumentException("Site positions must be sorted");
+            }
+        }
+
+        this.minBaseQuality = minBaseQuality;
+        this.ignoreCase = ignoreCase;
+        this.positions = positions;
+        this.ref = ref;
+        this.alt = alt;
+        this.readDepth = new int[positions.length];
+        this.refSupport = new int[positions.length];
+        this.altSupport = new int[positions.length];
+        this.altQuality = new int[positions.length];
+        this.indelCount = new int[positions.length];
+    }
+
+    @NotNull
+    static SitePileup create(int minBaseQuality, boolean ignoreCase, @NotNull final List<BaseDepth> sites) {
+        final int[] positions = new int[sites.size()];
+        final byte[] ref = new byte[sites.size()];
+        final byte[] alt = new byte[sites.size()];
+        for (int i = 0; i < sites.size(); i++) {
+            final BaseDepth site = sites.get(i);
+            positions[i] = (int) site.position();
+            ref[i] = base(site.ref());
+            alt[i] = base(site.alt());
+        }
+
+        return new SitePileup(minBaseQuality, ignoreCase, positions, ref, alt);
+    }
+
+    int size() {
+        return positions.length;
+    }
+
+    static byte base(@NotNull final BaseDepth.Base base) {
+        return (byte) base.name().charAt(0);
+    }
+
+    void add(@NotNull final SAMRecord record) {
+        final int alignmentStart = record.getAlignmentStart();
+        final int alignmentEnd = record.getAlignmentEnd();
+        int site = lowerBound(alignmentStart);
+        if (site == positions.length || positions[site] > alignmentEnd) {
+            return;
+        }
+
+        blocks(record);
+        final byte[] bases = record.getReadBases();
+        final byte[] qualities = record.getBaseQualities();
+
+        int block = 0;
+        for (; site < positions.length && positions[site] <= alignmentEnd; site++) {
+            final int position = positions[site];
+            while (block < blockCount && position >= blockRefStart[block] + blockLength[block]) {
+                block++;
+            }
+
+            final int readPosition;
+            final int quality;
+            if (block == blockCount) {
+                // Deleted with no aligned base after it
+                readPosition = 0;
+                quality = 0;
+            } else if (position >= blockRefStart[block]) {
+                readPosition = blockReadStart[block] + position - blockRefStart[block];
+                quality = quality(qualities, readPosition);
+            } else {
+                // Deleted so use the quality of the next aligned base
+                readPosition = 0;
+                quality = quality(qualities, blockReadStart[block]);
+            }
+
+            if (quality < minBaseQuality) {
+                continue;
+            }
+
+            readDepth[site]++;
+            if (readPosition == 0) {
+                continue;
+            }
+
+            if (position < alignmentEnd && position == blockRefStart[block] + blockLength[block] - 1 && !continues(block, readPosition)) {
+                indelCount[site]++;
+                continue;
+            }
+
+            final byte base = ignoreCase ? (byte) Character.toUpperCase(bases[readPosition - 1]) : bases[readPosition - 1];
+            if (base == ref[site]) {
+                refSupport[site]++;
+            } else if (base == alt[site]) {
+                altSupport[site]++;
+                altQuality[site] += quality;
+            }
+        }
+    }
+
+    private boolean continues(int block, int readPosition) {
+        final int lastRefPosition = blockRefStart[block] + blockLength[block] - 1;
+        final int next = block + 1;
+        return next < blockCount && blockRefStart[next] == lastRefPosition + 1 && blockReadStart[next] == readPosition + 1;
+    }
+
+    private void blocks(@NotNull final SAMRecord record) {
+        blockCount = 0;
+        int refPosition = record.getAlignmentStart();
+        int readPosition = 1;
+        final List<CigarElement> elements = record.getCigar().getCigarElements();
+        for (int i = 0; i < elements.size(); i++) {
+            final CigarElement element = elements.get(i);
+            final int length = element.getLength();
+            switch (element.getOperator()) {
+                case M:
+                case EQ:
+                case X:
+                    addBlock(refPosition, readPosition, length);
+                    refPosition += length;
+                    readPosition += length;
+                    break;
+                case D:
+                case N:
+                    refPosition += length;
+                    break;
+                case I:
+                case S:
+                    readPosition += length;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void addBlock(int refStart, int readStart, int length) {
+        if (length == 0) {
+            return;
+        }
+
+        if (blockCount == blockLength.length) {
+            blockRefStart = Arrays.copyOf(blockRefStart, 2 * blockCount);
+            blockReadStart = Arrays.copyOf(blockReadStart, 2 * blockCount);
+            blockLength = Arrays.copyOf(blockLength, 2 * blockCount);
+        }
+
+        blockRefStart[blockCount] = refStart;
+        blockReadStart[blockCount] = readStart;
+        blockLength[blockCount] = length;
+        blockCount++;
+    }
+
+    private int lowerBound(int position) {
+        int low = 0;
+        int high = positions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int quality(@NotNull final byte[] qualities, int readPosition) {
+        return readPosition <= qualities.length ? qualities[readPosition - 1] : 0;
+    }
+}
@@ -3,13 +3,9 @@ package com.hartwig.hmftools.common.amber;
 import java.io.File;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.stream.Collectors;
 
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
-import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
-import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
-import com.hartwig.hmftools.common.utils.collection.Multimaps;
 import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
 
 import org.jetbrains.annotations.NotNull;
@@ -22,28 +18,23 @@ public class TumorBAFEvidence implements Callable<TumorBAFEvidence> {
 
     private final String contig;
     private final String bamFile;
-    private final TumorBAFFactory bafFactory;
-    private final List<ModifiableTumorBAF> evidence;
+    private final List<BaseDepth> normal;
+    private final SitePileup pileup;
     private final SamReaderFactory samReaderFactory;
-    private final GenomePositionSelector<ModifiableTumorBAF> selector;
     private final SAMSlicer supplier;
 
     public TumorBAFEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig, final String bamFile,
             final SamReaderFactory samReaderFactory, final List<BaseDepth> baseDepths) {
-        this.bafFactory = new TumorBAFFactory(minBaseQuality);
         this.contig = contig;
         this.bamFile = bamFile;
         this.samReaderFactory = samReaderFactory;
+        this.normal = baseDepths;
 
         final GenomeRegions builder = new GenomeRegions(contig, typicalReadDepth);
-        for (BaseDepth bafRegion : baseDepths) {
-            builder.addPosition(bafRegion.position());
-        }
+        baseDepths.forEach(x -> builder.addPosition(x.position()));
 
-        final List<GenomeRegion> bafRegions = builder.build();
-        this.evidence = baseDepths.stream().map(TumorBAFFactory::create).collect(Collectors.toList());
-        this.selector = GenomePositionSelectorFactory.create(Multimaps.fromPositions(evidence));
-        this.supplier = new SAMSlicer(minMappingQuality, bafRegions);
+        this.pileup = pileup(minBaseQuality, baseDepths);
+        this.supplier = new SAMSlicer(minMappingQuality, builder.build());
     }
 
     @NotNull
@@ -53,7 +44,28 @@ public class TumorBAFEvidence implements Callable<TumorBAFEvidence> {
 
     @NotNull
     public List<TumorBAF> evidence() {
-        return evidence.stream().filter(x -> x.tumorIndelCount() == 0).collect(Collectors.toList());
+        return evidence(normal, pileup);
+    }
+
+    @NotNull
+    static SitePileup pileup(int minBaseQuality, @NotNull final List<BaseDepth> baseDepths) {
+        // Unlike the normal, tumor bases are matched case sensitively
+        return SitePileup.create(minBaseQuality, false, baseDepths);
+    }
+
+    @NotNull
+    static List<TumorBAF> evidence(@NotNull final List<BaseDepth> normal, @NotNull final SitePileup pileup) {
+        final List<TumorBAF> result = Lists.newArrayList();
+        for (int i = 0; i < pileup.size(); i++) {
+            if (pileup.indelCount[i] == 0) {
+                result.add(TumorBAFFactory.create(normal.get(i))
+                        .setTumorReadDepth(pileup.readDepth[i])
+                        .setTumorRefSupport(pileup.refSupport[i])
+                        .setTumorAltSupport(pileup.altSupport[i])
+                        .setTumorAltQuality(pileup.altQuality[i]));
+            }
+        }
+        return result;
     }
 
     @Override
@@ -66,11 +78,6 @@ public class TumorBAFEvidence implements Callable<TumorBAFEvidence> {
     }
 
     private void record(@NotNull final SAMRecord record) {
-        selector.select(asRegion(record), bafEvidence -> bafFactory.addEvidence(bafEvidence, record));
-    }
-
-    @NotNull
-    private static GenomeRegion asRegion(@NotNull final SAMRecord record) {
-        return GenomeRegions.create(record.getContig(), record.getAlignmentStart(), record.getAlignmentEnd());
+        pileup.add(record);
     }
 }
@@ -0,0 +1,89 @@
+package com.hartwig.hmftools.common.amber;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.common.variant.hotspot.SAMSlicer;
+
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+
+/**
+ * Collects both the BAF evidence of normal heterozygous sites and the contamination evidence of normal homozygous sites from a single
+ * slice of the tumor bam over the union of both.
+ */
+public class TumorEvidence implements Callable<TumorEvidence> {
+
+    private final String contig;
+    private final String bamFile;
+    private final SamReaderFactory samReaderFactory;
+    private final List<BaseDepth> hetSites;
+    private final List<BaseDepth> homSites;
+    private final SitePileup hetPileup;
+    private final SitePileup homPileup;
+    private final SAMSlicer supplier;
+
+    public TumorEvidence(int typicalReadDepth, int minMappingQuality, int minBaseQuality, final String contig, final String bamFile,
+            final SamReaderFactory samReaderFactory, final List<BaseDepth> hetSites, final List<BaseDepth> homSites) {
+        this.contig = contig;
+        this.bamFile = bamFile;
+        this.samReaderFactory = samReaderFactory;
+        this.hetSites = hetSites;
+        this.homSites = homSites;
+        this.hetPileup = TumorBAFEvidence.pileup(minBaseQuality, hetSites);
+        this.homPileup = SitePileup.create(minBaseQuality, true, homSites);
+
+        final GenomeRegions builder = new GenomeRegions(contig, typicalReadDepth);
+        hetSites.forEach(x -> builder.addPosition(x.position()));
+        homSites.forEach(x -> builder.addPosition(x.position()));
+        this.supplier = new SAMSlicer(minMappingQuality, builder.build());
+    }
+
+    @NotNull
+    public String contig() {
+        return contig;
+    }
+
+    @NotNull
+    public List<TumorBAF> baf() {
+        return TumorBAFEvidence.evidence(hetSites, hetPileup);
+    }
+
+    @NotNull
+    public List<TumorContamination> contamination() {
+        final List<TumorContamination> result = Lists.newArrayList();
+        for (int i = 0; i < homPileup.size(); i++) {
+            if (homPileup.altSupport[i] != 0) {
+                final BaseDepth normalDepth = homSites.get(i);
+                final BaseDepth tumorDepth = BaseDepthFactory.create(normalDepth)
+                        .setReadDepth(homPileup.readDepth[i])
+                        .setRefSupport(homPileup.refSupport[i])
+                        .setAltSupport(homPileup.altSupport[i])
+                        .setIndelCount(homPileup.indelCount[i]);
+                result.add(ImmutableTumorContamination.builder().from(normalDepth).normal(normalDepth).tumor(tumorDepth).build());
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public TumorEvidence call() throws Exception {
+        try (SamReader reader = samReaderFactory.open(new File(bamFile))) {
+            supplier.slice(reader, this::record);
+        }
+
+        return this;
+    }
+
+    private void record(@NotNull final SAMRecord record) {
+        hetPileup.add(record);
+        homPileup.add(record);
+    }
+}
@@ -25,6 +25,25 @@ public class CircosExecution {
     public Integer generateCircos(@NotNull final String inputConfig, @NotNull final String outputPath, @NotNull final String outputFile,
             @NotNull final String errorPath) throws IOException, InterruptedException {
         final File redirectErrorFile = new File(errorPath + File.separator + outputFile + ".error");
+        int result = startCircos(inputConfig, outputPath, outputFile, errorPath).waitFor();
+        if (result != 0) {
+            LOGGER.fatal("Fatal error creating circos plot. Examine error file " + redirectErrorFile.toString() + " for details.");
+            System.exit(1);
+        }
+
+        final File finalFile = new File(outputPath + File.separator + outputFile);
+        if (!finalFile.exists()) {
+            LOGGER.fatal("Failed to create file {}", finalFile.toString());
+            System.exit(1);
+        }
+
+        return 0;
+    }
+
+    @NotNull
+    public Process startCircos(@NotNull final String inputConfig, @NotNull final String outputPath, @NotNull final String outputFile,
+            @NotNull final String errorPath) throws IOException {
+        final File redirectErrorFile = new File(errorPath + File.separator + outputFile + ".error");
         final File redirectOutputFile = new File(errorPath + File.separator + outputFile + ".out");
 
         final String[] command = new String[8];
@@ -38,18 +57,6 @@ public class CircosExecution {
         command[7] = outputFile;
 
         LOGGER.info(String.format("Generating " + outputFile + " via command: %s", CollectionUtil.join(Arrays.asList(command), " ")));
-        int result = new ProcessBuilder(command).redirectError(redirectErrorFile).redirectOutput(redirectOutputFile).start().waitFor();
-        if (result != 0) {
-            LOGGER.fatal("Fatal error creating circos plot. Examine error file " + redirectErrorFile.toString() + " for details.");
-            System.exit(1);
-        }
-
-        final File finalFile = new File(outputPath + File.separator + outputFile);
-        if (!finalFile.exists()) {
-            LOGGER.fatal("Failed to create file {}", finalFile.toString());
-            System.exit(1);
-        }
-
-        return 0;
+        return new ProcessBuilder(command).redirectError(redirectErrorFile).redirectOutput(redirectOutputFile).start();
     }
 }
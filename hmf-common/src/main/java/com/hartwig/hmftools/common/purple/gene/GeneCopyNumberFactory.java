@@ -1,10 +1,16 @@
 package com.hartwig.hmftools.common.purple.gene;
 
+import java.util.Collections;
 import java.util.List;
 
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.region.HmfExonRegion;
 import com.hartwig.hmftools.common.genome.region.HmfTranscriptRegion;
 import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.utils.collection.Multimaps;
 import com.hartwig.hmftools.common.utils.zipper.RegionZipper;
 
 import org.jetbrains.annotations.NotNull;
@@ -17,12 +23,27 @@ public final class GeneCopyNumberFactory {
     @NotNull
     public static List<GeneCopyNumber> geneCopyNumbers(@NotNull final List<HmfTranscriptRegion> genes,
             @NotNull final List<PurpleCopyNumber> somaticCopyNumbers, @NotNull final List<PurpleCopyNumber> germlineDeletions) {
+        final ListMultimap<Chromosome, PurpleCopyNumber> somaticMap = Multimaps.fromRegions(somaticCopyNumbers);
+        final ListMultimap<Chromosome, PurpleCopyNumber> germlineMap = Multimaps.fromRegions(germlineDeletions);
 
         final List<GeneCopyNumber> result = Lists.newArrayList();
         for (HmfTranscriptRegion gene : genes) {
+            final List<HmfExonRegion> exome = gene.exome();
+            if (exome.isEmpty()) {
+                continue;
+            }
+
+            final Chromosome chromosome = HumanChromosome.fromString(gene.chromosome());
+            long exomeStart = Long.MAX_VALUE;
+            long exomeEnd = Long.MIN_VALUE;
+            for (HmfExonRegion exon : exome) {
+                exomeStart = Math.min(exomeStart, exon.start());
+                exomeEnd = Math.max(exomeEnd, exon.end());
+            }
+
             final GeneCopyNumberBuilder builder = new GeneCopyNumberBuilder(gene);
-            RegionZipper.zip(somaticCopyNumbers, gene.exome(), builder);
-            RegionZipper.zip(germlineDeletions, gene.exome(), builder);
+            RegionZipper.zip(overlapping(somaticMap.get(chromosome), exomeStart, exomeEnd), exome, builder);
+            RegionZipper.zip(overlapping(germlineMap.get(chromosome), exomeStart, exomeEnd), exome, builder);
 
             GeneCopyNumber geneCopyNumber = builder.build();
             if (geneCopyNumber.totalRegions() > 0) {
@@ -32,4 +53,30 @@ public final class GeneCopyNumberFactory {
         }
         return result;
     }
+
+    /**
+     * Returns the sorted, non-overlapping copy numbers that may overlap the given range. Zipping the exome against this sub list
+     * visits exactly the same overlaps, in the same order, as zipping it against the whole genome.
+     */
+    @NotNull
+    static List<PurpleCopyNumber> overlapping(@NotNull final List<PurpleCopyNumber> copyNumbers, long start, long end) {
+        int from = Math.max(0, lastStartingAtOrBefore(copyNumbers, start));
+        int to = lastStartingAtOrBefore(copyNumbers, end);
+        return to < from ? Collections.emptyList() : copyNumbers.subList(from, to + 1);
+    }
+
+    private static int lastStartingAtOrBefore(@NotNull final List<PurpleCopyNumber> copyNumbers, long position) {
+        int low = 0;
+        int high = copyNumbers.size() - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (copyNumbers.get(mid).start() <= position) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return high;
+    }
 }
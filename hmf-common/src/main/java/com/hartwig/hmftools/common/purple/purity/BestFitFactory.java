@@ -10,7 +10,7 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import com.hartwig.hmftools.common.utils.Doubles;
-import com.hartwig.hmftools.common.variant.SomaticVariant;
+import com.hartwig.hmftools.common.variant.AllelicDepth;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -29,7 +29,7 @@ public class BestFitFactory {
 
     public BestFitFactory(double minSomaticUnadjustedVaf, int minVariants, int minPeak, double highlyDiploidPercentage,
             double minSomaticPurity, double minSomaticPuritySpread, @NotNull final List<FittedPurity> bestFitPerPurity,
-            @NotNull final List<FittedPurity> all, @NotNull final List<SomaticVariant> somatics) {
+            @NotNull final List<FittedPurity> all, @NotNull final List<? extends AllelicDepth> somatics) {
         assert (!bestFitPerPurity.isEmpty());
         this.minSomaticUnadjustedVaf = minSomaticUnadjustedVaf;
         this.minVariants = minVariants;
@@ -69,7 +69,7 @@ public class BestFitFactory {
         bestFit = ImmutableBestFit.builder().fit(fit).status(status).score(score).bestFitPerPurity(bestFitPerPurity).allFits(all).build();
     }
 
-    private long somaticsWithSufficientVaf(@NotNull Collection<SomaticVariant> variants) {
+    private long somaticsWithSufficientVaf(@NotNull Collection<? extends AllelicDepth> variants) {
         return variants.stream().filter(x -> Doubles.greaterOrEqual(x.alleleFrequency(), minSomaticUnadjustedVaf)).count();
     }
 
@@ -7,7 +7,6 @@ import static com.hartwig.hmftools.common.utils.Doubles.positiveOrZero;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -19,21 +18,33 @@ import com.hartwig.hmftools.common.genome.position.GenomePositionSelector;
 import com.hartwig.hmftools.common.genome.position.GenomePositionSelectorFactory;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.gender.Gender;
-import com.hartwig.hmftools.common.purple.region.FittedRegion;
+import com.hartwig.hmftools.common.purple.region.FittedRegionBatch;
 import com.hartwig.hmftools.common.purple.region.FittedRegionFactory;
 import com.hartwig.hmftools.common.purple.region.GermlineStatus;
 import com.hartwig.hmftools.common.purple.region.ObservedRegion;
 import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.common.utils.collection.Downsample;
-import com.hartwig.hmftools.common.variant.SomaticVariant;
+import com.hartwig.hmftools.common.variant.AllelicDepth;
+import com.hartwig.hmftools.common.variant.SomaticDepth;
 
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Fits purity and norm factor over a grid of the given increments. The exhaustive search scores every grid point. The adaptive
+ * search scores every fourth purity and norm factor first, then scores the full resolution grid around each point within range of
+ * the best score and around the best point of each purity, continuing outwards from newly scored points until none of these points
+ * has an unscored neighbour. Refining the best point of each purity keeps separate local optima, such as a ploidy doubling at about
+ * half the purity, in the results.
+ */
 public class FittedPurityFactory {
 
     private static final int MAX_SOMATICS_TO_FIT = 1000;
     private static final double MAX_TUMOR_RATIO_TO_FIT = 3;
 
+    private static final int COARSE_STEP = 4;
+    private static final double REFINE_PERCENT_RANGE = 0.2;
+    private static final double REFINE_ABS_RANGE = 0.001;
+
     private final int maxPloidy;
     private final Gender gender;
     private final double minPurity;
@@ -44,11 +55,12 @@ public class FittedPurityFactory {
     private final double minNormFactor;
     private final double maxNormFactor;
     private final double somaticPenaltyWeight;
+    private final boolean exhaustive;
 
     @NotNull
     private final FittedRegionFactory fittedRegionFactory;
     private final ExecutorService executorService;
-    private final Collection<SomaticVariant> variants;
+    private final List<List<AllelicDepth>> regionVariants = Lists.newArrayList();
 
     private final List<FittedPurity> all = Lists.newArrayList();
     private final List<FittedPurity> bestScoringPerPurity = Lists.newArrayList();
@@ -56,9 +68,9 @@ public class FittedPurityFactory {
 
     public FittedPurityFactory(final ExecutorService executorService, final Gender gender, final int maxPloidy, final double minPurity,
             final double maxPurity, final double purityIncrements, final double minNormFactor, final double maxNormFactor,
-            final double normFactorIncrements, final double somaticPenaltyWeight, @NotNull final FittedRegionFactory fittedRegionFactory,
-            @NotNull final Collection<ObservedRegion> observedRegions, @NotNull final Collection<SomaticVariant> variants)
-            throws ExecutionException, InterruptedException {
+            final double normFactorIncrements, final boolean exhaustive, final double somaticPenaltyWeight,
+            @NotNull final FittedRegionFactory fittedRegionFactory, @NotNull final Collection<ObservedRegion> observedRegions,
+            @NotNull final Collection<? extends SomaticDepth> variants) throws ExecutionException, InterruptedException {
         this.executorService = executorService;
         this.maxPloidy = maxPloidy;
         this.minPurity = minPurity;
@@ -67,12 +79,13 @@ public class FittedPurityFactory {
         this.minNormFactor = minNormFactor;
         this.maxNormFactor = maxNormFactor;
         this.normFactorIncrements = normFactorIncrements;
+        this.exhaustive = exhaustive;
         this.somaticPenaltyWeight = somaticPenaltyWeight;
         this.fittedRegionFactory = fittedRegionFactory;
         this.gender = gender;
 
-        final List<SomaticVariant> filteredVariants = Lists.newArrayList();
-        final GenomePositionSelector<SomaticVariant> variantSelector = GenomePositionSelectorFactory.create(variants);
+        final List<SomaticDepth> filteredVariants = Lists.newArrayList();
+        final GenomePositionSelector<? extends SomaticDepth> variantSelector = GenomePositionSelectorFactory.create(variants);
 
         for (final ObservedRegion region : observedRegions) {
             final Chromosome chromosome = HumanChromosome.valueOf(region);
@@ -84,7 +97,14 @@ public class FittedPurityFactory {
                 variantSelector.select(region, filteredVariants::add);
             }
         }
-        this.variants = Downsample.downsample(MAX_SOMATICS_TO_FIT, filteredVariants);
+        final Collection<SomaticDepth> fittingVariants = Downsample.downsample(MAX_SOMATICS_TO_FIT, filteredVariants);
+        final GenomePositionSelector<SomaticDepth> fittingVariantSelector = GenomePositionSelectorFactory.create(fittingVariants);
+        for (final ObservedRegion region : filteredRegions) {
+            final List<AllelicDepth> variantsInRegion = Lists.newArrayList();
+            fittingVariantSelector.select(region, variantsInRegion::add);
+            regionVariants.add(variantsInRegion);
+        }
+
         this.totalBAFCount = filteredRegions.stream().mapToInt(ObservedRegion::bafCount).sum();
 
         fitPurity();
@@ -99,17 +119,48 @@ public class FittedPurityFactory {
     }
 
     private void fitPurity() throws ExecutionException, InterruptedException {
-        final List<Future<List<FittedPurity>>> futures = Lists.newArrayList();
-        for (double purity = minPurity; lessOrEqual(purity, maxPurity); purity += purityIncrements) {
-            futures.add(executorService.submit(callableFitPurity(purity)));
+        final double[] purities = grid(minPurity, maxPurity, purityIncrements);
+        final double[] normFactors = grid(minNormFactor, maxNormFactor, normFactorIncrements);
+        final FittedPurity[][] fits = new FittedPurity[purities.length][];
+        final boolean[][] evaluated = new boolean[purities.length][normFactors.length];
+        for (int i = 0; i < purities.length; i++) {
+            fits[i] = new FittedPurity[normFactors.length];
         }
 
-        for (Future<List<FittedPurity>> future : futures) {
-            List<FittedPurity> fittedPurities = future.get();
+        final int step = exhaustive ? 1 : COARSE_STEP;
+        for (int i = 0; i < purities.length; i += step) {
+            for (int j = 0; j < normFactors.length; j += step) {
+                evaluated[i][j] = true;
+            }
+        }
+        fitPurity(purities, normFactors, evaluated, fits);
 
-            if (!fittedPurities.isEmpty()) {
-                all.addAll(fittedPurities);
-                bestScoringPerPurity.add(fittedPurities.get(0));
+        int radius = step - 1;
+        while (radius > 0) {
+            final boolean[][] refinement = refinement(fits, evaluated, radius);
+            if (!fitPurity(purities, normFactors, refinement, fits)) {
+                break;
+            }
+
+            for (int i = 0; i < purities.length; i++) {
+                for (int j = 0; j < normFactors.length; j++) {
+                    evaluated[i][j] |= refinement[i][j];
+                }
+            }
+            radius = 1;
+        }
+
+        for (FittedPurity[] purityFits : fits) {
+            FittedPurity best = null;
+            for (FittedPurity fit : purityFits) {
+                if (fit != null) {
+                    all.add(fit);
+                    best = best == null || fit.compareTo(best) < 0 ? fit : best;
+                }
+            }
+
+            if (best != null) {
+                bestScoringPerPurity.add(best);
             }
         }
 
@@ -117,24 +168,93 @@ public class FittedPurityFactory {
         Collections.sort(bestScoringPerPurity);
     }
 
+    /**
+     * Unscored grid points within the radius of any scored point that is within range of the best score or is the best point of its
+     * purity.
+     */
     @NotNull
-    private Callable<List<FittedPurity>> callableFitPurity(final double purity) {
-        return () -> fitPurity(purity);
+    private static boolean[][] refinement(@NotNull final FittedPurity[][] fits, @NotNull final boolean[][] evaluated, int radius) {
+        double bestScore = Double.POSITIVE_INFINITY;
+        final FittedPurity[] bestPerPurity = new FittedPurity[fits.length];
+        for (int i = 0; i < fits.length; i++) {
+            for (FittedPurity fit : fits[i]) {
+                if (fit != null) {
+                    bestScore = Math.min(bestScore, fit.score());
+                    bestPerPurity[i] = bestPerPurity[i] == null || fit.compareTo(bestPerPurity[i]) < 0 ? fit : bestPerPurity[i];
+                }
+            }
+        }
+
+        final double maxScore = bestScore + Math.max(REFINE_ABS_RANGE, REFINE_PERCENT_RANGE * Math.abs(bestScore));
+        final boolean[][] result = new boolean[fits.length][];
+        for (int i = 0; i < fits.length; i++) {
+            result[i] = new boolean[fits[i].length];
+        }
+
+        for (int i = 0; i < fits.length; i++) {
+            for (int j = 0; j < fits[i].length; j++) {
+                final FittedPurity fit = fits[i][j];
+                if (fit == null || (fit != bestPerPurity[i] && !lessOrEqual(fit.score(), maxScore))) {
+                    continue;
+                }
+
+                for (int x = Math.max(0, i - radius); x <= Math.min(fits.length - 1, i + radius); x++) {
+                    for (int y = Math.max(0, j - radius); y <= Math.min(fits[x].length - 1, j + radius); y++) {
+                        if (!evaluated[x][y]) {
+                            result[x][y] = true;
+                        }
+                    }
+                }
+            }
+        }
+
+        return result;
     }
 
-    @NotNull
-    private List<FittedPurity> fitPurity(final double purity) {
-        final List<FittedPurity> fittedPurities = Lists.newArrayList();
-        for (double normFactor = minNormFactor; lessOrEqual(normFactor, maxNormFactor); normFactor += normFactorIncrements) {
+    /**
+     * Scores the selected grid points with one task per purity. Returns false if no points were selected.
+     */
+    private boolean fitPurity(@NotNull final double[] purities, @NotNull final double[] normFactors, @NotNull final boolean[][] selected,
+            @NotNull final FittedPurity[][] fits) throws ExecutionException, InterruptedException {
+        final List<Future<?>> futures = Lists.newArrayList();
+        for (int i = 0; i < purities.length; i++) {
+            final int purityIndex = i;
+            for (boolean isSelected : selected[i]) {
+                if (isSelected) {
+                    futures.add(executorService.submit(() -> fitPurity(purities[purityIndex], normFactors, selected[purityIndex],
+                            fits[purityIndex])));
+                    break;
+                }
+            }
+        }
+
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        return !futures.isEmpty();
+    }
+
+    private void fitPurity(final double purity, @NotNull final double[] normFactors, @NotNull final boolean[] selected,
+            @NotNull final FittedPurity[] fits) {
+        final FittedRegionBatch batch = new FittedRegionBatch(gender, filteredRegions);
+        for (int j = 0; j < normFactors.length; j++) {
+            final double normFactor = normFactors[j];
             double impliedPloidy = PurityAdjuster.impliedSamplePloidy(purity, normFactor);
 
-            if (greaterOrEqual(impliedPloidy, 1) && lessOrEqual(impliedPloidy, maxPloidy)) {
-                fittedPurities.add(fitPurity(purity, normFactor));
+            if (selected[j] && greaterOrEqual(impliedPloidy, 1) && lessOrEqual(impliedPloidy, maxPloidy)) {
+                fits[j] = fitPurity(purity, normFactor, batch);
             }
         }
+    }
 
-        Collections.sort(fittedPurities);
-        return fittedPurities;
+    @NotNull
+    private static double[] grid(final double min, final double max, final double increment) {
+        final List<Double> values = Lists.newArrayList();
+        for (double value = min; lessOrEqual(value, max); value += increment) {
+            values.add(value);
+        }
+        return values.stream().mapToDouble(Double::doubleValue).toArray();
     }
 
     private double weightWithBaf(double value, int bafCount) {
@@ -142,30 +262,28 @@ public class FittedPurityFactory {
     }
 
     @NotNull
-    private FittedPurity fitPurity(final double purity, final double normFactor) {
+    private FittedPurity fitPurity(final double purity, final double normFactor, @NotNull final FittedRegionBatch batch) {
         ImmutableFittedPurity.Builder builder = ImmutableFittedPurity.builder().purity(purity).normFactor(normFactor);
         double eventPenalty = 0;
         double deviationPenalty = 0;
         double diploidProportion = 0;
         double averagePloidy = 0;
 
-        final List<FittedRegion> fittedRegions = Lists.newArrayList();
-        for (final ObservedRegion enrichedRegion : filteredRegions) {
-            final FittedRegion fittedRegion = fittedRegionFactory.fitRegion(purity, normFactor, enrichedRegion);
-            eventPenalty += weightWithBaf(fittedRegion.eventPenalty(), enrichedRegion.bafCount());
-            deviationPenalty += weightWithBaf(fittedRegion.deviationPenalty(), enrichedRegion.bafCount());
-            averagePloidy += weightWithBaf(fittedRegion.tumorCopyNumber(), enrichedRegion.bafCount());
-            if (fittedRegion.isDiploid()) {
-                diploidProportion += weightWithBaf(1, enrichedRegion.bafCount());
+        fittedRegionFactory.fitRegion(purity, normFactor, batch);
+        for (int i = 0; i < batch.size(); i++) {
+            final int bafCount = batch.bafCount(i);
+            eventPenalty += weightWithBaf(batch.eventPenalty(i), bafCount);
+            deviationPenalty += weightWithBaf(batch.deviationPenalty(i), bafCount);
+            averagePloidy += weightWithBaf(batch.tumorCopyNumber(i), bafCount);
+            if (batch.isDiploid(i)) {
+                diploidProportion += weightWithBaf(1, bafCount);
             }
-
-            fittedRegions.add(fittedRegion);
         }
 
         final PurityAdjuster purityAdjuster = new PurityAdjuster(gender, purity, normFactor);
         final double somaticPenalty = Doubles.greaterThan(somaticPenaltyWeight, 0)
-                ? somaticPenaltyWeight * SomaticPenaltyFactory.penalty(purityAdjuster, fittedRegions,
-                variants) : 0;
+                ? somaticPenaltyWeight * SomaticPenaltyFactory.penalty(purityAdjuster, batch, regionVariants)
+                : 0;
 
         return builder.score(eventPenalty * deviationPenalty + somaticPenalty)
                 .diploidProportion(diploidProportion)
@@ -4,7 +4,7 @@ import java.util.List;
 import java.util.Optional;
 
 import com.hartwig.hmftools.common.utils.Doubles;
-import com.hartwig.hmftools.common.variant.SomaticVariant;
+import com.hartwig.hmftools.common.variant.AllelicDepth;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -21,7 +21,7 @@ class SomaticFitFactory {
     }
 
     @NotNull
-    Optional<FittedPurity> fromSomatics(@NotNull final List<FittedPurity> candidates, @NotNull final List<SomaticVariant> variants) {
+    Optional<FittedPurity> fromSomatics(@NotNull final List<FittedPurity> candidates, @NotNull final List<? extends AllelicDepth> variants) {
         if (candidates.isEmpty()) {
             LOGGER.info("Unable to determine somatic implied purity as there are no candidates.");
             return Optional.empty();
@@ -0,0 +1,91 @@
+package com.hartwig.hmftools.common.purple.region;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Observed regions held as primitive arrays along with the fit of each region at the most recent purity and norm factor. Fitting
+ * overwrites the previous values in place so a grid of purities and norm factors can be scored without creating a fitted region
+ * per region per grid point.
+ */
+public final class FittedRegionBatch {
+
+    private final List<ObservedRegion> regions;
+
+    final boolean[] homologous;
+    final double[] observedTumorRatio;
+    final double[] observedBAF;
+    private final int[] bafCount;
+
+    final double[] tumorCopyNumber;
+    final double[] tumorBAF;
+    final double[] majorAllelePloidyDeviation;
+    final double[] minorAllelePloidyDeviation;
+    final double[] eventPenalty;
+    final double[] deviationPenalty;
+
+    public FittedRegionBatch(@NotNull final Gender gender, @NotNull final List<ObservedRegion> regions) {
+        final int size = regions.size();
+        this.regions = regions;
+        homologous = new boolean[size];
+        observedTumorRatio = new double[size];
+        observedBAF = new double[size];
+        bafCount = new int[size];
+        tumorCopyNumber = new double[size];
+        tumorBAF = new double[size];
+        majorAllelePloidyDeviation = new double[size];
+        minorAllelePloidyDeviation = new double[size];
+        eventPenalty = new double[size];
+        deviationPenalty = new double[size];
+
+        for (int i = 0; i < size; i++) {
+            final ObservedRegion region = regions.get(i);
+            homologous[i] = HumanChromosome.fromString(region.chromosome()).isDiploid(gender);
+            observedTumorRatio[i] = region.observedTumorRatio();
+            observedBAF[i] = region.observedBAF();
+            bafCount[i] = region.bafCount();
+        }
+    }
+
+    public int size() {
+        return regions.size();
+    }
+
+    @NotNull
+    public ObservedRegion region(int index) {
+        return regions.get(index);
+    }
+
+    public int bafCount(int index) {
+        return bafCount[index];
+    }
+
+    public int typicalCopyNumber(int index) {
+        return homologous[index] ? 2 : 1;
+    }
+
+    public double tumorCopyNumber(int index) {
+        return tumorCopyNumber[index];
+    }
+
+    public double majorAllelePloidy(int index) {
+        return tumorBAF[index] * tumorCopyNumber[index];
+    }
+
+    public double eventPenalty(int index) {
+        return eventPenalty[index];
+    }
+
+    public double deviationPenalty(int index) {
+        return deviationPenalty[index];
+    }
+
+    public boolean isDiploid(int index) {
+        final double majorAllelePloidy = majorAllelePloidy(index);
+        return FittedRegion.isDiploid(majorAllelePloidy, tumorCopyNumber[index] - majorAllelePloidy);
+    }
+}
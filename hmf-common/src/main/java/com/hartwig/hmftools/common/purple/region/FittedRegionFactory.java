@@ -12,4 +12,6 @@ public interface FittedRegionFactory {
 
     @NotNull
     List<FittedRegion> fitRegion(final double purity, final double normFactor, @NotNull final Collection<ObservedRegion> observedRegions);
+
+    void fitRegion(final double purity, final double normFactor, @NotNull final FittedRegionBatch batch);
 }
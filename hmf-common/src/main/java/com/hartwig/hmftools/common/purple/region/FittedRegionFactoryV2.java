@@ -1,12 +1,13 @@
 package com.hartwig.hmftools.common.purple.region;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.baf.ExpectedBAF;
@@ -41,7 +42,8 @@ public class FittedRegionFactoryV2 implements FittedRegionFactory {
     public List<FittedRegion> fitRegion(final double purity, final double normFactor,
             @NotNull final Collection<ObservedRegion> observedRegions) {
         final Predicate<ObservedRegion> valid = observedRegion -> isFittableRegion(gender, observedRegion);
-        return observedRegions.stream().filter(valid).map(x -> fitRegion(purity, normFactor, x)).collect(Collectors.toList());
+        final List<ObservedRegion> fittableRegions = observedRegions.stream().filter(valid).collect(Collectors.toList());
+        return fittedRegions(purity, normFactor, new FittedRegionBatch(gender, fittableRegions));
     }
 
     @VisibleForTesting
@@ -52,55 +54,80 @@ public class FittedRegionFactoryV2 implements FittedRegionFactory {
     @Override
     @NotNull
     public FittedRegion fitRegion(final double purity, final double normFactor, final @NotNull ObservedRegion observedRegion) {
-        final PurityAdjuster purityAdjuster = new PurityAdjuster(gender, purity, normFactor);
-
-        double observedTumorRatio = observedRegion.observedTumorRatio();
-        double impliedCopyNumber = purityAdjuster.purityAdjustedCopyNumber(observedRegion.chromosome(), observedTumorRatio);
-        double observedBAF = observedRegion.observedBAF();
-        double impliedBAF = impliedBaf(purityAdjuster, observedRegion.chromosome(), impliedCopyNumber, observedBAF);
-
-        double refNormalisedCopyNumber = purityAdjuster.purityAdjustedCopyNumber(observedTumorRatio, observedRegion.observedNormalRatio());
-
-        double majorAllelePloidy = impliedBAF * impliedCopyNumber;
-        double minorAllelePloidy = impliedCopyNumber - majorAllelePloidy;
+        return fittedRegions(purity, normFactor, new FittedRegionBatch(gender, Collections.singletonList(observedRegion))).get(0);
+    }
 
-        double majorAllelePloidyDeviation = ploidyDeviation.majorAlleleDeviation(purity, normFactor, majorAllelePloidy);
-        double minorAllelePloidyDeviation = ploidyDeviation.minorAlleleDeviation(purity, normFactor, minorAllelePloidy);
+    @NotNull
+    private List<FittedRegion> fittedRegions(final double purity, final double normFactor, @NotNull final FittedRegionBatch batch) {
+        fitRegion(purity, normFactor, batch);
 
-        final double eventPenalty = EventPenalty.penalty(ploidyPenaltyFactor, majorAllelePloidy, minorAllelePloidy);
-        final double deviationPenalty = (minorAllelePloidyDeviation + majorAllelePloidyDeviation) * observedBAF;
+        final PurityAdjuster purityAdjuster = new PurityAdjuster(gender, purity, normFactor);
+        final List<FittedRegion> result = Lists.newArrayListWithCapacity(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            final ObservedRegion observedRegion = batch.region(i);
+            double refNormalisedCopyNumber =
+                    purityAdjuster.purityAdjustedCopyNumber(observedRegion.observedTumorRatio(), observedRegion.observedNormalRatio());
+
+            result.add(ImmutableFittedRegion.builder()
+                    .from(observedRegion)
+                    .fittedBAF(0)
+                    .fittedTumorCopyNumber(0)
+                    .tumorCopyNumber(batch.tumorCopyNumber[i])
+                    .tumorBAF(batch.tumorBAF[i])
+                    .refNormalisedCopyNumber(Doubles.replaceNaNWithZero(refNormalisedCopyNumber))
+                    .minorAllelePloidyDeviation(batch.minorAllelePloidyDeviation[i])
+                    .majorAllelePloidyDeviation(batch.majorAllelePloidyDeviation[i])
+                    .deviationPenalty(batch.deviationPenalty[i])
+                    .eventPenalty(batch.eventPenalty[i])
+                    .build());
+        }
 
-        ImmutableFittedRegion.Builder builder = ImmutableFittedRegion.builder()
-                .from(observedRegion)
-                .fittedBAF(0)
-                .fittedTumorCopyNumber(0)
-                .tumorCopyNumber(impliedCopyNumber)
-                .tumorBAF(impliedBAF)
-                .refNormalisedCopyNumber(Doubles.replaceNaNWithZero(refNormalisedCopyNumber))
-                .minorAllelePloidyDeviation(minorAllelePloidyDeviation)
-                .majorAllelePloidyDeviation(majorAllelePloidyDeviation)
-                .deviationPenalty(deviationPenalty)
-                .eventPenalty(eventPenalty);
+        return result;
+    }
 
-        return builder.build();
+    @Override
+    public void fitRegion(final double purity, final double normFactor, @NotNull final FittedRegionBatch batch) {
+        final PurityAdjuster purityAdjuster = new PurityAdjuster(gender, purity, normFactor);
+        for (int i = 0; i < batch.size(); i++) {
+            double observedTumorRatio = batch.observedTumorRatio[i];
+            double impliedCopyNumber = purityAdjuster.purityAdjustedCopyNumber(observedTumorRatio, batch.homologous[i] ? 1 : 0.5);
+            double observedBAF = batch.observedBAF[i];
+            double impliedBAF = impliedBaf(purityAdjuster, batch.homologous[i], impliedCopyNumber, observedBAF);
+
+            double majorAllelePloidy = impliedBAF * impliedCopyNumber;
+            double minorAllelePloidy = impliedCopyNumber - majorAllelePloidy;
+
+            double majorAllelePloidyDeviation = ploidyDeviation.majorAlleleDeviation(purity, normFactor, majorAllelePloidy);
+            double minorAllelePloidyDeviation = ploidyDeviation.minorAlleleDeviation(purity, normFactor, minorAllelePloidy);
+
+            batch.tumorCopyNumber[i] = impliedCopyNumber;
+            batch.tumorBAF[i] = impliedBAF;
+            batch.majorAllelePloidyDeviation[i] = majorAllelePloidyDeviation;
+            batch.minorAllelePloidyDeviation[i] = minorAllelePloidyDeviation;
+            batch.eventPenalty[i] = EventPenalty.penalty(ploidyPenaltyFactor, majorAllelePloidy, minorAllelePloidy);
+            batch.deviationPenalty[i] = (minorAllelePloidyDeviation + majorAllelePloidyDeviation) * observedBAF;
+        }
     }
 
-    private double impliedBaf(final PurityAdjuster purityAdjuster, final String chromosome, final double copyNumber,
+    private double impliedBaf(final PurityAdjuster purityAdjuster, final boolean isHomologous, final double copyNumber,
             final double observedBAF) {
-        boolean isHomologous = HumanChromosome.fromString(chromosome).isDiploid(gender);
-
         if (!isHomologous || Doubles.lessOrEqual(copyNumber, 1)) {
             return 1;
         }
 
         return Doubles.lessOrEqual(observedBAF, ambiguousBaf)
-                ? bafToMinimiseDeviation(purityAdjuster, chromosome, copyNumber)
-                : purityAdjuster.purityAdjustedBAFSimple(chromosome, copyNumber, observedBAF);
+                ? bafToMinimiseDeviation(purityAdjuster, copyNumber)
+                : purityAdjustedBAF(purityAdjuster, copyNumber, observedBAF);
+    }
+
+    // Equivalent to PurityAdjuster.purityAdjustedBAFSimple for homologous chromosomes with a copy number above one
+    private static double purityAdjustedBAF(final PurityAdjuster purityAdjuster, final double copyNumber, final double observedBAF) {
+        return purityAdjuster.purityAdjustedPloidy(2, 1, copyNumber, observedBAF) / copyNumber;
     }
 
-    private double bafToMinimiseDeviation(final PurityAdjuster purityAdjuster, final String chromosome, double impliedCopyNumber) {
-        final double minBAF = Math.max(0, Math.min(1, purityAdjuster.purityAdjustedBAFSimple(chromosome, impliedCopyNumber, 0.5)));
-        final double maxBAF = Math.max(0, Math.min(1, purityAdjuster.purityAdjustedBAFSimple(chromosome, impliedCopyNumber, ambiguousBaf)));
+    private double bafToMinimiseDeviation(final PurityAdjuster purityAdjuster, double impliedCopyNumber) {
+        final double minBAF = Math.max(0, Math.min(1, purityAdjustedBAF(purityAdjuster, impliedCopyNumber, 0.5)));
+        final double maxBAF = Math.max(0, Math.min(1, purityAdjustedBAF(purityAdjuster, impliedCopyNumber, ambiguousBaf)));
 
         // Major Ploidy
         final double minBAFMajorAllelePloidy = minBAF * impliedCopyNumber;
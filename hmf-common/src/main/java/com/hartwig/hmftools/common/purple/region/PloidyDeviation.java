@@ -6,6 +6,9 @@ import org.apache.commons.math3.distribution.NormalDistribution;
 
 class PloidyDeviation {
 
+    // Standard normal cumulative probability is exactly 1 in double precision from here on
+    private static final double SATURATED_CUMULATIVE_PROBABILITY = 8.3;
+
     private final double standardDeviation;
     private final double minStandardDeviationPerPloidyPoint;
     private final NormalDistribution dist = new NormalDistribution();
@@ -43,7 +46,11 @@ class PloidyDeviation {
                 : Doubles.absDistanceFromInteger(ploidy);
 
         double standardDeviationsPerPloidy = Math.max(minStandardDeviationPerPloidyPoint, purity * normFactor / 2 / standardDeviation);
-        return 2 * dist.cumulativeProbability(ploidyDistanceFromInteger * standardDeviationsPerPloidy) - 1 + Math.max(-0.5 - ploidy, 0);
+        return 2 * cumulativeProbability(ploidyDistanceFromInteger * standardDeviationsPerPloidy) - 1 + Math.max(-0.5 - ploidy, 0);
+    }
+
+    private double cumulativeProbability(final double x) {
+        return x >= SATURATED_CUMULATIVE_PROBABILITY ? 1 : dist.cumulativeProbability(x);
     }
 
     private double subMinAdditionalPenalty(final double minPloidy, final double ploidy) {
@@ -4,15 +4,21 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 import com.hartwig.hmftools.common.cobalt.CobaltRatio;
 import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.ContigComparator;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.utils.collection.Multimaps;
 import com.hartwig.hmftools.common.utils.pcf.PCFPosition;
 import com.hartwig.hmftools.common.utils.pcf.PCFSource;
 import com.hartwig.hmftools.common.variant.structural.StructuralVariant;
@@ -39,6 +45,51 @@ public final class PurpleSegmentFactory {
         return segmentCluster(clusterMap);
     }
 
+    /**
+     * Returns the chromosomes whose structural variant breakpoints differ between the two sets of variants. Segmentation of all other
+     * chromosomes is unaffected by the change.
+     */
+    @NotNull
+    public static Set<Chromosome> changedChromosomes(@NotNull final List<StructuralVariant> before,
+            @NotNull final List<StructuralVariant> after) {
+        final ListMultimap<Chromosome, SVSegment> beforePositions = Multimaps.fromPositions(SVSegmentFactory.create(before));
+        final ListMultimap<Chromosome, SVSegment> afterPositions = Multimaps.fromPositions(SVSegmentFactory.create(after));
+
+        final Set<Chromosome> result = Sets.newHashSet();
+        for (Chromosome chromosome : Sets.union(beforePositions.keySet(), afterPositions.keySet())) {
+            if (!beforePositions.get(chromosome).equals(afterPositions.get(chromosome))) {
+                result.add(chromosome);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Replaces the regions of the given chromosomes with those of the replacement, typically from segmenting only those chromosomes
+     * again. Regions of all other chromosomes are kept as they are. Chromosomes are ordered as in a full segmentation.
+     */
+    @NotNull
+    public static <T extends GenomeRegion> List<T> replaceChromosomes(@NotNull final List<T> original, @NotNull final List<T> replacement,
+            @NotNull final Set<Chromosome> chromosomes) {
+        final List<T> result = Lists.newArrayList();
+        for (T region : original) {
+            if (!chromosomes.contains(HumanChromosome.fromString(region.chromosome()))) {
+                result.add(region);
+            }
+        }
+
+        for (T region : replacement) {
+            if (chromosomes.contains(HumanChromosome.fromString(region.chromosome()))) {
+                result.add(region);
+            }
+        }
+
+        // Stable, so the order within each chromosome is kept
+        result.sort((o1, o2) -> ContigComparator.INSTANCE.compare(o1.chromosome(), o2.chromosome()));
+        return result;
+    }
+
     @NotNull
     private List<PurpleSegment> segmentCluster(@NotNull final Multimap<Chromosome, Cluster> clusters) {
         final List<PurpleSegment> results = Lists.newArrayList();
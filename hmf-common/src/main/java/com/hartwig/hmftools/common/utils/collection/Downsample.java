@@ -17,7 +17,7 @@ public final class Downsample {
             return input;
         }
 
-        long scale = Math.round(Math.ceil(1.0 * input.size() / maxEntries));
+        long scale = scale(maxEntries, input.size());
         final List<T> result = Lists.newArrayList();
 
         for (int i = 0; i < input.size(); i++) {
@@ -27,4 +27,8 @@ public final class Downsample {
         }
         return result;
     }
+
+    public static long scale(int maxEntries, int size) {
+        return size <= maxEntries ? 1 : Math.round(Math.ceil(1.0 * size / maxEntries));
+    }
 }
@@ -0,0 +1,19 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.immutables.value.Value;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+@Value.Immutable
+@Value.Style(passAnnotations = { NotNull.class, Nullable.class })
+public abstract class PCFSegment implements GenomeRegion {
+
+    @NotNull
+    public abstract String arm();
+
+    public abstract int probes();
+
+    public abstract double mean();
+}
@@ -0,0 +1,243 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multimap;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.refgenome.RefGenome;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Segments each chromosome arm with a piecewise constant fit using the settings of the copynumber package pcf call previously made
+ * from R: kmin of 1 and the penalty scaled by the variance of the sample. The variance is estimated as the squared MAD of the
+ * residuals from a running median of 51 points, ignoring values of exactly zero. Arms are split at the HG19 centromeres, matching
+ * the default assembly of copynumber. Values that are not a number are skipped.
+ */
+public class PCFSegmenter {
+
+    public static final double DEFAULT_GAMMA = 100;
+
+    private static final int MAD_HALF_WINDOW = 25;
+    private static final double MAD_SCALE = 1.4826;
+    private static final int DIGITS = 10000;
+
+    private final double gamma;
+    private final ExecutorService executorService;
+
+    public PCFSegmenter(final double gamma, @NotNull final ExecutorService executorService) {
+        this.gamma = gamma;
+        this.executorService = executorService;
+    }
+
+    @NotNull
+    public <T extends GenomePosition> List<PCFSegment> segment(@NotNull final Multimap<Chromosome, T> data,
+            @NotNull final ToDoubleFunction<T> value) throws ExecutionException, InterruptedException {
+        final List<Arm> arms = Lists.newArrayList();
+        for (HumanChromosome chromosome : HumanChromosome.values()) {
+            final Collection<T> positions = data.get(chromosome);
+            if (positions.isEmpty()) {
+                continue;
+            }
+
+            final String contig = positions.iterator().next().chromosome();
+            final long centromere = RefGenome.HG19.centromeres().get(chromosome);
+            final Arm p = new Arm(contig, "p", positions.size());
+            final Arm q = new Arm(contig, "q", positions.size());
+            for (T position : positions) {
+                final double positionValue = value.applyAsDouble(position);
+                if (!Double.isNaN(positionValue)) {
+                    (position.position() < centromere ? p : q).add(position.position(), positionValue);
+                }
+            }
+
+            for (Arm arm : new Arm[] { p, q }) {
+                if (arm.size > 0) {
+                    arms.add(arm);
+                }
+            }
+        }
+
+        final double sd = standardDeviation(arms);
+        final PiecewiseConstantFit fit = new PiecewiseConstantFit(gamma * sd * sd);
+
+        final List<Future<List<PCFSegment>>> futures = Lists.newArrayList();
+        for (Arm arm : arms) {
+            futures.add(executorService.submit(() -> arm.segment(fit)));
+        }
+
+        final List<PCFSegment> result = Lists.newArrayList();
+        for (Future<List<PCFSegment>> future : futures) {
+            result.addAll(future.get());
+        }
+
+        return result;
+    }
+
+    private static double standardDeviation(@NotNull final List<Arm> arms) {
+        int count = 0;
+        for (Arm arm : arms) {
+            count += arm.size;
+        }
+
+        final double[] values = new double[count];
+        count = 0;
+        for (Arm arm : arms) {
+            for (int i = 0; i < arm.size; i++) {
+                if (arm.values[i] != 0) {
+                    values[count++] = arm.values[i];
+                }
+            }
+        }
+
+        return mad(Arrays.copyOf(values, count));
+    }
+
+    static double mad(@NotNull final double[] values) {
+        if (values.length == 0) {
+            return 0;
+        }
+
+        final double[] runningMedian = runningMedian(values, MAD_HALF_WINDOW);
+        final double[] residuals = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            residuals[i] = values[i] - runningMedian[i];
+        }
+
+        final double center = median(residuals.clone());
+        for (int i = 0; i < residuals.length; i++) {
+            residuals[i] = Math.abs(residuals[i] - center);
+        }
+
+        return MAD_SCALE * median(residuals);
+    }
+
+    /**
+     * Running median over 2k + 1 points with the ends smoothed by successively smaller windows and Tukey's end point rule, as per
+     * the median end rule of R's runmed.
+     */
+    @NotNull
+    static double[] runningMedian(@NotNull final double[] values, int k) {
+        final int n = values.length;
+        int width = 2 * k + 1;
+        if (width > n) {
+            width = n % 2 == 0 ? n - 1 : n;
+        }
+
+        final int half = width / 2;
+        final double[] result = values.clone();
+        if (half == 0) {
+            return result;
+        }
+
+        final double[] window = Arrays.copyOf(values, width);
+        Arrays.sort(window);
+        result[half] = window[half];
+        for (int i = half + 1; i < n - half; i++) {
+            final int removed = Arrays.binarySearch(window, values[i - half - 1]);
+            final double added = values[i + half];
+            int insert = Arrays.binarySearch(window, added);
+            insert = insert < 0 ? -insert - 1 : insert;
+            if (insert > removed) {
+                System.arraycopy(window, removed + 1, window, removed, insert - 1 - removed);
+                window[insert - 1] = added;
+            } else {
+                System.arraycopy(window, insert, window, insert + 1, removed - insert);
+                window[insert] = added;
+            }
+            result[i] = window[half];
+        }
+
+        return smoothEnds(result, half);
+    }
+
+    @NotNull
+    private static double[] smoothEnds(@NotNull final double[] y, int half) {
+        final int n = y.length;
+        final double[] result = y.clone();
+        if (half >= 2) {
+            result[1] = median3(y[0], y[1], y[2]);
+            result[n - 2] = median3(y[n - 1], y[n - 2], y[n - 3]);
+            for (int i = 3; i <= half && 2 * i <= n; i++) {
+                result[i - 1] = median(Arrays.copyOfRange(y, 0, 2 * i - 1));
+                result[n - i] = median(Arrays.copyOfRange(y, n + 1 - 2 * i, n));
+            }
+        }
+
+        if (n >= 3) {
+            result[0] = median3(y[0], result[1], 3 * result[1] - 2 * result[2]);
+            result[n - 1] = median3(y[n - 1], result[n - 2], 3 * result[n - 2] - 2 * result[n - 3]);
+        }
+
+        return result;
+    }
+
+    private static double median3(double a, double b, double c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    private static double median(@NotNull final double[] values) {
+        Arrays.sort(values);
+        final int count = values.length;
+        return count % 2 == 0 ? (values[count / 2] + values[count / 2 - 1]) / 2 : values[count / 2];
+    }
+
+    private static class Arm {
+
+        private final String chromosome;
+        private final String arm;
+        private final long[] positions;
+        private final double[] values;
+        private int size;
+
+        private Arm(@NotNull final String chromosome, @NotNull final String arm, int capacity) {
+            this.chromosome = chromosome;
+            this.arm = arm;
+            this.positions = new long[capacity];
+            this.values = new double[capacity];
+        }
+
+        private void add(long position, double value) {
+            positions[size] = position;
+            values[size] = value;
+            size++;
+        }
+
+        @NotNull
+        private List<PCFSegment> segment(@NotNull final PiecewiseConstantFit fit) {
+            final double[] armValues = Arrays.copyOf(values, size);
+            final int[] starts = fit.fit(armValues);
+
+            final List<PCFSegment> result = Lists.newArrayList();
+            for (int i = 0; i < starts.length; i++) {
+                final int start = starts[i];
+                final int end = i + 1 < starts.length ? starts[i + 1] : size;
+
+                double sum = 0;
+                for (int j = start; j < end; j++) {
+                    sum += armValues[j];
+                }
+
+                result.add(ImmutablePCFSegment.builder()
+                        .chromosome(chromosome)
+                        .arm(arm)
+                        .start(positions[start])
+                        .end(positions[end - 1])
+                        .probes(end - start)
+                        .mean(Math.round(sum / (end - start) * DIGITS) / (double) DIGITS)
+                        .build());
+            }
+
+            return result;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import java.util.Arrays;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Piecewise constant fit of a series minimising the within segment sum of squares plus a penalty of gamma for every segment.
+ * This is the Potts filter of the copynumber package run with kmin = 1 and its default fast = TRUE.
+ *
+ * As in copynumber, series of fewer than 1000 points are fit exactly. Longer series follow selectFastPcf: candidate breakpoints are
+ * marked by filterMarkS4 and the exact fit is restricted to them (runFastPcf). Series of 15000 or more points are fit in overlapping
+ * windows of 5000 points, carrying the breakpoints found so far into each window (runPcfSubset).
+ */
+public final class PiecewiseConstantFit {
+
+    static final int FAST_LIMIT = 1000;
+    static final int SUBSET_LIMIT = 15000;
+
+    private static final int SUBSET_SIZE = 5000;
+    private static final int SUBSET_STEP = 4 * SUBSET_SIZE / 5;
+
+    private static final int FILTER_L1 = 8;
+    private static final int FILTER_L2 = 1;
+    private static final double FILTER_FRAC1 = 0.12;
+    private static final double FILTER_FRAC2 = 0.05;
+    private static final double FILTER_FRAC3 = 0.02;
+    private static final double FILTER_THRESHOLD = 0.9;
+
+    private final double gamma;
+
+    public PiecewiseConstantFit(final double gamma) {
+        this.gamma = gamma;
+    }
+
+    /**
+     * Returns the index of the first value of each segment. The first segment always starts at 0.
+     */
+    @NotNull
+    public int[] fit(@NotNull final double[] values) {
+        final int n = values.length;
+        if (n == 0) {
+            return new int[0];
+        }
+
+        final Sums sums = new Sums(values);
+        if (n < FAST_LIMIT) {
+            return exact(sums, n);
+        }
+
+        final boolean[] mark = filterMarks(sums);
+        return n < SUBSET_LIMIT ? fit(sums, mark, n) : subset(sums, mark);
+    }
+
+    @NotNull
+    int[] exact(@NotNull final double[] values) {
+        return values.length == 0 ? new int[0] : exact(new Sums(values), values.length);
+    }
+
+    @NotNull
+    private int[] exact(@NotNull final Sums sums, int n) {
+        final boolean[] mark = new boolean[n + 1];
+        Arrays.fill(mark, true);
+        return fit(sums, mark, n);
+    }
+
+    /**
+     * runPcfSubset: fits the first window, then slides the window on by four fifths of its size. Each window is fit over the
+     * breakpoints already found before it plus the filter candidates within it.
+     */
+    @NotNull
+    private int[] subset(@NotNull final Sums sums, @NotNull final boolean[] mark) {
+        final int n = sums.size();
+        final boolean[] result = new boolean[n + 1];
+
+        final boolean[] window = Arrays.copyOf(mark, SUBSET_SIZE + 1);
+        window[SUBSET_SIZE] = true;
+        markEnds(fit(sums, window, SUBSET_SIZE), SUBSET_SIZE, result);
+        result[SUBSET_STEP] = true;
+
+        int start = SUBSET_STEP + 1;
+        while (start + SUBSET_SIZE < n) {
+            final int end = start + SUBSET_SIZE - 1;
+            final boolean[] candidates = candidates(result, mark, start, end);
+            markEnds(fit(sums, candidates, end), end, result);
+            start += SUBSET_STEP;
+            result[start - 1] = true;
+        }
+
+        markEnds(fit(sums, candidates(result, mark, start, n), n), n, result);
+        return fit(sums, result, n);
+    }
+
+    @NotNull
+    private static boolean[] candidates(@NotNull final boolean[] found, @NotNull final boolean[] mark, int start, int end) {
+        final boolean[] result = new boolean[end + 1];
+        System.arraycopy(found, 1, result, 1, start - 1);
+        System.arraycopy(mark, start, result, start, end - start + 1);
+        result[end] = true;
+        return result;
+    }
+
+    private static void markEnds(@NotNull final int[] starts, int end, @NotNull final boolean[] result) {
+        Arrays.fill(result, 1, end + 1, false);
+        for (int i = 1; i < starts.length; i++) {
+            result[starts[i]] = true;
+        }
+        result[end] = true;
+    }
+
+    /**
+     * Optimal partition of the first length values into segments that each end at a marked position, where mark[j] marks the end
+     * of a segment after the first j values. End positions that can no longer be the start of an optimal final segment are pruned as
+     * the fit progresses, which keeps long series close to linear time without changing the result.
+     */
+    @NotNull
+    private int[] fit(@NotNull final Sums sums, @NotNull final boolean[] mark, int length) {
+        final double[] cost = new double[length + 1];
+        final int[] previous = new int[length + 1];
+        final int[] active = new int[length + 1];
+        int activeCount = 1;
+
+        for (int end = 1; end <= length; end++) {
+            if (!mark[end] && end < length) {
+                continue;
+            }
+
+            double bestCost = Double.POSITIVE_INFINITY;
+            int best = 0;
+            for (int a = 0; a < activeCount; a++) {
+                final int start = active[a];
+                final double candidateCost = cost[start] + sums.cost(start, end);
+                if (candidateCost < bestCost) {
+                    bestCost = candidateCost;
+                    best = start;
+                }
+            }
+
+            cost[end] = bestCost + gamma;
+            previous[end] = best;
+
+            int retained = 0;
+            for (int a = 0; a < activeCount; a++) {
+                final int start = active[a];
+                if (cost[start] + sums.cost(start, end) <= cost[end]) {
+                    active[retained++] = start;
+                }
+            }
+            active[retained++] = end;
+            activeCount = retained;
+        }
+
+        int segments = 0;
+        for (int end = length; end > 0; end = previous[end]) {
+            segments++;
+        }
+
+        final int[] result = new int[segments];
+        for (int end = length; end > 0; end = previous[end]) {
+            result[--segments] = previous[end];
+        }
+
+        return result;
+    }
+
+    /**
+     * filterMarkS4 with kmin = 1. Position j is a candidate end of segment if the difference between the sums of the values either
+     * side of it is among the largest at scale L1 and locally maximal, or among the largest at scale L2. The neighbourhoods of the
+     * strongest L1 differences and both ends of the series are always candidates.
+     */
+    @NotNull
+    private boolean[] filterMarks(@NotNull final Sums sums) {
+        final int n = sums.size();
+        final boolean[] result = new boolean[n + 1];
+
+        final double[] cost1 = difference(sums, FILTER_L1);
+        final double[] test = new double[n + 1];
+        for (int j = 4; j <= n - 3; j++) {
+            double max = 0;
+            for (int k = j - 3; k <= j + 3; k++) {
+                max = Math.max(max, cost1[k]);
+            }
+            test[j] = max;
+        }
+
+        int localMaxCount = 0;
+        final double[] localMax = new double[n];
+        for (int j = 1; j <= n; j++) {
+            if (cost1[j] >= FILTER_THRESHOLD * test[j]) {
+                localMax[localMaxCount++] = cost1[j];
+            }
+        }
+
+        final double frac1 = Math.min(0.8, FILTER_FRAC1 * n / localMaxCount);
+        final double limit1 = quantile(Arrays.copyOf(localMax, localMaxCount), 1 - frac1);
+        for (int j = 1; j <= n; j++) {
+            result[j] = cost1[j] > limit1 && cost1[j] >= FILTER_THRESHOLD * test[j];
+        }
+
+        final double[] cost2 = difference(sums, FILTER_L2);
+        final double limit2 = quantile(Arrays.copyOfRange(cost2, 3 * FILTER_L2, n - 3 * FILTER_L2 + 1), 1 - FILTER_FRAC2);
+        for (int j = 3 * FILTER_L2; j <= n - 3 * FILTER_L2; j++) {
+            result[j] |= cost2[j] > limit2;
+        }
+
+        for (int j = 1; j < 3 * FILTER_L1; j++) {
+            result[j] = true;
+        }
+        for (int j = n - 3 * FILTER_L1 + 1; j < n; j++) {
+            result[j] = true;
+        }
+
+        final double limit3 = quantile(Arrays.copyOfRange(cost1, 1, n + 1), 1 - FILTER_FRAC3);
+        for (int j = 1; j <= n; j++) {
+            if (cost1[j] > limit3) {
+                for (int k = Math.max(1, j - FILTER_L1); k <= Math.min(n, j + FILTER_L1); k++) {
+                    result[k] = true;
+                }
+            }
+        }
+
+        result[n] = true;
+        return result;
+    }
+
+    /**
+     * The absolute difference between the sums of the 3L and 2L values before position j and the 2L and 3L values after it. Zero
+     * where the windows do not fit within the series.
+     */
+    @NotNull
+    private static double[] difference(@NotNull final Sums sums, int l) {
+        final int n = sums.size();
+        final double[] result = new double[n + 1];
+        for (int j = 3 * l; j <= n - 3 * l; j++) {
+            result[j] = Math.abs(4 * sums.sum[j] - sums.sum[j - 3 * l] - sums.sum[j - 2 * l] - sums.sum[j + 2 * l] - sums.sum[j + 3 * l]);
+        }
+        return result;
+    }
+
+    /**
+     * Sample quantile with linear interpolation between order statistics, R's default type 7.
+     */
+    static double quantile(@NotNull final double[] values, double probability) {
+        final double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        final double h = (sorted.length - 1) * probability;
+        final int lower = (int) Math.floor(h);
+        final int upper = Math.min(sorted.length - 1, lower + 1);
+        return sorted[lower] + (h - lower) * (sorted[upper] - sorted[lower]);
+    }
+
+    static class Sums {
+
+        private final double[] sum;
+        private final double[] sumSquares;
+
+        Sums(@NotNull final double[] values) {
+            sum = new double[values.length + 1];
+            sumSquares = new double[values.length + 1];
+            for (int i = 0; i < values.length; i++) {
+                sum[i + 1] = sum[i] + values[i];
+                sumSquares[i + 1] = sumSquares[i] + values[i] * values[i];
+            }
+        }
+
+        private int size() {
+            return sum.length - 1;
+        }
+
+        private double cost(int start, int end) {
+            final double segmentSum = sum[end] - sum[start];
+            return sumSquares[end] - sumSquares[start] - segmentSum * segmentSum / (end - start);
+        }
+    }
+}
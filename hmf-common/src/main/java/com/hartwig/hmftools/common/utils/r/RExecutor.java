@@ -39,6 +39,8 @@ import htsjdk.samtools.util.IOUtil;
 public final class RExecutor {
 
     private static final String R_EXE = "Rscript";
+    private static final String DETACHED_COMMAND = R_EXE + " \"$0\" \"$@\"; status=$?; rm -f \"$0\"; "
+            + "if [ $status -eq 0 ]; then rm -f \"${0%.R}.out\" \"${0%.R}.error\"; fi; exit $status";
     private static final Logger LOGGER = LogManager.getLogger(RExecutor.class);
 
     public static int executeFromClasspath(final String rScriptName, final String... arguments) throws IOException, InterruptedException {
@@ -49,26 +51,81 @@ public final class RExecutor {
         return returnCode;
     }
 
+    /**
+     * Starts the script without waiting for it to complete. As the process may outlive the JVM, the shell running it deletes the
+     * temporary script once R exits, along with its output and error files unless R failed.
+     */
+    public static Process startFromClasspath(final String rScriptName, final String... arguments) throws IOException {
+        final String scriptName = new File(rScriptName).getName().replaceAll("\\.R$", "");
+        final File scriptFile = File.createTempFile(scriptName + ".", ".R");
+        writeScriptFile(rScriptName, scriptFile);
+
+        final String base = scriptFile.getAbsolutePath().replaceAll("\\.R$", "");
+        final File outputFile = new File(base + ".out");
+        final File errorFile = new File(base + ".error");
+
+        final String[] command = new String[arguments.length + 4];
+        command[0] = "sh";
+        command[1] = "-c";
+        command[2] = DETACHED_COMMAND;
+        command[3] = scriptFile.getAbsolutePath();
+        System.arraycopy(arguments, 0, command, 4, arguments.length);
+
+        LOGGER.info("Starting R script {} in the background. On failure, examine error file {} for details.", rScriptName,
+                errorFile.toString());
+        return start(command, outputFile, errorFile);
+    }
+
     private static int executeFromFile(final String rScriptName, final File scriptFile, final String... arguments)
             throws IOException, InterruptedException {
+        final RProcess rProcess = startFromFile(rScriptName, scriptFile, arguments);
+        int result = rProcess.process.waitFor();
+        if (result != 0) {
+            LOGGER.fatal("Error executing R script. Examine error file {} for details.", rProcess.errorFile.toString());
+        }
+
+        return result;
+    }
+
+    private static RProcess startFromFile(final String rScriptName, final File scriptFile, final String... arguments)
+            throws IOException {
+        final File outputFile = File.createTempFile(rScriptName, ".out");
+        final File errorFile = File.createTempFile(rScriptName, ".error");
+        return new RProcess(start(scriptFile, outputFile, errorFile, arguments), errorFile);
+    }
+
+    private static Process start(final File scriptFile, final File outputFile, final File errorFile, final String... arguments)
+            throws IOException {
         final String[] command = new String[arguments.length + 2];
         command[0] = R_EXE;
         command[1] = scriptFile.getAbsolutePath();
         System.arraycopy(arguments, 0, command, 2, arguments.length);
+        return start(command, outputFile, errorFile);
+    }
 
-        final File outputFile = File.createTempFile(rScriptName, ".out");
-        final File errorFile = File.createTempFile(rScriptName, ".error");
-
+    private static Process start(final String[] command, final File outputFile, final File errorFile) throws IOException {
         LOGGER.info(String.format("Executing R script via command: %s", CollectionUtil.join(Arrays.asList(command), " ")));
-        int result = new ProcessBuilder(command).redirectError(errorFile).redirectOutput(outputFile).start().waitFor();
-        if (result != 0) {
-            LOGGER.fatal("Error executing R script. Examine error file {} for details.", errorFile.toString());
-        }
+        return new ProcessBuilder(command).redirectError(errorFile).redirectOutput(outputFile).start();
+    }
 
-        return result;
+    private static class RProcess {
+
+        private final Process process;
+        private final File errorFile;
+
+        private RProcess(final Process process, final File errorFile) {
+            this.process = process;
+            this.errorFile = errorFile;
+        }
     }
 
     private static File writeScriptFile(final String rScriptName) throws IOException {
+        final File scriptFile = File.createTempFile("script", ".R");
+        writeScriptFile(rScriptName, scriptFile);
+        return scriptFile;
+    }
+
+    private static void writeScriptFile(final String rScriptName, final File scriptFile) throws IOException {
         InputStream scriptStream = null;
         OutputStream scriptFileStream = null;
         try {
@@ -76,10 +133,8 @@ public final class RExecutor {
             if (scriptStream == null) {
                 throw new IllegalArgumentException("Script [" + rScriptName + "] not found in classpath");
             }
-            final File scriptFile = File.createTempFile("script", ".R");
             scriptFileStream = IOUtil.openFileForWriting(scriptFile);
             IOUtil.copyStream(scriptStream, scriptFileStream);
-            return scriptFile;
         } finally {
             if (scriptStream != null) {
                 try {
@@ -55,4 +55,36 @@ final class NearPonFilteredIndel {
 
         return false;
     }
+
+    static boolean isNearPonFilteredIndel(final int index, @NotNull final SomaticVariantSummary summary) {
+        if (summary.type[index] != VariantType.INDEL.ordinal() || summary.isFiltered(index)) {
+            return false;
+        }
+
+        // Look backwards
+        for (int i = index - 1; i >= 0; i--) {
+            int queryEnd = summary.position[i] + summary.refLength[i] - 1 + DISTANCE;
+            if (queryEnd < summary.position[index] || summary.chromosome[i] != summary.chromosome[index]) {
+                break;
+            }
+
+            if (summary.isPonFilteredIndel(i)) {
+                return true;
+            }
+        }
+
+        // Look forwards
+        int subjectEnd = summary.position[index] + summary.refLength[index] - 1 + DISTANCE;
+        for (int i = index + 1; i < summary.size(); i++) {
+            if (summary.position[i] > subjectEnd || summary.chromosome[i] != summary.chromosome[index]) {
+                break;
+            }
+
+            if (summary.isPonFilteredIndel(i)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
 }
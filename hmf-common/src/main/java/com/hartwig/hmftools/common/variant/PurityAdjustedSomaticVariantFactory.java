@@ -72,6 +72,10 @@ public class PurityAdjustedSomaticVariantFactory {
         return result;
     }
 
+    public double ploidy(@NotNull final GenomePosition position, @NotNull final AllelicDepth depth) {
+        return copyNumberSelector.select(position).map(x -> ploidy(x.averageTumorCopyNumber(), adjustedVAF(x, depth))).orElse(0d);
+    }
+
     @NotNull
     public VariantContext enrich(@NotNull final VariantContext variant) {
         final Genotype genotype = variant.getGenotype(tumorSample);
@@ -92,8 +96,8 @@ public class PurityAdjustedSomaticVariantFactory {
     private void applyPurityAdjustment(@NotNull final PurpleCopyNumber purpleCopyNumber, @NotNull final AllelicDepth depth,
             @NotNull final PurityAdjustedSomaticVariantBuilder builder) {
         double copyNumber = purpleCopyNumber.averageTumorCopyNumber();
-        double vaf = purityAdjuster.purityAdjustedVAF(purpleCopyNumber.chromosome(), Math.max(0.001, copyNumber), depth.alleleFrequency());
-        double ploidy = Math.max(0, vaf * copyNumber);
+        double vaf = adjustedVAF(purpleCopyNumber, depth);
+        double ploidy = ploidy(copyNumber, vaf);
 
         boolean biallelic = Doubles.lessOrEqual(copyNumber, 0) || Doubles.greaterOrEqual(ploidy, copyNumber - 0.5);
 
@@ -103,4 +107,13 @@ public class PurityAdjustedSomaticVariantFactory {
                 .biallelic(biallelic)
                 .minorAllelePloidy(purpleCopyNumber.minorAllelePloidy());
     }
+
+    private double adjustedVAF(@NotNull final PurpleCopyNumber purpleCopyNumber, @NotNull final AllelicDepth depth) {
+        double copyNumber = purpleCopyNumber.averageTumorCopyNumber();
+        return purityAdjuster.purityAdjustedVAF(purpleCopyNumber.chromosome(), Math.max(0.001, copyNumber), depth.alleleFrequency());
+    }
+
+    private static double ploidy(double copyNumber, double adjustedVAF) {
+        return Math.max(0, adjustedVAF * copyNumber);
+    }
 }
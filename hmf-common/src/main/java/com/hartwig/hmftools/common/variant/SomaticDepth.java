@@ -0,0 +1,11 @@
+package com.hartwig.hmftools.common.variant;
+
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+
+import org.jetbrains.annotations.NotNull;
+
+public interface SomaticDepth extends GenomePosition, AllelicDepth {
+
+    @NotNull
+    VariantType type();
+}
@@ -7,7 +7,7 @@ import com.hartwig.hmftools.common.purple.region.GermlineStatus;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public interface SomaticVariant extends Variant {
+public interface SomaticVariant extends Variant, SomaticDepth {
 
     double qual();
 
@@ -47,6 +47,7 @@ import htsjdk.tribble.readers.LineIterator;
 import htsjdk.variant.variantcontext.Allele;
 import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
 import htsjdk.variant.variantcontext.filter.CompoundFilter;
 import htsjdk.variant.variantcontext.filter.PassingVariantFilter;
 import htsjdk.variant.variantcontext.filter.VariantContextFilter;
@@ -154,6 +155,52 @@ public class SomaticVariantFactory {
         return process(tumor, reference, rna, variants);
     }
 
+    /**
+     * Reads the tumor depth of the variants that {@link #fromVCFFile(String, String)} would return in a single pass without retaining
+     * the variant contexts. Variant context enrichment is not applied.
+     */
+    @NotNull
+    public SomaticVariantSummary summaryFromVCFFile(@NotNull final String tumor, @NotNull final String vcfFile) throws IOException {
+        final SomaticVariantSummary summary = new SomaticVariantSummary();
+
+        try (final AbstractFeatureReader<VariantContext, LineIterator> reader = getFeatureReader(vcfFile, new VCFCodec(), false)) {
+            final VCFHeader header = (VCFHeader) reader.getHeader();
+            if (!sampleInFile(tumor, header)) {
+                throw new IllegalArgumentException("Sample " + tumor + " not found in vcf file " + vcfFile);
+            }
+
+            if (!header.hasFormatLine("AD")) {
+                throw new IllegalArgumentException("Allelic depths is a required format field in vcf file " + vcfFile);
+            }
+
+            for (VariantContext variant : reader.iterator()) {
+                final boolean passesFilter = filter.test(variant);
+                final boolean ponFilteredIndel = NearPonFilteredIndel.isPonFilteredIndel(variant);
+                if (passesFilter || ponFilteredIndel) {
+                    final Genotype genotype = variant.getGenotype(tumor);
+                    final AllelicDepth depth = AllelicDepth.containsAllelicDepth(genotype) ? AllelicDepth.fromGenotype(genotype) : null;
+                    final boolean included = passesFilter && depth != null && depth.totalReadCount() > 0;
+                    final boolean includedNearPon = included && variant.isIndel() && !variant.isFiltered()
+                            && filter.test(new VariantContextBuilder(variant).filter(NEAR_INDEL_PON_FILTER).make());
+
+                    summary.add(variant.getContig(),
+                            variant.getStart(),
+                            variant.getReference().length(),
+                            type(variant),
+                            variant.isFiltered(),
+                            ponFilteredIndel,
+                            included,
+                            includedNearPon,
+                            depth == null ? 0 : depth.alleleReadCount(),
+                            depth == null ? 0 : depth.totalReadCount());
+                }
+            }
+        }
+
+        summary.complete();
+        return summary;
+    }
+
     @NotNull
     private List<SomaticVariant> process(@NotNull final String sample, @Nullable final String reference, @Nullable final String rna,
             @NotNull final List<VariantContext> allVariantContexts) {
@@ -0,0 +1,285 @@
+package com.hartwig.hmftools.common.variant;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Chromosome, position, type and tumor allelic depth of somatic variants held in primitive columns rather than as somatic variant
+ * objects. Variants are exposed as lightweight views created on access.
+ */
+public final class SomaticVariantSummary {
+
+    private static final VariantType[] TYPES = VariantType.values();
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private static final byte FILTERED = 1;
+    private static final byte PON_FILTERED_INDEL = 2;
+    private static final byte INCLUDED = 4;
+    private static final byte INCLUDED_NEAR_PON = 8;
+
+    private final List<String> chromosomes = Lists.newArrayList();
+    private final Map<String, Short> chromosomeIndex = Maps.newHashMap();
+
+    private int size;
+    short[] chromosome = new short[INITIAL_CAPACITY];
+    int[] position = new int[INITIAL_CAPACITY];
+    int[] refLength = new int[INITIAL_CAPACITY];
+    byte[] type = new byte[INITIAL_CAPACITY];
+    byte[] flags = new byte[INITIAL_CAPACITY];
+    private int[] alleleReadCount = new int[INITIAL_CAPACITY];
+    private int[] totalReadCount = new int[INITIAL_CAPACITY];
+
+    private int[] snps;
+    private int[] chromosomeStart;
+    private int[] chromosomeEnd;
+
+    @NotNull
+    public static SomaticVariantSummary empty() {
+        return new SomaticVariantSummary();
+    }
+
+    SomaticVariantSummary() {
+    }
+
+    public int size() {
+        return size;
+    }
+
+    @NotNull
+    public String chromosome(int index) {
+        return chromosomes.get(chromosome[index]);
+    }
+
+    public long position(int index) {
+        return position[index];
+    }
+
+    @NotNull
+    public VariantType type(int index) {
+        return TYPES[type[index]];
+    }
+
+    public int alleleReadCount(int index) {
+        return alleleReadCount[index];
+    }
+
+    public int totalReadCount(int index) {
+        return totalReadCount[index];
+    }
+
+    public int count(@NotNull final VariantType variantType) {
+        int result = 0;
+        for (int i = 0; i < size; i++) {
+            if (type[i] == variantType.ordinal()) {
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns true if the summary holds a variant of the given type at the given position. Variants are held in vcf order, so the
+     * variants of each chromosome are contiguous and sorted by position.
+     */
+    public boolean contains(@NotNull final String contig, long variantPosition, @NotNull final VariantType variantType) {
+        final Short index = chromosomeIndex.get(contig);
+        if (index == null) {
+            return false;
+        }
+
+        if (chromosomeStart == null) {
+            chromosomeRanges();
+        }
+
+        int low = chromosomeStart[index];
+        int high = chromosomeEnd[index];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (position[mid] < variantPosition) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        for (int i = low; i < chromosomeEnd[index] && position[i] == variantPosition; i++) {
+            if (type[i] == variantType.ordinal()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private void chromosomeRanges() {
+        final int[] start = new int[chromosomes.size()];
+        final int[] end = new int[chromosomes.size()];
+        for (int i = size - 1; i >= 0; i--) {
+            start[chromosome[i]] = i;
+        }
+        for (int i = 0; i < size; i++) {
+            end[chromosome[i]] = i + 1;
+        }
+
+        chromosomeStart = start;
+        chromosomeEnd = end;
+    }
+
+    @NotNull
+    public List<SomaticDepth> variants() {
+        return new AbstractList<SomaticDepth>() {
+            @Override
+            public SomaticDepth get(final int index) {
+                return new Variant(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @NotNull
+    public List<SomaticDepth> snps() {
+        if (snps == null) {
+            int count = 0;
+            final int[] indices = new int[count(VariantType.SNP)];
+            for (int i = 0; i < size; i++) {
+                if (type[i] == VariantType.SNP.ordinal()) {
+                    indices[count++] = i;
+                }
+            }
+            snps = indices;
+        }
+
+        final int[] indices = snps;
+        return new AbstractList<SomaticDepth>() {
+            @Override
+            public SomaticDepth get(final int index) {
+                return new Variant(indices[index]);
+            }
+
+            @Override
+            public int size() {
+                return indices.length;
+            }
+        };
+    }
+
+    void add(@NotNull final String contig, int start, int referenceLength, @NotNull final VariantType variantType, boolean filtered,
+            boolean ponFilteredIndel, boolean included, boolean includedNearPon, int alleleReads, int totalReads) {
+        if (size == position.length) {
+            grow();
+        }
+
+        chromosome[size] = chromosomeIndex.computeIfAbsent(contig, this::addChromosome);
+        position[size] = start;
+        refLength[size] = referenceLength;
+        type[size] = (byte) variantType.ordinal();
+        flags[size] = (byte) ((filtered ? FILTERED : 0) | (ponFilteredIndel ? PON_FILTERED_INDEL : 0) | (included ? INCLUDED : 0)
+                | (includedNearPon ? INCLUDED_NEAR_PON : 0));
+        alleleReadCount[size] = alleleReads;
+        totalReadCount[size] = totalReads;
+        size++;
+    }
+
+    boolean isFiltered(int index) {
+        return (flags[index] & FILTERED) != 0;
+    }
+
+    boolean isPonFilteredIndel(int index) {
+        return (flags[index] & PON_FILTERED_INDEL) != 0;
+    }
+
+    /**
+     * Removes the variants that were only added as evidence for the near pon filter along with the indels near them that would not
+     * have passed the filter once flagged.
+     */
+    void complete() {
+        final boolean[] retain = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            retain[i] = (flags[i] & INCLUDED) != 0 && ((flags[i] & INCLUDED_NEAR_PON) != 0
+                    || !NearPonFilteredIndel.isNearPonFilteredIndel(i, this));
+        }
+
+        int retained = 0;
+        for (int i = 0; i < size; i++) {
+            if (retain[i]) {
+                chromosome[retained] = chromosome[i];
+                position[retained] = position[i];
+                refLength[retained] = refLength[i];
+                type[retained] = type[i];
+                flags[retained] = flags[i];
+                alleleReadCount[retained] = alleleReadCount[i];
+                totalReadCount[retained] = totalReadCount[i];
+                retained++;
+            }
+        }
+
+        size = retained;
+        resize(size);
+    }
+
+    private short addChromosome(@NotNull final String contig) {
+        chromosomes.add(contig);
+        return (short) (chromosomes.size() - 1);
+    }
+
+    private void grow() {
+        resize(2 * position.length);
+    }
+
+    private void resize(int capacity) {
+        chromosome = Arrays.copyOf(chromosome, capacity);
+        position = Arrays.copyOf(position, capacity);
+        refLength = Arrays.copyOf(refLength, capacity);
+        type = Arrays.copyOf(type, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        alleleReadCount = Arrays.copyOf(alleleReadCount, capacity);
+        totalReadCount = Arrays.copyOf(totalReadCount, capacity);
+    }
+
+    private class Variant implements SomaticDepth {
+
+        private final int index;
+
+        private Variant(final int index) {
+            this.index = index;
+        }
+
+        @NotNull
+        @Override
+        public String chromosome() {
+            return SomaticVariantSummary.this.chromosome(index);
+        }
+
+        @Override
+        public long position() {
+            return position[index];
+        }
+
+        @NotNull
+        @Override
+        public VariantType type() {
+            return SomaticVariantSummary.this.type(index);
+        }
+
+        @Override
+        public int totalReadCount() {
+            return totalReadCount[index];
+        }
+
+        @Override
+        public int alleleReadCount() {
+            return alleleReadCount[index];
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AmberSiteIndexTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadWrite() throws IOException {
+        final ListMultimap<Chromosome, AmberSite> sites = sites();
+        final File file = folder.newFile("test" + AmberSiteIndex.EXTENSION);
+        AmberSiteIndex.write(file.getPath(), sites);
+
+        final AmberSiteIndex victim = AmberSiteIndex.read(file.getPath());
+        assertEquals(Lists.newArrayList("1", "2", "X"), victim.contigs());
+        assertEquals(6, victim.size());
+        assertEquals(sites, victim.sites());
+        assertEquals(sites.get(HumanChromosome._1).subList(1, 3), victim.sites("1", 1, 3));
+    }
+
+    @Test
+    public void testCreateMatchesRead() throws IOException {
+        final ListMultimap<Chromosome, AmberSite> sites = sites();
+        final File file = folder.newFile("test" + AmberSiteIndex.EXTENSION);
+        AmberSiteIndex.write(file.getPath(), sites);
+
+        assertEquals(AmberSiteIndex.read(file.getPath()).sites(), AmberSiteIndex.create(sites).sites());
+    }
+
+    @Test
+    public void testLookup() throws IOException {
+        final AmberSiteIndex victim = AmberSiteIndex.create(sites());
+        assertEquals(0, victim.lowerBound("1", 50));
+        assertEquals(1, victim.lowerBound("1", 200));
+        assertEquals(2, victim.lowerBound("1", 201));
+        assertEquals(4, victim.lowerBound("1", 1000));
+        assertEquals(0, victim.lowerBound("3", 100));
+        assertEquals(0, victim.size("3"));
+
+        assertTrue(victim.snpCheck("1", 300));
+        assertTrue(victim.snpCheck("X", 100));
+        assertFalse(victim.snpCheck("1", 100));
+        assertFalse(victim.snpCheck("1", 301));
+        assertFalse(victim.snpCheck("3", 300));
+    }
+
+    @NotNull
+    private static ListMultimap<Chromosome, AmberSite> sites() {
+        final ListMultimap<Chromosome, AmberSite> result = ArrayListMultimap.create();
+        result.put(HumanChromosome._X, site("X", 100, "C", "T", true));
+        result.put(HumanChromosome._1, site("1", 100, "A", "G", false));
+        result.put(HumanChromosome._1, site("1", 200, "G", "A", false));
+        result.put(HumanChromosome._1, site("1", 300, "T", "C", false));
+        result.put(HumanChromosome._1, site("1", 300, "T", "G", true));
+        result.put(HumanChromosome._2, site("2", 100, "C", "A", false));
+        return result;
+    }
+
+    @NotNull
+    private static AmberSite site(@NotNull final String contig, long position, @NotNull final String ref, @NotNull final String alt,
+            boolean snpCheck) {
+        return ImmutableAmberSite.builder().chromosome(contig).position(position).ref(ref).alt(alt).snpCheck(snpCheck).build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.hartwig.hmftools.common.amber;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.utils.sam.SAMRecordsTest;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+import htsjdk.samtools.SAMRecord;
+
+public class SitePileupTest {
+
+    private static final int MIN_BASE_QUALITY = 13;
+    private static final char[] READ_BASES = { 'A', 'C', 'G', 'T', 'a', 'c', 'g', 't' };
+    private static final BaseDepth.Base[] SITE_BASES = { BaseDepth.Base.A, BaseDepth.Base.C, BaseDepth.Base.G, BaseDepth.Base.T };
+
+    @Test
+    public void testMatchesBaseDepthFactory() {
+        final Random random = new Random(0);
+        final List<ModifiableBaseDepth> expected = sites(random);
+        final SitePileup victim = pileup(expected, true);
+
+        final BaseDepthFactory factory = new BaseDepthFactory(MIN_BASE_QUALITY);
+        for (int i = 0; i < 2_000; i++) {
+            final SAMRecord record = record(random);
+            victim.add(record);
+            for (ModifiableBaseDepth site : expected) {
+                if (site.position() >= record.getAlignmentStart() && site.position() <= record.getAlignmentEnd()) {
+                    factory.addEvidence(site, record);
+                }
+            }
+        }
+
+        for (int i = 0; i < expected.size(); i++) {
+            final BaseDepth site = expected.get(i);
+            assertEquals(site.readDepth(), victim.readDepth[i]);
+            assertEquals(site.refSupport(), victim.refSupport[i]);
+            assertEquals(site.altSupport(), victim.altSupport[i]);
+            assertEquals(site.indelCount(), victim.indelCount[i]);
+        }
+    }
+
+    @Test
+    public void testMatchesTumorBAFFactory() {
+        final Random random = new Random(1);
+        final List<ModifiableBaseDepth> normal = sites(random);
+        final List<ModifiableTumorBAF> expected = Lists.newArrayList();
+        normal.forEach(x -> expected.add(TumorBAFFactory.create(x)));
+        final SitePileup victim = pileup(normal, false);
+
+        final TumorBAFFactory factory = new TumorBAFFactory(MIN_BASE_QUALITY);
+        for (int i = 0; i < 2_000; i++) {
+            final SAMRecord record = record(random);
+            victim.add(record);
+            for (ModifiableTumorBAF site : expected) {
+                if (site.position() >= record.getAlignmentStart() && site.position() <= record.getAlignmentEnd()) {
+                    factory.addEvidence(site, record);
+                }
+            }
+        }
+
+        for (int i = 0; i < expected.size(); i++) {
+            final TumorBAF site = expected.get(i);
+            assertEquals(site.tumorReadDepth(), victim.readDepth[i]);
+            assertEquals(site.tumorRefSupport(), victim.refSupport[i]);
+            assertEquals(site.tumorAltSupport(), victim.altSupport[i]);
+            assertEquals(site.tumorAltQuality(), victim.altQuality[i]);
+            assertEquals(site.tumorIndelCount(), victim.indelCount[i]);
+        }
+    }
+
+    @NotNull
+    private static SitePileup pileup(@NotNull final List<? extends BaseDepth> sites, boolean ignoreCase) {
+        final int[] positions = new int[sites.size()];
+        final byte[] ref = new byte[sites.size()];
+        final byte[] alt = new byte[sites.size()];
+        for (int i = 0; i < sites.size(); i++) {
+            positions[i] = (int) sites.get(i).position();
+            ref[i] = SitePileup.base(sites.get(i).ref());
+            alt[i] = SitePileup.base(sites.get(i).alt());
+        }
+        return new SitePileup(MIN_BASE_QUALITY, ignoreCase, positions, ref, alt);
+    }
+
+    @NotNull
+    private static List<ModifiableBaseDepth> sites(@NotNull final Random random) {
+        final List<ModifiableBaseDepth> result = Lists.newArrayList();
+        for (int position = 100; position < 300; position += 1 + random.nextInt(3)) {
+            final int ref = random.nextInt(4);
+            final int alt = (ref + 1 + random.nextInt(3)) % 4;
+            result.add(ModifiableBaseDepth.create()
+                    .setChromosome("1")
+                    .setPosition(position)
+                    .setRef(SITE_BASES[ref])
+                    .setAlt(SITE_BASES[alt])
+                    .setReadDepth(0)
+                    .setRefSupport(0)
+                    .setAltSupport(0)
+                    .setIndelCount(0));
+        }
+        return result;
+    }
+
+    @NotNull
+    private static SAMRecord record(@NotNull final Random random) {
+        final StringBuilder cigar = new StringBuilder();
+        int readLength = 0;
+        if (random.nextInt(4) == 0) {
+            int length = 1 + random.nextInt(5);
+            cigar.append(length).append('S');
+            readLength += length;
+        }
+
+        for (int i = 0, blocks = 1 + random.nextInt(4); i < blocks; i++) {
+            if (i > 0) {
+                int length = 1 + random.nextInt(3);
+                boolean insert = random.nextBoolean();
+                cigar.append(length).append(insert ? 'I' : 'D');
+                readLength += insert ? length : 0;
+            }
+
+            int length = 1 + random.nextInt(20);
+            cigar.append(length).append('M');
+            readLength += length;
+        }
+
+        if (random.nextInt(4) == 0) {
+            int length = 1 + random.nextInt(5);
+            cigar.append(length).append('S');
+            readLength += length;
+        }
+
+        final StringBuilder bases = new StringBuilder();
+        final StringBuilder qualities = new StringBuilder();
+        for (int i = 0; i < readLength; i++) {
+            bases.append(READ_BASES[random.nextInt(READ_BASES.length)]);
+            qualities.append((char) (33 + 5 + random.nextInt(30)));
+        }
+
+        return SAMRecordsTest.buildSamRecord(90 + random.nextInt(200), cigar.toString(), bases.toString(), qualities.toString());
+    }
+}
@@ -0,0 +1,125 @@
+package com.hartwig.hmftools.common.purple.gene;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.HmfExonRegion;
+import com.hartwig.hmftools.common.genome.region.HmfTranscriptRegion;
+import com.hartwig.hmftools.common.genome.region.ImmutableHmfExonRegion;
+import com.hartwig.hmftools.common.genome.region.ImmutableHmfTranscriptRegion;
+import com.hartwig.hmftools.common.genome.region.Strand;
+import com.hartwig.hmftools.common.purple.PurpleDatamodelTest;
+import com.hartwig.hmftools.common.purple.copynumber.CopyNumberMethod;
+import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
+import com.hartwig.hmftools.common.utils.zipper.RegionZipper;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class GeneCopyNumberFactoryTest {
+
+    private static final String[] CHROMOSOMES = { "1", "2", "X" };
+    private static final int CHROMOSOME_LENGTH = 1_000_000;
+
+    @Test
+    public void testMatchesZipAgainstAllCopyNumbers() {
+        final Random random = new Random(1);
+        final List<PurpleCopyNumber> somatics = Lists.newArrayList();
+        final List<PurpleCopyNumber> germlineDeletions = Lists.newArrayList();
+        final List<HmfTranscriptRegion> genes = Lists.newArrayList();
+
+        for (String chromosome : CHROMOSOMES) {
+            long start = 1;
+            while (start <= CHROMOSOME_LENGTH) {
+                long end = Math.min(CHROMOSOME_LENGTH, start + random.nextInt(5000));
+                somatics.add(PurpleDatamodelTest.createCopyNumber(chromosome, start, end, random.nextInt(4)).build());
+                if (random.nextInt(20) == 0) {
+                    germlineDeletions.add(PurpleDatamodelTest.createCopyNumber(chromosome, start, end, 0)
+                            .method(CopyNumberMethod.GERMLINE_HOM_DELETION)
+                            .build());
+                }
+                start = end + 1;
+            }
+
+            for (int i = 0; i < 200; i++) {
+                genes.add(gene(random, chromosome));
+            }
+        }
+
+        final List<GeneCopyNumber> victim = GeneCopyNumberFactory.geneCopyNumbers(genes, somatics, germlineDeletions);
+        assertEquals(expected(genes, somatics, germlineDeletions), victim);
+    }
+
+    @Test
+    public void testGeneBeyondCopyNumbers() {
+        final List<PurpleCopyNumber> somatics =
+                Collections.singletonList(PurpleDatamodelTest.createCopyNumber("1", 1, 1000, 2).build());
+        final HmfTranscriptRegion gene = create("1", 2001, 3000, Collections.singletonList(exon("1", 2001, 3000)));
+
+        final List<GeneCopyNumber> victim =
+                GeneCopyNumberFactory.geneCopyNumbers(Collections.singletonList(gene), somatics, Collections.emptyList());
+        assertEquals(0, victim.size());
+    }
+
+    @NotNull
+    private static List<GeneCopyNumber> expected(@NotNull final List<HmfTranscriptRegion> genes,
+            @NotNull final List<PurpleCopyNumber> somatics, @NotNull final List<PurpleCopyNumber> germlineDeletions) {
+        final List<GeneCopyNumber> result = Lists.newArrayList();
+        for (HmfTranscriptRegion gene : genes) {
+            final GeneCopyNumberBuilder builder = new GeneCopyNumberBuilder(gene);
+            RegionZipper.zip(somatics, gene.exome(), builder);
+            RegionZipper.zip(germlineDeletions, gene.exome(), builder);
+
+            GeneCopyNumber geneCopyNumber = builder.build();
+            if (geneCopyNumber.totalRegions() > 0) {
+                result.add(geneCopyNumber);
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static HmfTranscriptRegion gene(@NotNull final Random random, @NotNull final String chromosome) {
+        final List<HmfExonRegion> exome = Lists.newArrayList();
+        long start = 1 + random.nextInt(CHROMOSOME_LENGTH - 50_000);
+        long exonStart = start;
+        for (int i = 0; i < 1 + random.nextInt(10); i++) {
+            long exonEnd = exonStart + random.nextInt(2000);
+            exome.add(exon(chromosome, exonStart, exonEnd));
+            exonStart = exonEnd + 1 + random.nextInt(3000);
+        }
+
+        return create(chromosome, start, exome.get(exome.size() - 1).end(), exome);
+    }
+
+    @NotNull
+    private static HmfExonRegion exon(@NotNull final String chromosome, long start, long end) {
+        return ImmutableHmfExonRegion.builder().exonID("ID").chromosome(chromosome).start(start).end(end).build();
+    }
+
+    @NotNull
+    private static HmfTranscriptRegion create(@NotNull final String chromosome, long start, long end,
+            @NotNull final List<HmfExonRegion> exome) {
+        return ImmutableHmfTranscriptRegion.builder()
+                .chromosome(chromosome)
+                .start(start)
+                .end(end)
+                .gene("GENE")
+                .transcriptID("ID")
+                .transcriptVersion(1)
+                .chromosomeBand("BAND")
+                .entrezId(Collections.singletonList(1))
+                .geneID("ID")
+                .geneStart(start)
+                .geneEnd(end)
+                .codingStart(0)
+                .codingEnd(0)
+                .strand(Strand.FORWARD)
+                .exome(exome)
+                .build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.hartwig.hmftools.common.purple.purity;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.purple.region.FittedRegionFactory;
+import com.hartwig.hmftools.common.purple.region.FittedRegionFactoryV2;
+import com.hartwig.hmftools.common.purple.region.GermlineStatus;
+import com.hartwig.hmftools.common.purple.region.ImmutableEnrichedRegion;
+import com.hartwig.hmftools.common.purple.region.ObservedRegion;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class FittedPurityFactoryTest {
+
+    private static final double PURITY = 0.63;
+    private static final double NORM_FACTOR = 0.87;
+    private static final int[][] ALLELES = { { 1, 1 }, { 1, 1 }, { 2, 1 }, { 2, 0 }, { 1, 0 }, { 3, 1 }, { 2, 2 } };
+
+    @Test
+    public void testAdaptiveFindsExhaustiveBestFit() throws ExecutionException, InterruptedException {
+        final List<ObservedRegion> regions = observedRegions(new Random(0));
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final FittedPurityFactory exhaustive = fittedPurityFactory(executorService, true, regions);
+            final FittedPurityFactory adaptive = fittedPurityFactory(executorService, false, regions);
+
+            final FittedPurity expected = exhaustive.all().get(0);
+            final FittedPurity victim = adaptive.all().get(0);
+            assertEquals(PURITY, expected.purity(), 0.01);
+            assertEquals(expected.purity(), victim.purity(), 1e-9);
+            assertEquals(expected.normFactor(), victim.normFactor(), 1e-9);
+            assertEquals(expected.score(), victim.score(), 1e-12);
+            assertTrue(adaptive.all().size() < exhaustive.all().size() / 4);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    public void testAdaptiveKeepsBestFitAtHalfPurity() throws ExecutionException, InterruptedException {
+        final List<ObservedRegion> regions = observedRegions(new Random(0));
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            final FittedPurityFactory exhaustive = fittedPurityFactory(executorService, true, regions);
+            final FittedPurityFactory adaptive = fittedPurityFactory(executorService, false, regions);
+
+            final FittedPurity expected = bestFit(exhaustive.bestFitPerPurity(), PURITY / 2);
+            final FittedPurity victim = bestFit(adaptive.bestFitPerPurity(), PURITY / 2);
+            assertEquals(expected.normFactor(), victim.normFactor(), 1e-9);
+            assertEquals(expected.score(), victim.score(), 1e-12);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @NotNull
+    private static FittedPurity bestFit(@NotNull final List<FittedPurity> bestFitPerPurity, double purity) {
+        FittedPurity result = bestFitPerPurity.get(0);
+        for (FittedPurity fittedPurity : bestFitPerPurity) {
+            if (Math.abs(fittedPurity.purity() - purity) < Math.abs(result.purity() - purity)) {
+                result = fittedPurity;
+            }
+        }
+        return result;
+    }
+
+    @NotNull
+    private static FittedPurityFactory fittedPurityFactory(@NotNull final ExecutorService executorService, boolean exhaustive,
+            @NotNull final List<ObservedRegion> regions) throws ExecutionException, InterruptedException {
+        final FittedRegionFactory fittedRegionFactory = new FittedRegionFactoryV2(Gender.FEMALE, 100, 0.4, 0.05, 1.5, 1, 1.5, 0.1);
+        return new FittedPurityFactory(executorService,
+                Gender.FEMALE,
+                8,
+                0.08,
+                1.0,
+                0.01,
+                0.33,
+                2.0,
+                0.01,
+                exhaustive,
+                0,
+                fittedRegionFactory,
+                regions,
+                Collections.emptyList());
+    }
+
+    @NotNull
+    private static List<ObservedRegion> observedRegions(@NotNull final Random random) {
+        final List<ObservedRegion> result = Lists.newArrayList();
+        for (int chromosome = 1; chromosome <= 22; chromosome++) {
+            for (int i = 0; i < 10; i++) {
+                final int[] alleles = ALLELES[random.nextInt(ALLELES.length)];
+                final int copyNumber = alleles[0] + alleles[1];
+                final double ratio = NORM_FACTOR * (1 + PURITY * (copyNumber - 2) / 2) + 0.01 * random.nextGaussian();
+                final double baf = (PURITY * Math.max(alleles[0], alleles[1]) + 1 - PURITY) / (PURITY * copyNumber + 2 * (1 - PURITY));
+
+                result.add(ImmutableEnrichedRegion.builder()
+                        .chromosome(String.valueOf(chromosome))
+                        .start(i * 1_000_000 + 1)
+                        .end((i + 1) * 1_000_000)
+                        .observedTumorRatio(ratio)
+                        .observedNormalRatio(1)
+                        .observedBAF(Math.min(1, baf + 0.005 * random.nextGaussian()))
+                        .bafCount(50)
+                        .depthWindowCount(1000)
+                        .ratioSupport(true)
+                        .svCluster(false)
+                        .minStart(i * 1_000_000 + 1)
+                        .maxStart(i * 1_000_000 + 1)
+                        .status(GermlineStatus.DIPLOID)
+                        .gcContent(0.5)
+                        .support(SegmentSupport.NONE)
+                        .build());
+            }
+        }
+        return result;
+    }
+}
@@ -1,12 +1,19 @@
 package com.hartwig.hmftools.common.purple.region;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.purple.gender.Gender;
+import com.hartwig.hmftools.common.purple.segment.SegmentSupport;
 
+import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
 
 public class FittedRegionFactoryTest {
@@ -27,4 +34,54 @@ public class FittedRegionFactoryTest {
         assertTrue(FittedRegionFactoryV2.isFittableRegion(Gender.FEMALE, region));
     }
 
+    @Test
+    public void testBatchMatchesFittedRegions() {
+        final Random random = new Random(0);
+        final List<ObservedRegion> observedRegions = Lists.newArrayList();
+        for (String chromosome : new String[] { "1", "X", "Y" }) {
+            for (int i = 0; i < 200; i++) {
+                observedRegions.add(observedRegion(chromosome, 3 * random.nextDouble(), 0.5 + 0.5 * random.nextDouble()));
+            }
+        }
+
+        final FittedRegionFactory victim = new FittedRegionFactoryV2(Gender.MALE, 100, 0.4, 0.05, 1.5, 1, 1.5, 0.1);
+        final FittedRegionBatch batch = new FittedRegionBatch(Gender.MALE, observedRegions);
+        for (double purity = 0.1; purity < 1; purity += 0.2) {
+            for (double normFactor = 0.5; normFactor < 1.5; normFactor += 0.2) {
+                final List<FittedRegion> expected = victim.fitRegion(purity, normFactor, observedRegions);
+                victim.fitRegion(purity, normFactor, batch);
+
+                assertEquals(expected.size(), batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    final FittedRegion region = expected.get(i);
+                    assertEquals(region.tumorCopyNumber(), batch.tumorCopyNumber(i), 0);
+                    assertEquals(region.majorAllelePloidy(), batch.majorAllelePloidy(i), 0);
+                    assertEquals(region.eventPenalty(), batch.eventPenalty(i), 0);
+                    assertEquals(region.deviationPenalty(), batch.deviationPenalty(i), 0);
+                    assertEquals(region.isDiploid(), batch.isDiploid(i));
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static ObservedRegion observedRegion(@NotNull final String chromosome, double observedTumorRatio, double observedBAF) {
+        return ImmutableEnrichedRegion.builder()
+                .observedBAF(observedBAF)
+                .bafCount(10)
+                .chromosome(chromosome)
+                .start(1)
+                .end(1000)
+                .observedTumorRatio(observedTumorRatio)
+                .depthWindowCount(10)
+                .observedNormalRatio(1)
+                .ratioSupport(true)
+                .svCluster(false)
+                .minStart(1)
+                .maxStart(1)
+                .status(GermlineStatus.DIPLOID)
+                .gcContent(0.5)
+                .support(SegmentSupport.NONE)
+                .build();
+    }
 }
@@ -6,16 +6,33 @@ import static com.hartwig.hmftools.common.purple.segment.SegmentSupport.MULTIPLE
 import static com.hartwig.hmftools.common.purple.segment.SegmentSupport.NONE;
 import static com.hartwig.hmftools.common.purple.segment.SegmentSupport.TELOMERE;
 
+import static com.hartwig.hmftools.common.purple.PurpleDatamodelTest.createStructuralVariant;
+import static com.hartwig.hmftools.common.purple.PurpleDatamodelTest.createStructuralVariantSingleBreakend;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.common.cobalt.CobaltRatio;
+import com.hartwig.hmftools.common.genome.chromosome.Chromosome;
+import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.common.genome.position.GenomePositions;
 import com.hartwig.hmftools.common.utils.pcf.ImmutablePCFPosition;
+import com.hartwig.hmftools.common.utils.pcf.PCFPosition;
 import com.hartwig.hmftools.common.utils.pcf.PCFSource;
+import com.hartwig.hmftools.common.variant.structural.StructuralVariant;
 import com.hartwig.hmftools.common.variant.structural.StructuralVariantType;
 
 import org.jetbrains.annotations.NotNull;
@@ -33,6 +50,74 @@ public class PurpleSegmentFactoryTest {
         assertPurpleSegment(segments.get(1), CHROMOSOME_CENTROMERE.position(), CHROMOSOME_LENGTH.position(), true, CENTROMERE);
     }
 
+    @Test
+    public void testChangedChromosomes() {
+        final StructuralVariant deletion = createStructuralVariant("1", 1001, "1", 2001, StructuralVariantType.DEL).build();
+        final StructuralVariant translocation = createStructuralVariant("2", 1001, "3", 2001, StructuralVariantType.BND).build();
+        final StructuralVariant single = createStructuralVariantSingleBreakend("4", 1001, 0.5).build();
+        final StructuralVariant insertion = createStructuralVariant("5", 1001, "5", 1002, StructuralVariantType.INS).build();
+
+        final List<StructuralVariant> before = Lists.newArrayList(deletion);
+        assertEquals(Collections.emptySet(), PurpleSegmentFactory.changedChromosomes(before, Lists.newArrayList(deletion)));
+
+        final List<StructuralVariant> after = Lists.newArrayList(deletion, translocation, single, insertion);
+        assertEquals(Sets.newHashSet(HumanChromosome._2, HumanChromosome._3, HumanChromosome._4),
+                PurpleSegmentFactory.changedChromosomes(before, after));
+    }
+
+    @Test
+    public void testReplaceChangedChromosomesMatchesFullSegmentation() {
+        final Map<Chromosome, GenomePosition> lengths = Maps.newHashMap();
+        final Map<Chromosome, GenomePosition> centromeres = Maps.newHashMap();
+        final Multimap<Chromosome, PCFPosition> pcfPositions = ArrayListMultimap.create();
+        for (String contig : new String[] { "1", "2", "3", "4", "X" }) {
+            final Chromosome chromosome = HumanChromosome.fromString(contig);
+            lengths.put(chromosome, GenomePositions.create(contig, 10_000_000));
+            centromeres.put(chromosome, GenomePositions.create(contig, 5_000_001));
+            for (long position = 1_000_001; position < 10_000_000; position += 2_000_000) {
+                pcfPositions.put(chromosome, ratioPosition(contig, position));
+            }
+        }
+
+        final ListMultimap<Chromosome, CobaltRatio> ratios = ArrayListMultimap.create();
+        final PurpleSegmentFactory factory = new PurpleSegmentFactory(1000, centromeres, lengths);
+
+        final StructuralVariant deletion = createStructuralVariant("1", 2_500_001, "1", 3_500_001, StructuralVariantType.DEL).build();
+        final StructuralVariant translocation = createStructuralVariant("2", 4_000_001, "X", 6_000_001, StructuralVariantType.BND).build();
+        final List<StructuralVariant> before = Lists.newArrayList(deletion);
+        final List<StructuralVariant> after = Lists.newArrayList(deletion, translocation);
+
+        final List<PurpleSegment> original = factory.segment(before, pcfPositions, ratios);
+        final List<PurpleSegment> expected = factory.segment(after, pcfPositions, ratios);
+        assertNotEquals(onChromosome(original, "2"), onChromosome(expected, "2"));
+
+        final Set<Chromosome> changed = PurpleSegmentFactory.changedChromosomes(before, after);
+        assertEquals(Sets.newHashSet(HumanChromosome._2, HumanChromosome._X), changed);
+
+        final Multimap<Chromosome, PCFPosition> changedPcfPositions = ArrayListMultimap.create();
+        changed.forEach(x -> changedPcfPositions.putAll(x, pcfPositions.get(x)));
+        final List<PurpleSegment> victim =
+                PurpleSegmentFactory.replaceChromosomes(original, factory.segment(after, changedPcfPositions, ratios), changed);
+
+        assertEquals(expected, victim);
+        for (String contig : new String[] { "1", "3", "4" }) {
+            assertEquals(onChromosome(original, contig), onChromosome(victim, contig));
+        }
+        assertEquals(onChromosome(expected, "2"), onChromosome(victim, "2"));
+        assertEquals(onChromosome(expected, "X"), onChromosome(victim, "X"));
+    }
+
+    @Test
+    public void testReplaceChromosomeMissingFromOriginal() {
+        final List<PurpleSegment> original = Lists.newArrayList(segment("1", 1), segment("1", 100), segment("3", 1));
+        final List<PurpleSegment> replacement = Lists.newArrayList(segment("1", 50), segment("2", 1), segment("2", 100));
+
+        final List<PurpleSegment> victim =
+                PurpleSegmentFactory.replaceChromosomes(original, replacement, Sets.newHashSet(HumanChromosome._2));
+        assertEquals(Lists.newArrayList(segment("1", 1), segment("1", 100), segment("2", 1), segment("2", 100), segment("3", 1)),
+                victim);
+    }
+
     @Test
     public void testSingleSV() {
         final List<Cluster> clusters = Lists.newArrayList(cluster(17001, 18881).build());
@@ -107,6 +192,36 @@ public class PurpleSegmentFactoryTest {
         assertEquals(support, victim.support());
     }
 
+    @NotNull
+    private static List<PurpleSegment> onChromosome(@NotNull final List<PurpleSegment> segments, @NotNull final String contig) {
+        return segments.stream().filter(x -> x.chromosome().equals(contig)).collect(Collectors.toList());
+    }
+
+    @NotNull
+    private static PurpleSegment segment(@NotNull final String contig, long start) {
+        return ImmutablePurpleSegment.builder()
+                .chromosome(contig)
+                .start(start)
+                .end(start)
+                .minStart(start)
+                .maxStart(start)
+                .ratioSupport(true)
+                .svCluster(false)
+                .support(NONE)
+                .build();
+    }
+
+    @NotNull
+    private static PCFPosition ratioPosition(@NotNull final String contig, long position) {
+        return ImmutablePCFPosition.builder()
+                .chromosome(contig)
+                .position(position)
+                .source(PCFSource.TUMOR_RATIO)
+                .minPosition(position)
+                .maxPosition(position)
+                .build();
+    }
+
     @NotNull
     private static ImmutableCluster.Builder cluster(long start) {
         return ImmutableCluster.builder().chromosome(CHROMOSOME_LENGTH.chromosome()).start(start).end(start);
@@ -0,0 +1,145 @@
+package com.hartwig.hmftools.common.utils.pcf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class PiecewiseConstantFitTest {
+
+    private static final double EPSILON = 1e-10;
+
+    @Test
+    public void testExactFindsSteps() {
+        final double[] values = { 0, 0, 0, 0, 0, 5, 5, 5, 5, 5, 5, 1, 1, 1, 1 };
+        assertArrayEquals(new int[] { 0, 5, 11 }, new PiecewiseConstantFit(1).fit(values));
+        assertArrayEquals(new int[] { 0 }, new PiecewiseConstantFit(1000).fit(values));
+    }
+
+    @Test
+    public void testSingleOutlierIsSegment() {
+        final double[] values = new double[20];
+        values[7] = 30;
+        assertArrayEquals(new int[] { 0, 7, 8 }, new PiecewiseConstantFit(100).fit(values));
+    }
+
+    @Test
+    public void testPruningMatchesUnprunedOptimum() {
+        final Random random = new Random(0);
+        for (int test = 0; test < 20; test++) {
+            final double[] values = steps(random, 1_500);
+            assertArrayEquals(unprunedFit(100, values), new PiecewiseConstantFit(100).exact(values));
+        }
+    }
+
+    @Test
+    public void testShortSeriesAreFitExactly() {
+        final Random random = new Random(2);
+        final PiecewiseConstantFit victim = new PiecewiseConstantFit(100);
+        final double[] values = steps(random, PiecewiseConstantFit.FAST_LIMIT - 1);
+        assertArrayEquals(victim.exact(values), victim.fit(values));
+    }
+
+    @Test
+    public void testFastModeFindsClearSteps() {
+        final PiecewiseConstantFit victim = new PiecewiseConstantFit(100);
+        for (int length : new int[] { PiecewiseConstantFit.FAST_LIMIT, 5_000, PiecewiseConstantFit.SUBSET_LIMIT, 40_000 }) {
+            final Random random = new Random(length);
+            final double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = (i / 700) % 2 * 20 + random.nextGaussian();
+            }
+
+            final int[] expected = new int[(length + 699) / 700];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = i * 700;
+            }
+
+            assertArrayEquals(expected, victim.exact(values));
+            assertArrayEquals(expected, victim.fit(values));
+        }
+    }
+
+    @Test
+    public void testQuantileMatchesRDefault() {
+        final double[] values = { 4, 1, 3, 2 };
+        assertEquals(1.9, PiecewiseConstantFit.quantile(values, 0.3), EPSILON);
+        assertEquals(1, PiecewiseConstantFit.quantile(values, 0), EPSILON);
+        assertEquals(4, PiecewiseConstantFit.quantile(values, 1), EPSILON);
+        assertEquals(2.5, PiecewiseConstantFit.quantile(values, 0.5), EPSILON);
+    }
+
+    @Test
+    public void testRunningMedianMatchesWindowMedian() {
+        final Random random = new Random(1);
+        final double[] values = new double[500];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(20);
+        }
+
+        final int k = 25;
+        final double[] result = PCFSegmenter.runningMedian(values, k);
+        for (int i = k; i < values.length - k; i++) {
+            final double[] window = Arrays.copyOfRange(values, i - k, i + k + 1);
+            Arrays.sort(window);
+            assertEquals(window[k], result[i], EPSILON);
+        }
+    }
+
+    @Test
+    public void testRunningMedianEnds() {
+        final double[] values = { 1, 5, 2, 8, 3, 9, 4, 7 };
+        assertArrayEquals(new double[] { 1, 2, 5, 3, 8, 4, 7, 7 }, PCFSegmenter.runningMedian(values, 1), EPSILON);
+    }
+
+    @NotNull
+    private static int[] unprunedFit(double gamma, @NotNull final double[] values) {
+        final int n = values.length;
+        final double[] sum = new double[n + 1];
+        final double[] sumSquares = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            sum[i + 1] = sum[i] + values[i];
+            sumSquares[i + 1] = sumSquares[i] + values[i] * values[i];
+        }
+
+        final double[] cost = new double[n + 1];
+        final int[] previous = new int[n + 1];
+        for (int end = 1; end <= n; end++) {
+            cost[end] = Double.POSITIVE_INFINITY;
+            for (int start = 0; start < end; start++) {
+                final double segmentSum = sum[end] - sum[start];
+                final double segmentCost = sumSquares[end] - sumSquares[start] - segmentSum * segmentSum / (end - start);
+                if (cost[start] + segmentCost + gamma < cost[end]) {
+                    cost[end] = cost[start] + segmentCost + gamma;
+                    previous[end] = start;
+                }
+            }
+        }
+
+        final List<Integer> starts = Lists.newArrayList();
+        for (int end = n; end > 0; end = previous[end]) {
+            starts.add(0, previous[end]);
+        }
+        return starts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @NotNull
+    private static double[] steps(@NotNull final Random random, int length) {
+        final double[] result = new double[length];
+        double level = 0;
+        for (int i = 0; i < length; i++) {
+            if (random.nextInt(200) == 0) {
+                level = random.nextGaussian() * 2;
+            }
+            result[i] = level + random.nextGaussian() + (random.nextInt(500) == 0 ? 20 : 0);
+        }
+        return result;
+    }
+}
@@ -175,6 +175,39 @@ public class SomaticVariantFactoryTest {
         assertEquals(0, filtered.size());
     }
 
+    @Test
+    public void testSummaryMatchesVariants() throws IOException {
+        assertSummary(SomaticVariantFactory.unfilteredInstance(), SOMATIC_VARIANT_FILE);
+        assertSummary(SomaticVariantFactory.passOnlyInstance(), SOMATIC_VARIANT_FILE);
+        assertSummary(SomaticVariantFactory.unfilteredInstance(), NEAR_PON_FILTERED_INDEL_FILE);
+        assertSummary(SomaticVariantFactory.passOnlyInstance(), NEAR_PON_FILTERED_INDEL_FILE);
+    }
+
+    private static void assertSummary(@NotNull final SomaticVariantFactory factory, @NotNull final String file) throws IOException {
+        final List<SomaticVariant> variants = factory.fromVCFFile(SAMPLE, file);
+        final SomaticVariantSummary summary = factory.summaryFromVCFFile(SAMPLE, file);
+
+        assertEquals(variants.size(), summary.size());
+        for (int i = 0; i < variants.size(); i++) {
+            final SomaticVariant expected = variants.get(i);
+            final SomaticDepth actual = summary.variants().get(i);
+            assertEquals(expected.chromosome(), actual.chromosome());
+            assertEquals(expected.position(), actual.position());
+            assertEquals(expected.type(), actual.type());
+            assertEquals(expected.alleleReadCount(), actual.alleleReadCount());
+            assertEquals(expected.totalReadCount(), actual.totalReadCount());
+        }
+
+        assertEquals(variants.stream().filter(x -> x.type() == VariantType.SNP).count(), summary.snps().size());
+
+        for (SomaticVariant variant : SomaticVariantFactory.unfilteredInstance().fromVCFFile(SAMPLE, file)) {
+            final boolean expected = variants.stream()
+                    .anyMatch(x -> x.chromosome().equals(variant.chromosome()) && x.position() == variant.position()
+                            && x.type() == variant.type());
+            assertEquals(expected, summary.contains(variant.chromosome(), variant.position(), variant.type()));
+        }
+    }
+
     @NotNull
     private static SomaticVariant assertedGet(@NotNull Optional<SomaticVariant> variant) {
         assert variant.isPresent();
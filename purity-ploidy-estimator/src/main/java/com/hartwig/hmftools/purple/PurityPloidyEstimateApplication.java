@@ -11,10 +11,10 @@ import java.sql.SQLException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimap;
@@ -48,18 +48,20 @@ import com.hartwig.hmftools.common.purple.region.FittedRegionFactory;
 import com.hartwig.hmftools.common.purple.region.FittedRegionFactoryV2;
 import com.hartwig.hmftools.common.purple.region.ObservedRegion;
 import com.hartwig.hmftools.common.purple.region.SegmentFile;
+import com.hartwig.hmftools.common.purple.segment.PurpleSegmentFactory;
 import com.hartwig.hmftools.common.utils.Doubles;
 import com.hartwig.hmftools.common.utils.version.VersionInfo;
-import com.hartwig.hmftools.common.variant.PurityAdjustedSomaticVariant;
 import com.hartwig.hmftools.common.variant.PurityAdjustedSomaticVariantFactory;
-import com.hartwig.hmftools.common.variant.SomaticVariant;
+import com.hartwig.hmftools.common.variant.SomaticDepth;
 import com.hartwig.hmftools.common.variant.SomaticVariantFactory;
+import com.hartwig.hmftools.common.variant.SomaticVariantSummary;
 import com.hartwig.hmftools.common.variant.clonality.ModifiableWeightedPloidy;
 import com.hartwig.hmftools.common.variant.clonality.PeakModel;
 import com.hartwig.hmftools.common.variant.clonality.PeakModelFactory;
 import com.hartwig.hmftools.common.variant.clonality.PeakModelFile;
 import com.hartwig.hmftools.common.variant.filter.SGTFilter;
 import com.hartwig.hmftools.common.variant.recovery.RecoverStructuralVariants;
+import com.hartwig.hmftools.common.variant.structural.StructuralVariant;
 import com.hartwig.hmftools.patientdb.dao.DatabaseAccess;
 import com.hartwig.hmftools.purple.config.CommonConfig;
 import com.hartwig.hmftools.purple.config.ConfigSupplier;
@@ -140,10 +142,8 @@ public class PurityPloidyEstimateApplication   {
 
             // Load structural and somatic variants
             final PurpleStructuralVariantSupplier structuralVariants = structuralVariants(configSupplier);
-            final List<SomaticVariant> allSomatics = somaticVariants(configSupplier);
-            final List<SomaticVariant> fittingSomatics = config.tumorOnly()
-                    ? Collections.emptyList()
-                    : allSomatics.stream().filter(SomaticVariant::isSnp).collect(Collectors.toList());
+            final SomaticVariantSummary allSomatics = somaticVariants(configSupplier);
+            final List<SomaticDepth> fittingSomatics = config.tumorOnly() ? Collections.emptyList() : allSomatics.snps();
 
             LOGGER.info("Applying segmentation");
             final Segmentation segmentation = new Segmentation(configSupplier, cobaltGender);
@@ -169,16 +169,24 @@ public class PurityPloidyEstimateApplication   {
                     fittedRegionFactory.fitRegion(fittedPurity.purity(), fittedPurity.normFactor(), observedRegions);
             copyNumberFactory.invoke(fittedRegions, structuralVariants.variants());
 
+            final List<StructuralVariant> unrecoveredVariants = Lists.newArrayList(structuralVariants.variants());
             final int recoveredSVCount = recoverStructuralVariants(configSupplier.structuralVariantConfig(),
                     structuralVariants,
                     purityAdjuster,
                     copyNumberFactory.copyNumbers());
             if (recoveredSVCount > 0) {
-                LOGGER.info("Reapplying segmentation with {} recovered structural variants", recoveredSVCount);
-                final List<ObservedRegion> recoveredObservedRegions = segmentation.createSegments(structuralVariants.variants());
+                final Set<Chromosome> recoveredChromosomes =
+                        PurpleSegmentFactory.changedChromosomes(unrecoveredVariants, structuralVariants.variants());
+                LOGGER.info("Reapplying segmentation to {} chromosomes with {} recovered structural variants",
+                        recoveredChromosomes.size(),
+                        recoveredSVCount);
+                final List<ObservedRegion> recoveredObservedRegions =
+                        segmentation.createSegments(structuralVariants.variants(), recoveredChromosomes);
 
                 LOGGER.info("Recalculating copy number");
-                fittedRegions = fittedRegionFactory.fitRegion(fittedPurity.purity(), fittedPurity.normFactor(), recoveredObservedRegions);
+                final List<FittedRegion> recoveredFittedRegions =
+                        fittedRegionFactory.fitRegion(fittedPurity.purity(), fittedPurity.normFactor(), recoveredObservedRegions);
+                fittedRegions = PurpleSegmentFactory.replaceChromosomes(fittedRegions, recoveredFittedRegions, recoveredChromosomes);
                 copyNumberFactory.invoke(fittedRegions, structuralVariants.variants());
             }
 
@@ -195,14 +203,13 @@ public class PurityPloidyEstimateApplication   {
             final PurpleQC qcChecks = PurpleQCFactory.create(bestFit.fit(), copyNumbers, amberGender, cobaltGender, geneCopyNumbers);
 
             LOGGER.info("Modelling somatic peaks");
-            final List<PurityAdjustedSomaticVariant> enrichedSomatics =
-                    new PurityAdjustedSomaticVariantFactory(tumorSample, purityAdjuster, copyNumbers, enrichedFittedRegions).create(
-                            allSomatics);
-            final List<PeakModel> somaticPeaks = modelSomaticPeaks(configSupplier.somaticConfig(), enrichedSomatics);
+            final PurityAdjustedSomaticVariantFactory somaticFactory =
+                    new PurityAdjustedSomaticVariantFactory(tumorSample, purityAdjuster, copyNumbers, enrichedFittedRegions);
+            final List<PeakModel> somaticPeaks = modelSomaticPeaks(configSupplier.somaticConfig(), somaticFactory, allSomatics);
 
             LOGGER.info("Enriching somatic variants");
             final SomaticStream somaticStream = new SomaticStream(configSupplier);
-            somaticStream.processAndWrite(purityAdjuster, copyNumbers, enrichedFittedRegions, somaticPeaks);
+            somaticStream.processAndWrite(purityAdjuster, copyNumbers, enrichedFittedRegions, somaticPeaks, allSomatics);
 
             final PurityContext purityContext = ImmutablePurityContext.builder()
                     .version(version.version())
@@ -263,7 +270,7 @@ public class PurityPloidyEstimateApplication   {
 
             new Charts(configSupplier, executorService).write(cobaltGender,
                     copyNumbers,
-                    enrichedSomatics,
+                    somaticStream.plotVariants(),
                     structuralVariants.variants(),
                     fittedRegions,
                     Lists.newArrayList(bafs.values()));
@@ -294,7 +301,7 @@ public class PurityPloidyEstimateApplication   {
 
     @NotNull
     private BestFit fitPurity(final ExecutorService executorService, final ConfigSupplier configSupplier, final Gender cobaltGender,
-            final List<SomaticVariant> snpSomatics, final List<ObservedRegion> observedRegions,
+            final List<SomaticDepth> snpSomatics, final List<ObservedRegion> observedRegions,
             final FittedRegionFactory fittedRegionFactory) throws ExecutionException, InterruptedException {
         final FittingConfig fittingConfig = configSupplier.fittingConfig();
         final SomaticConfig somaticConfig = configSupplier.somaticConfig();
@@ -307,6 +314,7 @@ public class PurityPloidyEstimateApplication   {
                 fittingConfig.minNormFactor(),
                 fittingConfig.maxNormFactor(),
                 fittingConfig.normFactorIncrement(),
+                !fittingConfig.adaptiveFit(),
                 somaticConfig.somaticPenaltyWeight(),
                 fittedRegionFactory,
                 observedRegions,
@@ -356,7 +364,7 @@ public class PurityPloidyEstimateApplication   {
     }
 
     @NotNull
-    private static List<SomaticVariant> somaticVariants(@NotNull final ConfigSupplier configSupplier) throws IOException {
+    private static SomaticVariantSummary somaticVariants(@NotNull final ConfigSupplier configSupplier) throws IOException {
         final SomaticConfig config = configSupplier.somaticConfig();
         if (config.file().isPresent()) {
             String filename = config.file().get().toString();
@@ -364,10 +372,10 @@ public class PurityPloidyEstimateApplication   {
 
             SomaticVariantFactory factory = SomaticVariantFactory.filteredInstance(new PassingVariantFilter(), new SGTFilter());
 
-            return factory.fromVCFFile(configSupplier.commonConfig().tumorSample(), filename);
+            return factory.summaryFromVCFFile(configSupplier.commonConfig().tumorSample(), filename);
         } else {
             LOGGER.info("Somatic variants support disabled.");
-            return Collections.emptyList();
+            return SomaticVariantSummary.empty();
         }
     }
 
@@ -395,16 +403,18 @@ public class PurityPloidyEstimateApplication   {
 
     @NotNull
     private List<PeakModel> modelSomaticPeaks(@NotNull final SomaticConfig config,
-            @NotNull final List<PurityAdjustedSomaticVariant> enrichedSomatics) {
+            @NotNull final PurityAdjustedSomaticVariantFactory somaticFactory, @NotNull final SomaticVariantSummary somatics) {
         final List<ModifiableWeightedPloidy> weightedPloidies = Lists.newArrayList();
-        for (PurityAdjustedSomaticVariant enrichedSomatic : enrichedSomatics) {
-            if (Doubles.lessThan(enrichedSomatic.ploidy(), config.clonalityMaxPloidy()) && !enrichedSomatic.isFiltered()
-                    && HumanChromosome.contains(enrichedSomatic.chromosome()) && HumanChromosome.fromString(enrichedSomatic.chromosome())
-                    .isAutosome()) {
-                weightedPloidies.add(ModifiableWeightedPloidy.create()
-                        .from(enrichedSomatic)
-                        .setPloidy(enrichedSomatic.ploidy())
-                        .setWeight(1));
+        for (SomaticDepth somatic : somatics.variants()) {
+            if (HumanChromosome.contains(somatic.chromosome()) && HumanChromosome.fromString(somatic.chromosome()).isAutosome()) {
+                double ploidy = somaticFactory.ploidy(somatic, somatic);
+                if (Doubles.lessThan(ploidy, config.clonalityMaxPloidy())) {
+                    weightedPloidies.add(ModifiableWeightedPloidy.create()
+                            .setAlleleReadCount(somatic.alleleReadCount())
+                            .setTotalReadCount(somatic.totalReadCount())
+                            .setPloidy(ploidy)
+                            .setWeight(1));
+                }
             }
         }
 
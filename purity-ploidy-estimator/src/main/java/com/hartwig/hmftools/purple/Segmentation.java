@@ -2,7 +2,9 @@ package com.hartwig.hmftools.purple;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Set;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
 import com.hartwig.hmftools.common.amber.AmberBAF;
@@ -51,11 +53,28 @@ class Segmentation {
 
     @NotNull
     public List<ObservedRegion> createSegments(@NotNull final List<StructuralVariant> structuralVariants) {
+        return createSegments(structuralVariants, pcfPositions);
+    }
+
+    @NotNull
+    public List<ObservedRegion> createSegments(@NotNull final List<StructuralVariant> structuralVariants,
+            @NotNull final Set<Chromosome> chromosomes) {
+        final Multimap<Chromosome, PCFPosition> chromosomePcfPositions = ArrayListMultimap.create();
+        for (Chromosome chromosome : chromosomes) {
+            chromosomePcfPositions.putAll(chromosome, pcfPositions.get(chromosome));
+        }
+
+        return createSegments(structuralVariants, chromosomePcfPositions);
+    }
+
+    @NotNull
+    private List<ObservedRegion> createSegments(@NotNull final List<StructuralVariant> structuralVariants,
+            @NotNull final Multimap<Chromosome, PCFPosition> positions) {
         final PurpleSegmentFactory factory = new PurpleSegmentFactory(config.windowSize(),
                 configSupplier.refGenomeConfig().centromere(),
                 configSupplier.refGenomeConfig().length());
 
-        final List<PurpleSegment> segments = factory.segment(structuralVariants, pcfPositions, ratios);
+        final List<PurpleSegment> segments = factory.segment(structuralVariants, positions, ratios);
 
         final ObservedRegionFactory observedRegionFactory = new ObservedRegionFactory(config.windowSize(), gender);
         return observedRegionFactory.combine(segments, bafs, ratios, gcProfiles);
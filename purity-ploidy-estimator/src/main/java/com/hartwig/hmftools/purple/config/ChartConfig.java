@@ -18,14 +18,20 @@ public interface ChartConfig {
     Logger LOGGER = LogManager.getLogger(CommonConfig.class);
     String CIRCOS = "circos";
     String DISABLE = "no_charts";
+    String DETACH = "detach_charts";
+
+    int MAX_PLOT_POINTS = 25000;
 
     static void addOptions(@NotNull Options options) {
         options.addOption(CIRCOS, true, "Location of circos binary");
         options.addOption(DISABLE, false, "Disable charts");
+        options.addOption(DETACH, false, "Start chart rendering without waiting for it to complete");
     }
 
     boolean enabled();
 
+    boolean detached();
+
     Optional<String> circosBinary();
 
     String plotDirectory();
@@ -36,6 +42,7 @@ public interface ChartConfig {
     static ChartConfig createCircosConfig(@NotNull CommandLine cmd, @NotNull CommonConfig config) {
         return ImmutableChartConfig.builder()
                 .enabled(!cmd.hasOption(DISABLE))
+                .detached(cmd.hasOption(DETACH))
                 .plotDirectory(config.outputDirectory() + File.separator + "plot" )
                 .circosDirectory(config.outputDirectory() + File.separator + "circos")
                 .circosBinary(cmd.hasOption(CIRCOS) ? Optional.of(cmd.getOptionValue(CIRCOS)) : Optional.empty())
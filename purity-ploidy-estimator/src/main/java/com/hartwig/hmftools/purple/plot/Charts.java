@@ -46,6 +46,19 @@ public class Charts {
         final ChartConfig chartConfig = configSupplier.chartConfig();
         final CircosCharts circosCharts = new CircosCharts(configSupplier, executorService);
         circosCharts.write(gender, copyNumbers, somaticVariants, structuralVariants, regions, bafs);
+
+        if (chartConfig.detached()) {
+            final List<Process> processes = circosCharts.startCharts();
+            if (chartConfig.enabled()) {
+                processes.addAll(new RCharts(configSupplier, executorService).startCharts());
+            }
+
+            if (!processes.isEmpty()) {
+                LOGGER.info("Rendering {} charts to {} in the background", processes.size(), chartConfig.plotDirectory());
+            }
+            return;
+        }
+
         final List<Future<Integer>> futures = circosCharts.chartFutures();
 
         if (chartConfig.enabled()) {
@@ -1,5 +1,7 @@
 package com.hartwig.hmftools.purple.plot;
 
+import static com.hartwig.hmftools.purple.config.ChartConfig.MAX_PLOT_POINTS;
+
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
@@ -39,8 +41,6 @@ import org.jetbrains.annotations.Nullable;
 
 class CircosCharts {
 
-    private static final int MAX_PLOT_POINTS = 25000;
-
     private final ExecutorService executorService;
     private final String referenceSample;
     private final String tumorSample;
@@ -83,6 +83,24 @@ class CircosCharts {
         return futures;
     }
 
+    @NotNull
+    List<Process> startCharts() throws IOException {
+        final List<Process> processes = Lists.newArrayList();
+        final Optional<String> circosBinary = config.circosBinary();
+        if (circosBinary.isPresent()) {
+            processes.add(startCircos(circosBinary.get(), "input"));
+            processes.add(startCircos(circosBinary.get(), "circos"));
+        }
+
+        return processes;
+    }
+
+    @NotNull
+    private Process startCircos(@NotNull final String executable, @NotNull final String type) throws IOException {
+        final String outputFile = tumorSample + "." + type + ".png";
+        return new CircosExecution(executable).startCircos(confFile(type), config.plotDirectory(), outputFile, config.circosDirectory());
+    }
+
     @Nullable
     private Integer generateCircos(@NotNull final String executable, @NotNull final String type) throws IOException, InterruptedException {
         CircosExecution execution = new CircosExecution(executable);
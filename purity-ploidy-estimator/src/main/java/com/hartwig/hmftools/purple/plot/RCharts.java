@@ -1,5 +1,6 @@
 package com.hartwig.hmftools.purple.plot;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -29,17 +30,34 @@ class RCharts {
     @NotNull
     List<Future<Integer>> chartFutures() {
         final List<Future<Integer>> result = Lists.newArrayList();
+        for (String script : scripts()) {
+            result.add(executorService.submit(() -> RExecutor.executeFromClasspath(script,
+                    commonConfig.tumorSample(),
+                    commonConfig.outputDirectory(),
+                    chartConfig.plotDirectory())));
+        }
 
-        result.add(executorService.submit(() -> RExecutor.executeFromClasspath("r/copyNumberPlots.R",
-                commonConfig.tumorSample(),
-                commonConfig.outputDirectory(),
-                chartConfig.plotDirectory())));
+        return result;
+    }
 
-        if (configSupplier.somaticConfig().file().isPresent()) {
-            result.add(executorService.submit(() -> RExecutor.executeFromClasspath("r/somaticVariantPlots.R",
+    @NotNull
+    List<Process> startCharts() throws IOException {
+        final List<Process> result = Lists.newArrayList();
+        for (String script : scripts()) {
+            result.add(RExecutor.startFromClasspath(script,
                     commonConfig.tumorSample(),
                     commonConfig.outputDirectory(),
-                    chartConfig.plotDirectory())));
+                    chartConfig.plotDirectory()));
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private List<String> scripts() {
+        final List<String> result = Lists.newArrayList("r/copyNumberPlots.R");
+        if (configSupplier.somaticConfig().file().isPresent()) {
+            result.add("r/somaticVariantPlots.R");
         }
 
         return result;
@@ -2,22 +2,32 @@ package com.hartwig.hmftools.purple.somatic;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
+import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.drivercatalog.DriverCatalog;
 import com.hartwig.hmftools.common.drivercatalog.SomaticVariantDrivers;
 import com.hartwig.hmftools.common.purple.PurityAdjuster;
 import com.hartwig.hmftools.common.purple.copynumber.PurpleCopyNumber;
 import com.hartwig.hmftools.common.purple.gene.GeneCopyNumber;
 import com.hartwig.hmftools.common.purple.region.FittedRegion;
+import com.hartwig.hmftools.common.utils.collection.Downsample;
+import com.hartwig.hmftools.common.variant.ImmutablePurityAdjustedSomaticVariantImpl;
+import com.hartwig.hmftools.common.variant.PurityAdjustedSomaticVariant;
+import com.hartwig.hmftools.common.variant.SomaticVariant;
 import com.hartwig.hmftools.common.variant.SomaticVariantFactory;
+import com.hartwig.hmftools.common.variant.SomaticVariantSummary;
+import com.hartwig.hmftools.common.variant.VariantType;
 import com.hartwig.hmftools.common.variant.clonality.PeakModel;
 import com.hartwig.hmftools.common.variant.enrich.VariantContextEnrichmentPurple;
 import com.hartwig.hmftools.common.variant.msi.MicrosatelliteIndels;
 import com.hartwig.hmftools.common.variant.msi.MicrosatelliteStatus;
 import com.hartwig.hmftools.common.variant.tml.TumorMutationalLoad;
 import com.hartwig.hmftools.common.variant.tml.TumorMutationalStatus;
+import com.hartwig.hmftools.purple.config.ChartConfig;
 import com.hartwig.hmftools.purple.config.CommonConfig;
 import com.hartwig.hmftools.purple.config.ConfigSupplier;
 import com.hartwig.hmftools.purple.config.DriverCatalogConfig;
@@ -46,6 +56,7 @@ public class SomaticStream {
     private final MicrosatelliteIndels microsatelliteIndels;
     private final SomaticVariantDrivers drivers;
     private final SomaticVariantFactory somaticVariantFactory;
+    private final List<PurityAdjustedSomaticVariant> plotVariants = Lists.newArrayList();
 
     public SomaticStream(final ConfigSupplier configSupplier) {
         this.somaticConfig = configSupplier.somaticConfig();
@@ -93,12 +104,20 @@ public class SomaticStream {
         return drivers.build(geneCopyNumbers);
     }
 
+    @NotNull
+    public List<PurityAdjustedSomaticVariant> plotVariants() {
+        return plotVariants;
+    }
+
     public void processAndWrite(@NotNull final PurityAdjuster purityAdjuster, @NotNull final List<PurpleCopyNumber> copyNumbers,
-            @NotNull final List<FittedRegion> fittedRegions, @NotNull final List<PeakModel> somaticPeaks) throws IOException {
+            @NotNull final List<FittedRegion> fittedRegions, @NotNull final List<PeakModel> somaticPeaks,
+            @NotNull final SomaticVariantSummary summary) throws IOException {
+        final Consumer<SomaticVariant> plotConsumer = plotConsumer(summary);
         final Consumer<VariantContext> driverConsumer =
                 x -> somaticVariantFactory.createVariant(commonConfig.tumorSample(), x).ifPresent(somatic -> {
                     tumorMutationalLoad.accept(somatic);
                     drivers.add(somatic);
+                    plotConsumer.accept(somatic);
                 });
 
         if (enabled) {
@@ -135,4 +154,28 @@ public class SomaticStream {
             }
         }
     }
+
+    /**
+     * Samples the purity adjusted variants that are also held in the summary, so the plotted variants are filtered the same way as the
+     * counts used to scale them.
+     */
+    @NotNull
+    private Consumer<SomaticVariant> plotConsumer(@NotNull final SomaticVariantSummary summary) {
+        final Map<VariantType, Long> scale = new EnumMap<>(VariantType.class);
+        final Map<VariantType, Long> count = new EnumMap<>(VariantType.class);
+        for (VariantType type : new VariantType[] { VariantType.SNP, VariantType.INDEL }) {
+            scale.put(type, Downsample.scale(ChartConfig.MAX_PLOT_POINTS, summary.count(type)));
+            count.put(type, 0L);
+        }
+
+        return somatic -> {
+            final VariantType type = somatic.type();
+            if (scale.containsKey(type) && summary.contains(somatic.chromosome(), somatic.position(), type)) {
+                long index = count.put(type, count.get(type) + 1);
+                if (index % scale.get(type) == 0) {
+                    plotVariants.add(ImmutablePurityAdjustedSomaticVariantImpl.builder().from(somatic).build());
+                }
+            }
+        };
+    }
 }
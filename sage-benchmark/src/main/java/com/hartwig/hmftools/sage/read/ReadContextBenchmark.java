@@ -0,0 +1,107 @@
+package com.hartwig.hmftools.sage.read;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.hartwig.hmftools.sage.realign.Realigned;
+import com.hartwig.hmftools.sage.samtools.NumberEvents;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Runs each of the per read hot paths of read context evidence over the same synthetic reads. Reads are generated from a fixed seed
+ * so results are comparable between runs and releases.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadContextBenchmark {
+
+    private static final int READ_COUNT = 1000;
+    private static final long SEED = 1;
+    private static final int MAX_SKIPPED_REFERENCE_REGIONS = 50;
+
+    @Param({ "SNV", "DEL", "INS" })
+    public String variantType;
+
+    private ReadContext readContext;
+    private RawContextFactory rawContextFactory;
+    private SAMRecord[] records;
+    private int[] readIndexes;
+    private int[] realignDistances;
+
+    @Setup
+    public void setup() {
+        final SyntheticReads reads = new SyntheticReads(SyntheticReads.VariantType.valueOf(variantType), READ_COUNT, SEED);
+        final List<SAMRecord> recordList = reads.records();
+
+        readContext = reads.readContext();
+        rawContextFactory = new RawContextFactory(reads.variant());
+        records = recordList.toArray(new SAMRecord[0]);
+        readIndexes = new int[records.length];
+        realignDistances = new int[records.length];
+
+        // Mirrors the inputs ReadContextCounter passes to matching and realignment
+        int leftOffset = readContext.readBasesPositionIndex() - readContext.readBasesLeftCentreIndex();
+        int rightOffset = readContext.readBasesRightCentreIndex() - readContext.readBasesPositionIndex();
+        for (int i = 0; i < records.length; i++) {
+            readIndexes[i] = rawContextFactory.create(MAX_SKIPPED_REFERENCE_REGIONS, records[i]).readIndex();
+            realignDistances[i] = Math.max(indelLength(records[i]) + Math.max(leftOffset, rightOffset), Realigned.MAX_REPEAT_SIZE);
+        }
+    }
+
+    @Benchmark
+    public void matchAtPosition(final Blackhole blackhole) {
+        for (int i = 0; i < records.length; i++) {
+            blackhole.consume(readContext.matchAtPosition(readIndexes[i], records[i].getReadBases()));
+        }
+    }
+
+    @Benchmark
+    public void realignedAroundIndex(final Blackhole blackhole) {
+        for (int i = 0; i < records.length; i++) {
+            blackhole.consume(Realigned.realignedAroundIndex(readContext, readIndexes[i], records[i].getReadBases(), realignDistances[i]));
+        }
+    }
+
+    @Benchmark
+    public void rawContext(final Blackhole blackhole) {
+        for (SAMRecord record : records) {
+            blackhole.consume(rawContextFactory.create(MAX_SKIPPED_REFERENCE_REGIONS, record));
+        }
+    }
+
+    @Benchmark
+    public void numberOfEvents(final Blackhole blackhole) {
+        for (SAMRecord record : records) {
+            blackhole.consume(NumberEvents.numberOfEvents(record));
+        }
+    }
+
+    private static int indelLength(final SAMRecord record) {
+        int result = 0;
+        for (CigarElement element : record.getCigar()) {
+            if (element.getOperator().isIndel()) {
+                result += element.getLength();
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,206 @@
+package com.hartwig.hmftools.sage.read;
+
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.variant.hotspot.ImmutableVariantHotspotImpl;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.Cigar;
+import htsjdk.samtools.CigarElement;
+import htsjdk.samtools.CigarOperator;
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Reproducible reads overlapping a single variant. Reads are drawn from the ref, alt and a third allele, with a proportion of them
+ * soft clipped or carrying a sequencing error away from the variant. Indels are placed in repeats so realignment has work to do.
+ */
+class SyntheticReads {
+
+    static final int READ_LENGTH = 151;
+    static final int FLANK_SIZE = 10;
+
+    private static final int REF_LENGTH = 2000;
+    private static final int VARIANT_POSITION = 1000;
+    private static final int MIN_VARIANT_OFFSET = 20;
+    private static final byte[] BASES = { 'A', 'C', 'G', 'T' };
+
+    enum VariantType {
+        SNV,
+        DEL,
+        INS
+    }
+
+    private final Random random;
+    private final byte[] ref;
+    private final VariantHotspot variant;
+    private final VariantHotspot otherVariant;
+    private final ReadContext readContext;
+    private final List<SAMRecord> records;
+
+    SyntheticReads(@NotNull final VariantType type, int readCount, long seed) {
+        this.random = new Random(seed);
+        this.ref = randomBases(REF_LENGTH);
+
+        // Variants are anchored on a G followed by a homopolymer or dinucleotide repeat
+        ref[VARIANT_POSITION - 1] = 'G';
+        switch (type) {
+            case DEL:
+                repeat("A", 12);
+                variant = variant("GA", "G");
+                otherVariant = variant("G", "GA");
+                break;
+            case INS:
+                repeat("CA", 8);
+                variant = variant("G", "GCA");
+                otherVariant = variant("GCA", "G");
+                break;
+            default:
+                variant = variant("G", "T");
+                otherVariant = variant("G", "C");
+        }
+
+        final IndexedBases refBases = new IndexedBases(1, 0, ref);
+        final SAMRecord centred = record(variant, VARIANT_POSITION - 1 - READ_LENGTH / 2, false);
+        final int centredIndex = READ_LENGTH / 2;
+        final ReadContextFactory readContextFactory = new ReadContextFactory(FLANK_SIZE);
+        switch (type) {
+            case DEL:
+                readContext = readContextFactory.createDelContext(variant.ref(), VARIANT_POSITION, centredIndex, centred, refBases);
+                break;
+            case INS:
+                readContext = readContextFactory.createInsertContext(variant.alt(), VARIANT_POSITION, centredIndex, centred, refBases);
+                break;
+            default:
+                readContext = readContextFactory.createSNVContext(VARIANT_POSITION, centredIndex, centred, refBases);
+        }
+
+        this.records = Lists.newArrayList();
+        for (int i = 0; i < readCount; i++) {
+            int start = VARIANT_POSITION - 1 - MIN_VARIANT_OFFSET - random.nextInt(READ_LENGTH - 2 * MIN_VARIANT_OFFSET);
+            double allele = random.nextDouble();
+            final VariantHotspot readVariant = allele < 0.45 ? null : allele < 0.9 ? variant : otherVariant;
+            records.add(record(readVariant, start, true));
+        }
+    }
+
+    @NotNull
+    VariantHotspot variant() {
+        return variant;
+    }
+
+    @NotNull
+    ReadContext readContext() {
+        return readContext;
+    }
+
+    @NotNull
+    List<SAMRecord> records() {
+        return records;
+    }
+
+    @NotNull
+    private SAMRecord record(@Nullable final VariantHotspot readVariant, int start, boolean modify) {
+        final int anchorIndex = VARIANT_POSITION - 1;
+        final List<CigarElement> elements = Lists.newArrayList();
+        final byte[] bases = new byte[READ_LENGTH];
+        int nm = 0;
+
+        if (readVariant == null || readVariant.ref().length() == readVariant.alt().length()) {
+            System.arraycopy(ref, start, bases, 0, READ_LENGTH);
+            elements.add(new CigarElement(READ_LENGTH, CigarOperator.M));
+            if (readVariant != null) {
+                bases[anchorIndex - start] = (byte) readVariant.alt().charAt(0);
+                nm++;
+            }
+        } else {
+            int leftLength = anchorIndex - start + 1;
+            System.arraycopy(ref, start, bases, 0, leftLength);
+            elements.add(new CigarElement(leftLength, CigarOperator.M));
+
+            int indelLength = readVariant.alt().length() - readVariant.ref().length();
+            nm += Math.abs(indelLength);
+            int readIndex = leftLength;
+            int refIndex = anchorIndex + 1;
+            if (indelLength > 0) {
+                for (int i = 0; i < indelLength; i++) {
+                    bases[readIndex++] = (byte) readVariant.alt().charAt(i + 1);
+                }
+                elements.add(new CigarElement(indelLength, CigarOperator.I));
+            } else {
+                refIndex -= indelLength;
+                elements.add(new CigarElement(-indelLength, CigarOperator.D));
+            }
+
+            int rightLength = READ_LENGTH - readIndex;
+            System.arraycopy(ref, refIndex, bases, readIndex, rightLength);
+            elements.add(new CigarElement(rightLength, CigarOperator.M));
+        }
+
+        int alignmentStart = start + 1;
+        double modification = modify ? random.nextDouble() : 1;
+        if (modification < 0.1) {
+            // Left soft clip that stops short of the variant
+            final CigarElement first = elements.get(0);
+            int clip = Math.min(5 + random.nextInt(26), first.getLength() - 1);
+            System.arraycopy(randomBases(clip), 0, bases, 0, clip);
+            elements.set(0, new CigarElement(first.getLength() - clip, CigarOperator.M));
+            elements.add(0, new CigarElement(clip, CigarOperator.S));
+            alignmentStart += clip;
+        } else if (modification < 0.2) {
+            final CigarElement last = elements.get(elements.size() - 1);
+            int clip = Math.min(5 + random.nextInt(26), last.getLength() - 1);
+            System.arraycopy(randomBases(clip), 0, bases, READ_LENGTH - clip, clip);
+            elements.set(elements.size() - 1, new CigarElement(last.getLength() - clip, CigarOperator.M));
+            elements.add(new CigarElement(clip, CigarOperator.S));
+        } else if (modification < 0.4) {
+            // Sequencing error near the start of the read, well clear of the variant
+            int errorIndex = random.nextInt(MIN_VARIANT_OFFSET / 2);
+            bases[errorIndex] = bases[errorIndex] == 'A' ? (byte) 'C' : (byte) 'A';
+            nm++;
+        }
+
+        final SAMRecord record = new SAMRecord(null);
+        record.setAlignmentStart(alignmentStart);
+        record.setCigar(new Cigar(elements));
+        record.setReadBases(bases);
+        record.setBaseQualities(qualities());
+        record.setReadNegativeStrandFlag(random.nextBoolean());
+        record.setMappingQuality(60);
+        record.setAttribute("NM", nm);
+        return record;
+    }
+
+    @NotNull
+    private VariantHotspot variant(@NotNull final String ref, @NotNull final String alt) {
+        return ImmutableVariantHotspotImpl.builder().chromosome("1").position(VARIANT_POSITION).ref(ref).alt(alt).build();
+    }
+
+    private void repeat(@NotNull final String unit, int count) {
+        for (int i = 0; i < count * unit.length(); i++) {
+            ref[VARIANT_POSITION + i] = (byte) unit.charAt(i % unit.length());
+        }
+    }
+
+    @NotNull
+    private byte[] randomBases(int length) {
+        final byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = BASES[random.nextInt(BASES.length)];
+        }
+        return result;
+    }
+
+    @NotNull
+    private byte[] qualities() {
+        final byte[] result = new byte[READ_LENGTH];
+        for (int i = 0; i < READ_LENGTH; i++) {
+            result[i] = (byte) (25 + random.nextInt(13));
+        }
+        return result;
+    }
+}
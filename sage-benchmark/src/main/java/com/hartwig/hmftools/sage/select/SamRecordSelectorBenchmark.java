@@ -0,0 +1,90 @@
+package com.hartwig.hmftools.sage.select;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Selects the candidates overlapped by each read of a 100kb region at 100x depth. The msi dataset mimics an MSI-high sample with a
+ * candidate on most bases of each microsatellite, several of them sharing a position, on top of a background of snvs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SamRecordSelectorBenchmark {
+
+    private static final int REGION_SIZE = 100_000;
+    private static final int READ_LENGTH = 151;
+    private static final int DEPTH = 100;
+
+    @Param({ "sparse", "msi" })
+    public String dataset;
+
+    private List<GenomePosition> candidates;
+    private long[] readStarts;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(1);
+        final boolean msi = dataset.equals("msi");
+
+        candidates = Lists.newArrayList();
+        for (int position = 1; position <= REGION_SIZE; position++) {
+            if (msi && position % 200 == 0) {
+                // Microsatellite of 40 bases with up to 3 indel lengths called at each position
+                for (int repeatEnd = position + 40; position < repeatEnd; position++) {
+                    for (int i = random.nextInt(4); i > 0; i--) {
+                        candidates.add(GenomePositions.create("1", position));
+                    }
+                }
+            }
+
+            if (random.nextInt(msi ? 50 : 1000) == 0) {
+                candidates.add(GenomePositions.create("1", position));
+            }
+        }
+
+        readStarts = new long[REGION_SIZE * DEPTH / READ_LENGTH];
+        for (int i = 0; i < readStarts.length; i++) {
+            readStarts[i] = 1 + random.nextInt(REGION_SIZE);
+        }
+        Arrays.sort(readStarts);
+    }
+
+    @Benchmark
+    public void positionSelector(final Blackhole blackhole) {
+        final PositionSelector<GenomePosition> selector = new PositionSelector<>(candidates);
+        for (long readStart : readStarts) {
+            selector.select(readStart, readStart + READ_LENGTH - 1, blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public void samRecordSelector(final Blackhole blackhole) {
+        final SamRecordSelector<GenomePosition> selector = new SamRecordSelector<>(candidates);
+        for (long readStart : readStarts) {
+            selector.select(readStart, readStart + READ_LENGTH - 1, blackhole::consume);
+        }
+    }
+}
@@ -32,9 +32,13 @@ import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotFile;
 import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.pipeline.ChromosomePipeline;
+import com.hartwig.hmftools.sage.pipeline.GenomePipeline;
 import com.hartwig.hmftools.sage.quality.QualityRecalibration;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationFile;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationRecord;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.vcf.SageCheckpoint;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
 
 import org.apache.commons.cli.CommandLine;
@@ -46,6 +50,7 @@ import org.apache.commons.cli.ParseException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import htsjdk.samtools.SAMSequenceDictionary;
 import htsjdk.samtools.SAMSequenceRecord;
@@ -62,6 +67,9 @@ public class SageApplication implements AutoCloseable {
     private final SageConfig config;
     private final ExecutorService executorService;
     private final IndexedFastaSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
+    @Nullable
+    private final SageCheckpoint checkpoint;
 
     private final ListMultimap<Chromosome, GenomeRegion> panel;
     private final ListMultimap<Chromosome, VariantHotspot> hotspots;
@@ -93,6 +101,11 @@ public class SageApplication implements AutoCloseable {
         final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("SAGE-%d").build();
         executorService = Executors.newFixedThreadPool(config.threads(), namedThreadFactory);
         refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
+        samReaderPool = new SamReaderPool(config.refGenome());
+        checkpoint = config.checkpoint() ? new SageCheckpoint(config) : null;
+        if (checkpoint != null) {
+            LOGGER.info("Checkpointing to directory: {}", config.checkpointDir());
+        }
 
         vcf = new SageVCF(refGenome, config);
         LOGGER.info("Writing to file: {}", config.outputFile());
@@ -104,16 +117,22 @@ public class SageApplication implements AutoCloseable {
 
         final Map<String, QualityRecalibrationMap> recalibrationMap = qualityRecalibration();
         final SAMSequenceDictionary dictionary = dictionary();
-        for (final SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
-            final String contig = samSequenceRecord.getSequenceName();
-            if (config.chromosomes().isEmpty() || config.chromosomes().contains(contig)) {
-                if (HumanChromosome.contains(contig) || MitochondrialChromosome.contains(contig)) {
-                    try (final ChromosomePipeline pipeline = createChromosomePipeline(contig, recalibrationMap)) {
-                        pipeline.process();
+        final List<ChromosomePipeline> chromosomePipelines = Lists.newArrayList();
+        try {
+            for (final SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
+                final String contig = samSequenceRecord.getSequenceName();
+                if (config.chromosomes().isEmpty() || config.chromosomes().contains(contig)) {
+                    if (HumanChromosome.contains(contig) || MitochondrialChromosome.contains(contig)) {
+                        chromosomePipelines.add(createChromosomePipeline(contig, recalibrationMap));
                     }
-                    System.gc();
                 }
             }
+
+            new GenomePipeline(config.maxRegionsInFlight()).process(chromosomePipelines);
+        } finally {
+            for (ChromosomePipeline chromosomePipeline : chromosomePipelines) {
+                chromosomePipeline.close();
+            }
         }
 
 //                createChromosomePipeline("10", recalibrationMap).process(130404941, 130405950);
@@ -141,6 +160,8 @@ public class SageApplication implements AutoCloseable {
                 panel.get(chromosome),
                 highConfidence.get(chromosome),
                 qualityRecalibrationMap,
+                samReaderPool,
+                checkpoint,
                 vcf::write);
     }
 
@@ -149,6 +170,7 @@ public class SageApplication implements AutoCloseable {
         vcf.close();
         refGenome.close();
         executorService.shutdown();
+        samReaderPool.close();
     }
 
     @NotNull
@@ -216,12 +238,15 @@ public class SageApplication implements AutoCloseable {
         final Map<String, QualityRecalibrationMap> result = Maps.newHashMap();
         LOGGER.info("Beginning quality recalibration");
 
-        final QualityRecalibration qualityRecalibration = new QualityRecalibration(bqrConfig, executorService, refGenome);
+        final QualityRecalibration qualityRecalibration = new QualityRecalibration(bqrConfig, executorService, refGenome, samReaderPool);
         final List<CompletableFuture<Void>> done = Lists.newArrayList();
 
         final BiFunction<String, String, CompletableFuture<Void>> processSample =
-                (sample, sampleBam) -> qualityRecalibration.qualityRecalibrationRecords(sampleBam).thenAccept(records -> {
+                (sample, sampleBam) -> qualityRecalibrationRecords(qualityRecalibration, sample, sampleBam).thenAccept(records -> {
                     try {
+                        if (checkpoint != null) {
+                            checkpoint.qualityRecalibration(sample, records);
+                        }
 
                         final String tsvFile = config.baseQualityRecalibrationFile(sample);
                         QualityRecalibrationFile.write(tsvFile, records);
@@ -249,6 +274,23 @@ public class SageApplication implements AutoCloseable {
         return result;
     }
 
+    @NotNull
+    private CompletableFuture<List<QualityRecalibrationRecord>> qualityRecalibrationRecords(
+            @NotNull final QualityRecalibration qualityRecalibration, @NotNull final String sample, @NotNull final String sampleBam) {
+        if (checkpoint != null) {
+            try {
+                final List<QualityRecalibrationRecord> checkpointRecords = checkpoint.qualityRecalibration(sample);
+                if (checkpointRecords != null) {
+                    return CompletableFuture.completedFuture(checkpointRecords);
+                }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }
+
+        return qualityRecalibration.qualityRecalibrationRecords(sampleBam);
+    }
+
     private Map<String, QualityRecalibrationMap> disableQualityRecalibration() {
         final Map<String, QualityRecalibrationMap> result = Maps.newHashMap();
 
@@ -1,16 +1,25 @@
 package com.hartwig.hmftools.sage;
 
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
 import java.io.File;
 import java.io.IOException;
-import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.hartwig.hmftools.common.genome.region.BEDFileLoader;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.HotspotEvidence;
@@ -23,6 +32,7 @@ import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotEvidence;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotEvidenceFactory;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotFile;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -36,13 +46,14 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
 import htsjdk.samtools.reference.IndexedFastaSequenceFile;
 
 public class SageHotspotApplication implements AutoCloseable {
 
     private static final Logger LOGGER = LogManager.getLogger(SageHotspotApplication.class);
 
+    private static final int CHUNKS_PER_THREAD = 4;
+
     public static void main(String[] args) throws IOException {
         final Options options = SageHotspotApplicationConfig.createOptions();
         try (final SageHotspotApplication application = new SageHotspotApplication(options, args)) {
@@ -55,8 +66,8 @@ public class SageHotspotApplication implements AutoCloseable {
         }
     }
 
-    private final SamReader tumorReader;
-    private final SamReader referenceReader;
+    private final SamReaderPool samReaderPool;
+    private final ExecutorService executorService;
     private final SageHotspotApplicationConfig config;
 
     private SageHotspotApplication(final Options options, final String... args) throws ParseException {
@@ -64,9 +75,9 @@ public class SageHotspotApplication implements AutoCloseable {
         final CommandLine cmd = createCommandLine(args, options);
         config = SageHotspotApplicationConfig.createConfig(cmd);
 
-        final File refGenomeFile = new File(config.refGenomePath());
-        tumorReader = SamReaderFactory.makeDefault().referenceSequence(refGenomeFile).open(new File(config.tumorBamPath()));
-        referenceReader = SamReaderFactory.makeDefault().referenceSequence(refGenomeFile).open(new File(config.referenceBamPath()));
+        samReaderPool = new SamReaderPool(config.refGenomePath());
+        final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("SAGE-%d").build();
+        executorService = Executors.newFixedThreadPool(config.threads(), namedThreadFactory);
     }
 
     private void run() throws IOException {
@@ -80,28 +91,44 @@ public class SageHotspotApplication implements AutoCloseable {
         final int minMappingQuality = config.minMappingQuality();
         final int minBaseQuality = config.minBaseQuality();
 
-        final File refGenomeFile = new File(config.refGenomePath());
-        final IndexedFastaSequenceFile refSequence = new IndexedFastaSequenceFile(refGenomeFile);
-
         LOGGER.info("Loading coding regions from {}", codingRegionBedFile);
-        final Collection<GenomeRegion> codingRegions = BEDFileLoader.fromBedFile(codingRegionBedFile).values();
+        final List<GenomeRegion> codingRegions = Lists.newArrayList(BEDFileLoader.fromBedFile(codingRegionBedFile).values());
+        Collections.sort(codingRegions);
 
         LOGGER.info("Loading known hotspots from {}", hotspotPath);
         final Set<VariantHotspot> knownHotspots = Sets.newHashSet(VariantHotspotFile.read(hotspotPath).values());
 
+        // Reads overlapping an inframe indel are always sliced by the chunk containing its coding region so chunks never miss indels
         LOGGER.info("Looking for potential inframe indel locations ");
+        final List<CompletableFuture<Set<VariantHotspot>>> inframeIndels = Lists.newArrayList();
+        for (List<GenomeRegion> chunk : chunks(codingRegions)) {
+            inframeIndels.add(submit(tumorBam, (refSequence, samReader) -> {
+                final InframeIndelHotspots inframeIndelHotspots = new InframeIndelHotspots(minMappingQuality, chunk, refSequence);
+                return inframeIndelHotspots.findInframeIndels(samReader);
+            }));
+        }
+
         final Set<VariantHotspot> allHotspots = Sets.newHashSet();
         allHotspots.addAll(knownHotspots);
-        allHotspots.addAll(new InframeIndelHotspots(minMappingQuality, codingRegions, refSequence).findInframeIndels(tumorReader));
-
-        LOGGER.info("Looking for evidence of hotspots in tumor bam {}", tumorBam);
-        final VariantHotspotEvidenceFactory hotspotEvidenceFactory =
-                new VariantHotspotEvidenceFactory(minMappingQuality, minBaseQuality, allHotspots);
-        final Map<VariantHotspot, VariantHotspotEvidence> tumorEvidence = asMap(hotspotEvidenceFactory.evidence(refSequence, tumorReader));
+        inframeIndels.forEach(x -> allHotspots.addAll(x.join()));
+
+        // Evidence of a hotspot only depends on reads overlapping it so each chunk of hotspots is independent
+        final List<VariantHotspot> sortedHotspots = Lists.newArrayList(allHotspots);
+        Collections.sort(sortedHotspots);
+        final List<List<VariantHotspot>> hotspotChunks = chunks(sortedHotspots);
+
+        LOGGER.info("Looking for evidence of hotspots in tumor bam {} and reference bam {}", tumorBam, referenceBam);
+        final List<CompletableFuture<List<VariantHotspotEvidence>>> tumorChunks = Lists.newArrayList();
+        final List<CompletableFuture<List<VariantHotspotEvidence>>> referenceChunks = Lists.newArrayList();
+        for (List<VariantHotspot> chunk : hotspotChunks) {
+            final VariantHotspotEvidenceFactory hotspotEvidenceFactory =
+                    new VariantHotspotEvidenceFactory(minMappingQuality, minBaseQuality, Sets.newHashSet(chunk));
+            tumorChunks.add(submit(tumorBam, hotspotEvidenceFactory::evidence));
+            referenceChunks.add(submit(referenceBam, hotspotEvidenceFactory::evidence));
+        }
 
-        LOGGER.info("Looking for evidence of hotspots in reference bam {}", referenceBam);
-        final Map<VariantHotspot, VariantHotspotEvidence> referenceEvidence =
-                asMap(hotspotEvidenceFactory.evidence(refSequence, referenceReader));
+        final Map<VariantHotspot, VariantHotspotEvidence> tumorEvidence = asMap(join(tumorChunks));
+        final Map<VariantHotspot, VariantHotspotEvidence> referenceEvidence = asMap(join(referenceChunks));
 
         final List<HotspotEvidence> evidence = Lists.newArrayList();
         for (Map.Entry<VariantHotspot, VariantHotspotEvidence> entry : tumorEvidence.entrySet()) {
@@ -112,7 +139,7 @@ public class SageHotspotApplication implements AutoCloseable {
         }
 
         LOGGER.info("Writing output to {}", outputVCF);
-        Collections.sort(evidence);
+        evidence.sort(Comparator.<HotspotEvidence>naturalOrder().thenComparing(HotspotEvidence::ref).thenComparing(HotspotEvidence::alt));
         new HotspotEvidenceVCF(referenceSample,
                 tumorSample,
                 config.maxHetBinomialLikelihood(),
@@ -124,6 +151,35 @@ public class SageHotspotApplication implements AutoCloseable {
 
     }
 
+    @NotNull
+    private <T> CompletableFuture<T> submit(@NotNull final String bamFile,
+            @NotNull final BiFunction<IndexedFastaSequenceFile, SamReader, T> task) {
+        return supplyAsync(() -> {
+            try (IndexedFastaSequenceFile refSequence = new IndexedFastaSequenceFile(new File(config.refGenomePath()))) {
+                return task.apply(refSequence, samReaderPool.reader(bamFile));
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executorService);
+    }
+
+    @NotNull
+    private <T> List<List<T>> chunks(@NotNull final List<T> sorted) {
+        if (sorted.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final int chunks = config.threads() * CHUNKS_PER_THREAD;
+        return Lists.partition(sorted, (sorted.size() + chunks - 1) / chunks);
+    }
+
+    @NotNull
+    private static <T> List<T> join(@NotNull final List<CompletableFuture<List<T>>> futures) {
+        final List<T> result = Lists.newArrayList();
+        futures.forEach(x -> result.addAll(x.join()));
+        return result;
+    }
+
     @NotNull
     private static Map<VariantHotspot, VariantHotspotEvidence> asMap(@NotNull final List<VariantHotspotEvidence> evidence) {
         return evidence.stream().collect(Collectors.toMap(x -> ImmutableVariantHotspotImpl.builder().from(x).build(), x -> x));
@@ -155,8 +211,8 @@ public class SageHotspotApplication implements AutoCloseable {
 
     @Override
     public void close() throws IOException {
-        tumorReader.close();
-        referenceReader.close();
+        executorService.shutdown();
+        samReaderPool.close();
         LOGGER.info("Complete");
     }
 }
@@ -27,6 +27,7 @@ public interface SageHotspotApplicationConfig {
     String REFERENCE_BAM = "reference_bam";
     String CODING_REGIONS = "coding_regions";
     String KNOWN_HOTSPOTS = "known_hotspots";
+    String THREADS = "threads";
 
     String MIN_SNV_VAF = "min_snv_vaf";
     String MIN_INDEL_VAF = "min_indel_vaf";
@@ -38,6 +39,7 @@ public interface SageHotspotApplicationConfig {
     String MIN_MAPPING_QUALITY = "min_mapping_quality";
     String MAX_HET_BINOMIAL_LIKELIHOOD = "max_het_binomial_likelihood";
 
+    int DEFAULT_THREADS = 2;
     int DEFAULT_MIN_TUMOR_READS = 2;
     int DEFAULT_MIN_BASE_QUALITY = 13;
     int DEFAULT_MIN_MAPPING_QUALITY = 1;
@@ -61,6 +63,7 @@ public interface SageHotspotApplicationConfig {
         options.addOption(CODING_REGIONS, true, "Coding regions bed file to search for inframe indels");
         options.addOption(MIN_BASE_QUALITY, true, "Minimum quality for a base to be considered [" + DEFAULT_MIN_BASE_QUALITY + "]");
         options.addOption(REF_GENOME, true, "Path to the ref genome fasta file");
+        options.addOption(THREADS, true, "Number of threads [" + DEFAULT_THREADS + "]");
 
         options.addOption(MAX_HET_BINOMIAL_LIKELIHOOD,
                 true,
@@ -112,6 +115,8 @@ public interface SageHotspotApplicationConfig {
     @NotNull
     String knownHotspotPath();
 
+    int threads();
+
     int minTumorReads();
 
     int minSnvQuality();
@@ -154,6 +159,7 @@ public interface SageHotspotApplicationConfig {
                 .codingRegionBedPath(codingRegions)
                 .referenceBamPath(referenceBamPath)
                 .knownHotspotPath(knownHotspotPath)
+                .threads(defaultIntValue(cmd, THREADS, DEFAULT_THREADS))
                 .minTumorReads(defaultIntValue(cmd, MIN_TUMOR_READS, DEFAULT_MIN_TUMOR_READS))
                 .minBaseQuality(defaultIntValue(cmd, MIN_BASE_QUALITY, DEFAULT_MIN_BASE_QUALITY))
                 .minSnvVAF(defaultDoubleValue(cmd, MIN_SNV_VAF, DEFAULT_MIN_SNV_VAF))
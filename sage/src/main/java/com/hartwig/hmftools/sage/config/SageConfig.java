@@ -51,6 +51,9 @@ public interface SageConfig {
     String SLICE_SIZE = "slice_size";
     String MNV = "mnv_enabled";
     String READ_CONTEXT_FLANK_SIZE = "read_context_flank_size";
+    String SINGLE_PASS = "single_pass";
+    String ADAPTIVE_SLICE = "adaptive_slice";
+    String CHECKPOINT_DIR = "checkpoint_dir";
 
     int DEFAULT_THREADS = 2;
     int DEFAULT_MIN_MAP_QUALITY = 10;
@@ -76,6 +79,7 @@ public interface SageConfig {
         options.addOption(MIN_MAP_QUALITY, true, "Min map quality to apply to non-hotspot variants [" + DEFAULT_MIN_MAP_QUALITY + "]");
         options.addOption(CHR, true, "Run for single chromosome");
         options.addOption(SLICE_SIZE, true, "Slice size [" + DEFAULT_SLICE_SIZE + "]");
+        options.addOption(ADAPTIVE_SLICE, false, "Size slices by estimated bam index cost rather than fixed slice size");
         options.addOption(READ_CONTEXT_FLANK_SIZE, true, "Size of read context flank [" + DEFAULT_READ_CONTEXT_FLANK_SIZE + "]");
 
         options.addOption(MAX_READ_DEPTH, true, "Max depth to look for evidence [" + DEFAULT_MAX_READ_DEPTH + "]");
@@ -84,6 +88,8 @@ public interface SageConfig {
         options.addOption(HIGH_CONFIDENCE_BED, true, "High confidence regions bed file");
         options.addOption(PANEL_BED, true, "Panel regions bed file");
         options.addOption(PANEL_ONLY, false, "Only examine panel for variants");
+        options.addOption(SINGLE_PASS, false, "Read tumor bams once per region, buffering records in memory");
+        options.addOption(CHECKPOINT_DIR, true, "Directory to checkpoint completed chromosomes to and resume from [optional]");
         options.addOption(HOTSPOTS, true, "Hotspots");
         FilterConfig.createOptions().getOptions().forEach(options::addOption);
         QualityConfig.createOptions().getOptions().forEach(options::addOption);
@@ -132,6 +138,8 @@ public interface SageConfig {
 
     boolean panelOnly();
 
+    boolean singlePass();
+
     boolean mnvEnabled();
 
     @NotNull
@@ -155,6 +163,19 @@ public interface SageConfig {
 
     int regionSliceSize();
 
+    boolean adaptiveSlice();
+
+    @NotNull
+    String checkpointDir();
+
+    default boolean checkpoint() {
+        return !checkpointDir().isEmpty();
+    }
+
+    default int maxRegionsInFlight() {
+        return 4 * threads();
+    }
+
     int minMapQuality();
 
     int maxRealignmentDepth();
@@ -251,6 +272,7 @@ public interface SageConfig {
                 .mnvEnabled(defaultBooleanValue(cmd, MNV, DEFAULT_MNV))
                 .refGenome(cmd.getOptionValue(REF_GENOME))
                 .regionSliceSize(defaultIntValue(cmd, SLICE_SIZE, DEFAULT_SLICE_SIZE))
+                .adaptiveSlice(Configs.containsFlag(cmd, ADAPTIVE_SLICE))
                 .readContextFlankSize(defaultIntValue(cmd, READ_CONTEXT_FLANK_SIZE, DEFAULT_READ_CONTEXT_FLANK_SIZE))
                 .minMapQuality(defaultIntValue(cmd, MIN_MAP_QUALITY, DEFAULT_MIN_MAP_QUALITY))
                 .maxReadDepth(defaultIntValue(cmd, MAX_READ_DEPTH, DEFAULT_MAX_READ_DEPTH))
@@ -263,6 +285,8 @@ public interface SageConfig {
                 .qualityConfig(QualityConfig.createConfig(cmd))
                 .baseQualityRecalibrationConfig(BaseQualityRecalibrationConfig.createConfig(cmd))
                 .panelOnly(Configs.containsFlag(cmd, PANEL_ONLY))
+                .singlePass(Configs.containsFlag(cmd, SINGLE_PASS))
+                .checkpointDir(cmd.getOptionValue(CHECKPOINT_DIR, Strings.EMPTY))
                 .build();
     }
 }
@@ -1,11 +1,11 @@
 package com.hartwig.hmftools.sage.context;
 
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
+import com.google.common.collect.Lists;
 import com.google.common.primitives.Longs;
 import com.hartwig.hmftools.common.genome.position.GenomePosition;
 import com.hartwig.hmftools.sage.read.ReadContext;
@@ -18,21 +18,26 @@ public class RefContext implements GenomePosition {
     private final String chromosome;
     private final int maxDepth;
     private final long position;
-    private final Map<String, AltContext> alts;
+    private final List<AltContext> alts;
 
     private int rawDepth;
 
     public RefContext(final String sample, final String chromosome, final long position, final int maxDepth) {
+        this(sample, chromosome, position, maxDepth, 0);
+    }
+
+    public RefContext(final String sample, final String chromosome, final long position, final int maxDepth, final int rawDepth) {
         this.sample = sample;
         this.chromosome = chromosome;
         this.position = position;
         this.maxDepth = maxDepth;
-        this.alts = new HashMap<>();
+        this.rawDepth = rawDepth;
+        this.alts = Lists.newArrayListWithCapacity(2);
     }
 
     @NotNull
     public Collection<AltContext> alts() {
-        return alts.values();
+        return alts;
     }
 
     public boolean reachedLimit() {
@@ -96,8 +101,16 @@ public class RefContext implements GenomePosition {
 
     @NotNull
     private AltContext altContext(@NotNull final String ref, @NotNull final String alt) {
-        final String refAltKey = ref + "|" + alt;
-        return alts.computeIfAbsent(refAltKey, key -> new AltContext(this, ref, alt));
+        // Rarely more than a couple of alts per position so a linear scan beats hashing a composite key
+        for (AltContext altContext : alts) {
+            if (altContext.ref().equals(ref) && altContext.alt().equals(alt)) {
+                return altContext;
+            }
+        }
+
+        final AltContext altContext = new AltContext(this, ref, alt);
+        alts.add(altContext);
+        return altContext;
     }
 
 }
@@ -29,6 +29,14 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
 
     private static final Logger LOGGER = LogManager.getLogger(RefContextConsumer.class);
 
+    private static final String[] SINGLE_BASES = new String[256];
+
+    static {
+        for (int i = 0; i < SINGLE_BASES.length; i++) {
+            SINGLE_BASES[i] = String.valueOf((char) i);
+        }
+    }
+
     private final SageConfig config;
     private final GenomeRegion bounds;
     private final RefSequence refGenome;
@@ -122,12 +130,12 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
         int refIndex = refBases.index(refPosition);
 
         if (refPosition <= bounds.end() && refPosition >= bounds.start()) {
-            final String ref = new String(refBases.bases(), refIndex, 1);
-            final String alt = new String(record.getReadBases(), readIndex, e.getLength() + 1);
-            boolean findReadContext = findReadContext(readIndex, record);
+            if (!candidates.reachedLimit(record.getContig(), refPosition)) {
+                final String ref = base(refBases.bases()[refIndex]);
+                final String alt = new String(record.getReadBases(), readIndex, e.getLength() + 1);
+                boolean findReadContext = findReadContext(readIndex, record);
 
-            final RefContext refContext = candidates.refContext(record.getContig(), refPosition);
-            if (!refContext.reachedLimit()) {
+                final RefContext refContext = candidates.refContext(record.getContig(), refPosition);
                 final int baseQuality = baseQuality(readIndex, record, alt.length());
                 final ReadContext readContext =
                         findReadContext ? readContextFactory.createInsertContext(alt, refPosition, readIndex, record, refBases) : null;
@@ -144,12 +152,12 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
         int refIndex = refBases.index(refPosition);
 
         if (refPosition <= bounds.end() && refPosition >= bounds.start()) {
-            final String ref = new String(refBases.bases(), refIndex, e.getLength() + 1);
-            final String alt = new String(record.getReadBases(), readIndex, 1);
-            boolean findReadContext = findReadContext(readIndex, record);
+            if (!candidates.reachedLimit(record.getContig(), refPosition)) {
+                final String ref = new String(refBases.bases(), refIndex, e.getLength() + 1);
+                final String alt = base(record.getReadBases()[readIndex]);
+                boolean findReadContext = findReadContext(readIndex, record);
 
-            final RefContext refContext = candidates.refContext(record.getContig(), refPosition);
-            if (!refContext.reachedLimit()) {
+                final RefContext refContext = candidates.refContext(record.getContig(), refPosition);
                 final int baseQuality = baseQuality(readIndex, record, 2);
                 final ReadContext readContext =
                         findReadContext ? readContextFactory.createDelContext(ref, refPosition, readIndex, record, refBases) : null;
@@ -178,16 +186,16 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
                 continue;
             }
 
-            final byte refByte = refBases.bases()[refBaseIndex];
-            final String ref = String.valueOf((char) refByte);
-            final byte readByte = record.getReadBases()[readBaseIndex];
-            boolean findReadContext = findReadContext(readBaseIndex, record);
-
-            final RefContext refContext = candidates.refContext(record.getContig(), refPosition);
-            if (!refContext.reachedLimit()) {
-                int baseQuality = record.getBaseQualities()[readBaseIndex];
+            if (!candidates.reachedLimit(record.getContig(), refPosition)) {
+                final byte refByte = refBases.bases()[refBaseIndex];
+                final byte readByte = record.getReadBases()[readBaseIndex];
                 if (readByte != refByte) {
-                    final String alt = String.valueOf((char) readByte);
+                    int baseQuality = record.getBaseQualities()[readBaseIndex];
+                    boolean findReadContext = findReadContext(readBaseIndex, record);
+
+                    final RefContext refContext = candidates.refContext(record.getContig(), refPosition);
+                    final String ref = base(refByte);
+                    final String alt = base(readByte);
                     final ReadContext readContext =
                             findReadContext ? readContextFactory.createSNVContext(refPosition, readBaseIndex, record, refBases) : null;
 
@@ -219,7 +227,7 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
                         }
                     }
                 } else {
-                    refContext.refRead();
+                    candidates.refRead(record.getContig(), refPosition);
                 }
             }
         }
@@ -266,10 +274,12 @@ public class RefContextConsumer implements Consumer<SAMRecord> {
         int alignmentStart = record.getAlignmentStart();
         int alignmentEnd = record.getAlignmentEnd();
 
-        RefContext startRefContext = candidates.refContext(bounds.chromosome(), alignmentStart);
-        RefContext endRefContext = candidates.refContext(bounds.chromosome(), alignmentEnd);
+        return candidates.reachedLimit(bounds.chromosome(), alignmentStart) && candidates.reachedLimit(bounds.chromosome(), alignmentEnd);
+    }
 
-        return startRefContext.reachedLimit() && endRefContext.reachedLimit();
+    @NotNull
+    private static String base(byte base) {
+        return SINGLE_BASES[base & 0xFF];
     }
 
 }
@@ -2,7 +2,6 @@ package com.hartwig.hmftools.sage.context;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.function.Consumer;
 import java.util.function.Predicate;
 
 import com.google.common.collect.Lists;
@@ -10,51 +9,122 @@ import com.hartwig.hmftools.common.genome.chromosome.MitochondrialChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.config.SageConfig;
-import com.hartwig.hmftools.sage.count.EvictingArray;
 import com.hartwig.hmftools.sage.select.HotspotSelector;
 import com.hartwig.hmftools.sage.select.PanelSelector;
 
 import org.jetbrains.annotations.NotNull;
 
+/**
+ * Tracks depth of a rolling window of positions in primitive arrays. A RefContext is only created for positions with an alt read,
+ * so the vast majority of positions which match the reference never allocate anything.
+ */
 public class RefContextFactory {
 
+    private static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+
     private final SageConfig config;
     private final String sample;
-    private final EvictingArray<RefContext> rollingCandidates;
     private final PanelSelector<GenomeRegion> panelSelector;
+    private final Predicate<AltContext> altContextPredicate;
     private final List<AltContext> savedCandidates = Lists.newArrayList();
 
+    private final int[] rawDepth = new int[CAPACITY];
+    private final int[] maxDepth = new int[CAPACITY];
+    private final RefContext[] refContexts = new RefContext[CAPACITY];
+    private long minPosition = 0;
+    private int minPositionIndex = 0;
+
     public RefContextFactory(@NotNull final SageConfig config, @NotNull final String sample, final List<VariantHotspot> hotspots,
             final List<GenomeRegion> panel) {
         this.sample = sample;
         this.config = config;
         this.panelSelector = new PanelSelector<>(panel);
-        final Predicate<AltContext> altContextPredicate = config.filter().altContextFilter(new HotspotSelector(hotspots));
-        final Consumer<RefContext> evictionHandler = (refContext) -> {
-            refContext.alts()
-                    .stream()
-                    .filter(AltContext::finaliseAndValidate)
-                    .filter(this::refPredicate)
-                    .filter(altContextPredicate)
-                    .forEach(savedCandidates::add);
-        };
-
-        this.rollingCandidates = new EvictingArray<>(256, evictionHandler);
+        this.altContextPredicate = config.filter().altContextFilter(new HotspotSelector(hotspots));
+    }
+
+    public boolean reachedLimit(@NotNull final String chromosome, final long position) {
+        int index = index(chromosome, position);
+        final RefContext refContext = refContexts[index];
+        return refContext == null ? rawDepth[index] >= maxDepth[index] : refContext.reachedLimit();
+    }
+
+    public void refRead(@NotNull final String chromosome, final long position) {
+        int index = index(chromosome, position);
+        final RefContext refContext = refContexts[index];
+        if (refContext == null) {
+            rawDepth[index]++;
+        } else {
+            refContext.refRead();
+        }
     }
 
     @NotNull
     public RefContext refContext(@NotNull final String chromosome, final long position) {
-        int maxDepth = maxReadDepth(chromosome, position);
-        return rollingCandidates.computeIfAbsent(position, aLong -> new RefContext(sample, chromosome, position, maxDepth));
+        int index = index(chromosome, position);
+        RefContext refContext = refContexts[index];
+        if (refContext == null) {
+            refContext = new RefContext(sample, chromosome, position, maxDepth[index], rawDepth[index]);
+            refContexts[index] = refContext;
+        }
+
+        return refContext;
     }
 
     @NotNull
     public List<AltContext> altContexts() {
-        rollingCandidates.evictAll();
+        flush(CAPACITY);
         Collections.sort(savedCandidates);
         return savedCandidates;
     }
 
+    private int index(@NotNull final String chromosome, final long position) {
+        if (minPosition == 0) {
+            minPosition = position - CAPACITY + 1;
+        }
+
+        long distanceFromMinPosition = position - minPosition;
+        if (distanceFromMinPosition < 0) {
+            throw new IllegalArgumentException("Cannot add position: " + position + " before min position: " + minPosition);
+        }
+
+        if (distanceFromMinPosition >= CAPACITY) {
+            flush((int) Math.min(CAPACITY, distanceFromMinPosition - CAPACITY + 1));
+            minPosition = Math.max(minPosition, position - CAPACITY + 1);
+            distanceFromMinPosition = position - minPosition;
+        }
+
+        int index = (minPositionIndex + (int) distanceFromMinPosition) & MASK;
+        if (maxDepth[index] == 0) {
+            maxDepth[index] = maxReadDepth(chromosome, position);
+        }
+
+        return index;
+    }
+
+    private void flush(int count) {
+        for (int i = 0; i < count; i++) {
+            final RefContext refContext = refContexts[minPositionIndex];
+            if (refContext != null) {
+                evict(refContext);
+                refContexts[minPositionIndex] = null;
+            }
+
+            rawDepth[minPositionIndex] = 0;
+            maxDepth[minPositionIndex] = 0;
+            minPosition++;
+            minPositionIndex = (minPositionIndex + 1) & MASK;
+        }
+    }
+
+    private void evict(@NotNull final RefContext refContext) {
+        for (AltContext altContext : refContext.alts()) {
+            if (altContext.finaliseAndValidate() && refPredicate(altContext) && altContextPredicate.test(altContext)) {
+                savedCandidates.add(altContext);
+            }
+        }
+    }
+
     private int maxReadDepth(final String chromosome, final long position) {
         return MitochondrialChromosome.contains(chromosome) || panelSelector.inPanel(position, position)
                 ? config.maxReadDepthPanel()
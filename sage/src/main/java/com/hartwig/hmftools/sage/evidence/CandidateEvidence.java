@@ -1,6 +1,5 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
 import java.util.List;
 import java.util.concurrent.CompletionException;
 import java.util.function.Consumer;
@@ -13,6 +12,7 @@ import com.hartwig.hmftools.sage.context.AltContext;
 import com.hartwig.hmftools.sage.context.RefContextConsumer;
 import com.hartwig.hmftools.sage.context.RefContextFactory;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 
@@ -22,9 +22,6 @@ import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class CandidateEvidence {
 
@@ -33,16 +30,16 @@ public class CandidateEvidence {
     private final SageConfig config;
     private final List<VariantHotspot> hotspots;
     private final List<GenomeRegion> panel;
-    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final SamSlicerFactory samSlicerFactory;
 
     public CandidateEvidence(@NotNull final SageConfig config, @NotNull final List<VariantHotspot> hotspots, final List<GenomeRegion> panel,
-            @NotNull final SamSlicerFactory samSlicerFactory, @NotNull final ReferenceSequenceFile refGenome) {
+            @NotNull final SamSlicerFactory samSlicerFactory, @NotNull final SamReaderPool samReaderPool) {
         this.config = config;
         this.panel = panel;
         this.samSlicerFactory = samSlicerFactory;
         this.hotspots = hotspots;
-        this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
     }
 
     @NotNull
@@ -55,6 +52,20 @@ public class CandidateEvidence {
         return get(bamFile, bounds, refContextConsumer, candidates);
     }
 
+    @NotNull
+    public List<AltContext> get(@NotNull final String sample, @NotNull final List<SAMRecord> records,
+            @NotNull final RefSequence refSequence, @NotNull final GenomeRegion bounds) {
+
+        LOGGER.debug("Variant candidates {} position {}:{}", sample, bounds.chromosome(), bounds.start());
+        final RefContextFactory candidates = new RefContextFactory(config, sample, hotspots, panel);
+        final RefContextConsumer refContextConsumer = new RefContextConsumer(config, bounds, refSequence, candidates);
+
+        final SamSlicer slicer = samSlicerFactory.create(bounds);
+        slicer.slice(records, refContextConsumer);
+
+        return Lists.newArrayList(candidates.altContexts());
+    }
+
     @NotNull
     private List<AltContext> get(@NotNull final String bamFile, @NotNull final GenomeRegion bounds,
             @NotNull final Consumer<SAMRecord> recordConsumer, @NotNull final RefContextFactory candidates) {
@@ -62,9 +73,8 @@ public class CandidateEvidence {
 
 
         final SamSlicer slicer = samSlicerFactory.create(bounds);
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bamFile))) {
+        try {
+            final SamReader tumorReader = samReaderPool.reader(bamFile);
 
             // First parse
             slicer.slice(tumorReader, recordConsumer);
@@ -1,10 +1,8 @@
 package com.hartwig.hmftools.sage.evidence;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
@@ -13,6 +11,7 @@ import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounterFactory;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.sam.SamSlicer;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.samtools.NumberEvents;
@@ -22,10 +21,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
-import htsjdk.samtools.SamReader;
-import htsjdk.samtools.SamReaderFactory;
-import htsjdk.samtools.cram.ref.ReferenceSource;
-import htsjdk.samtools.reference.ReferenceSequenceFile;
+import htsjdk.samtools.SAMRecord;
 
 public class ReadContextEvidence {
 
@@ -35,15 +31,15 @@ public class ReadContextEvidence {
     private final int typicalReadLength;
     private final SageConfig sageConfig;
     private final SamSlicerFactory samSlicerFactory;
-    private final ReferenceSequenceFile refGenome;
+    private final SamReaderPool samReaderPool;
     private final ReadContextCounterFactory factory;
 
     public ReadContextEvidence(@NotNull final SageConfig config, @NotNull final SamSlicerFactory samSlicerFactory,
-            @NotNull final ReferenceSequenceFile refGenome, final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
+            @NotNull final SamReaderPool samReaderPool, final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
         this.minQuality = config.minMapQuality();
         this.sageConfig = config;
         this.samSlicerFactory = samSlicerFactory;
-        this.refGenome = refGenome;
+        this.samReaderPool = samReaderPool;
         this.factory = new ReadContextCounterFactory(config, qualityRecalibrationMap);
         this.typicalReadLength = config.typicalReadLength();
     }
@@ -57,32 +53,46 @@ public class ReadContextEvidence {
             return counters;
         }
 
+        final SamSlicer slicer = samSlicerFactory.create(bounds(candidates));
+        slicer.slice(samReaderPool.reader(bam), consumer(counters));
+
+        return counters;
+    }
+
+    @NotNull
+    public List<ReadContextCounter> get(@NotNull final List<Candidate> candidates, @NotNull final String sample,
+            @NotNull final List<SAMRecord> records) {
+
+        final List<ReadContextCounter> counters = factory.create(sample, candidates);
+        if (candidates.isEmpty()) {
+            return counters;
+        }
+
+        final SamSlicer slicer = samSlicerFactory.create(bounds(candidates));
+        slicer.slice(records, consumer(counters));
+
+        return counters;
+    }
+
+    @NotNull
+    private GenomeRegion bounds(@NotNull final List<Candidate> candidates) {
         final Candidate firstCandidate = candidates.get(0);
         final Candidate lastCandidate = candidates.get(candidates.size() - 1);
 
-        final GenomeRegion bounds = GenomeRegions.create(firstCandidate.chromosome(),
+        return GenomeRegions.create(firstCandidate.chromosome(),
                 Math.max(firstCandidate.position() - typicalReadLength, 1),
                 lastCandidate.position() + typicalReadLength);
-        final SamSlicer slicer = samSlicerFactory.create(bounds);
+    }
 
+    @NotNull
+    private Consumer<SAMRecord> consumer(@NotNull final List<ReadContextCounter> counters) {
         final SamRecordSelector<ReadContextCounter> consumerSelector = new SamRecordSelector<>(counters);
-
-        try (final SamReader tumorReader = SamReaderFactory.makeDefault()
-                .referenceSource(new ReferenceSource(refGenome))
-                .open(new File(bam))) {
-            slicer.slice(tumorReader, samRecord -> {
-
-                if (samRecord.getMappingQuality() >= minQuality) {
-                    int numberOfEvents = NumberEvents.numberOfEvents(samRecord);
-                    consumerSelector.select(samRecord, x -> x.accept(samRecord, sageConfig, numberOfEvents));
-                }
-
-            });
-        } catch (IOException e) {
-            throw new CompletionException(e);
-        }
-
-        return counters;
+        return samRecord -> {
+            if (samRecord.getMappingQuality() >= minQuality) {
+                int numberOfEvents = NumberEvents.numberOfEvents(samRecord);
+                consumerSelector.select(samRecord, x -> x.accept(samRecord, sageConfig, numberOfEvents));
+            }
+        };
     }
 
 }
@@ -0,0 +1,52 @@
+package com.hartwig.hmftools.sage.evidence;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+import com.hartwig.hmftools.sage.sam.SamSlicer;
+import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SAMRecord;
+
+/**
+ * Decodes every record required by both candidate discovery and read context evidence of a region in a single pass.
+ * Candidates are confined to the region, so evidence never needs reads further than a read length beyond either side of it.
+ */
+public class SamRecordBuffer {
+
+    private static final Logger LOGGER = LogManager.getLogger(SamRecordBuffer.class);
+
+    private final int typicalReadLength;
+    private final SamSlicerFactory samSlicerFactory;
+    private final SamReaderPool samReaderPool;
+
+    public SamRecordBuffer(@NotNull final SageConfig config, @NotNull final SamSlicerFactory samSlicerFactory,
+            @NotNull final SamReaderPool samReaderPool) {
+        this.typicalReadLength = config.typicalReadLength();
+        this.samSlicerFactory = samSlicerFactory;
+        this.samReaderPool = samReaderPool;
+    }
+
+    @NotNull
+    public List<SAMRecord> get(@NotNull final String sample, @NotNull final String bamFile, @NotNull final GenomeRegion region) {
+        LOGGER.debug("Buffering records {} position {}:{}", sample, region.chromosome(), region.start());
+
+        final GenomeRegion bounds = GenomeRegions.create(region.chromosome(),
+                Math.max(region.start() - typicalReadLength, 1),
+                region.end() + typicalReadLength);
+
+        final List<SAMRecord> result = Lists.newArrayList();
+        final SamSlicer slicer = samSlicerFactory.create(bounds);
+        slicer.slice(samReaderPool.reader(bamFile), result::add);
+
+        return result;
+    }
+}
@@ -2,35 +2,37 @@ package com.hartwig.hmftools.sage.pipeline;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.Comparator;
+import java.util.Collections;
 import java.util.EnumSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
-import com.google.common.collect.Lists;
 import com.hartwig.hmftools.common.genome.chromosome.MitochondrialChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
-import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.config.SageConfig;
 import com.hartwig.hmftools.sage.phase.Phase;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantContextFactory;
 import com.hartwig.hmftools.sage.variant.SageVariantTier;
+import com.hartwig.hmftools.sage.vcf.SageCheckpoint;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import htsjdk.samtools.reference.IndexedFastaSequenceFile;
 import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
 
 public class ChromosomePipeline implements AutoCloseable {
 
@@ -39,22 +41,39 @@ public class ChromosomePipeline implements AutoCloseable {
 
     private final String chromosome;
     private final SageConfig config;
-    private final List<RegionFuture<List<SageVariant>>> regions = Lists.newArrayList();
     private final IndexedFastaSequenceFile refGenome;
     private final SageVariantPipeline sageVariantPipeline;
     private final Consumer<VariantContext> consumer;
+    private final Phase phase;
+    private final RegionSlicer regionSlicer;
+    @Nullable
+    private final SageCheckpoint checkpoint;
+    @Nullable
+    private final VariantContextWriter checkpointWriter;
+    private final boolean restore;
 
     public ChromosomePipeline(@NotNull final String chromosome, @NotNull final SageConfig config, @NotNull final Executor executor,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions, final Map<String, QualityRecalibrationMap> qualityRecalibrationMap,
-            final Consumer<VariantContext> consumer)
+            @NotNull final SamReaderPool samReaderPool, @Nullable final SageCheckpoint checkpoint, final Consumer<VariantContext> consumer)
             throws IOException {
         this.chromosome = chromosome;
         this.config = config;
         this.refGenome = new IndexedFastaSequenceFile(new File(config.refGenome()));
         this.consumer = consumer;
-        this.sageVariantPipeline =
-                new SomaticPipeline(config, executor, refGenome, hotspots, panelRegions, highConfidenceRegions, qualityRecalibrationMap);
+        this.sageVariantPipeline = new SomaticPipeline(config,
+                executor,
+                refGenome,
+                hotspots,
+                panelRegions,
+                highConfidenceRegions,
+                qualityRecalibrationMap,
+                samReaderPool);
+        this.phase = new Phase(config, chromosome, this::write);
+        this.regionSlicer = new RegionSlicer(config, samReaderPool);
+        this.checkpoint = checkpoint;
+        this.restore = checkpoint != null && checkpoint.isComplete(chromosome);
+        this.checkpointWriter = checkpoint == null || restore ? null : checkpoint.writer(chromosome);
     }
 
     @NotNull
@@ -62,68 +81,74 @@ public class ChromosomePipeline implements AutoCloseable {
         return chromosome;
     }
 
-    public void process() throws ExecutionException, InterruptedException {
-        process(1, refGenome.getSequence(chromosome).length());
-    }
-
-    public void process(int minPosition, int maxPosition) throws ExecutionException, InterruptedException {
-        // This is for the benefit of MT
-        int dynamicSliceSize = maxPosition / Math.min(config.threads(), 4) + 1;
+    /**
+     * Regions are returned in genomic order. There are none to process if the chromosome is restored from a checkpoint.
+     */
+    @NotNull
+    public List<GenomeRegion> regions() {
+        if (restore) {
+            return Collections.emptyList();
+        }
 
-        final int regionSliceSize = Math.min(dynamicSliceSize, config.regionSliceSize());
-        for (int i = 0; ; i++) {
-            int start = minPosition + i * regionSliceSize;
-            int end = Math.min(start + regionSliceSize - 1, maxPosition);
-            addRegion(start, end);
+        return regions(1, refGenome.getSequence(chromosome).length());
+    }
 
-            if (end >= maxPosition) {
-                break;
-            }
-        }
+    @NotNull
+    List<GenomeRegion> regions(int minPosition, int maxPosition) {
+        return regionSlicer.regions(chromosome, minPosition, maxPosition);
+    }
 
-        submit().get();
+    @NotNull
+    public CompletableFuture<List<SageVariant>> variants(@NotNull final GenomeRegion region) {
+        return sageVariantPipeline.variants(region);
     }
 
-    private void addRegion(int start, int end) {
-        final GenomeRegion region = GenomeRegions.create(chromosome, start, end);
-        final CompletableFuture<List<SageVariant>> future = sageVariantPipeline.variants(region);
-        final RegionFuture<List<SageVariant>> regionFuture = new RegionFuture<>(region, future);
-        regions.add(regionFuture);
+    /**
+     * Must be called with the variants of each region in genomic order.
+     */
+    public void phase(@NotNull final List<SageVariant> regionVariants) {
+        regionVariants.forEach(phase);
     }
 
+    public void flush() {
+        if (restore) {
+            checkpoint.replay(chromosome, consumer);
+            return;
+        }
 
-    @NotNull
-    private CompletableFuture<ChromosomePipeline> submit() {
-        // Even if regions were executed out of order, they must be phased in order
-        regions.sort(Comparator.comparing(RegionFuture::region));
+        phase.flush();
+        if (checkpoint != null && checkpointWriter != null) {
+            try {
+                checkpoint.complete(chromosome, checkpointWriter);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }
 
-        // Phasing must be done in order but we can do it eagerly as each new region comes in.
-        // It is not necessary to wait for the entire chromosome to be finished to start.
-        CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
-        final Phase phase = new Phase(config, chromosome, this::write);
-        final Iterator<RegionFuture<List<SageVariant>>> regionsIterator = regions.iterator();
-        while (regionsIterator.hasNext()) {
-            CompletableFuture<List<SageVariant>> region = regionsIterator.next().future();
-            done = done.thenCombine(region, (aVoid, sageVariants) -> {
+        LOGGER.info("Processing chromosome {} complete", chromosome);
+    }
 
-                sageVariants.forEach(phase);
+    public void process(int minPosition, int maxPosition) throws ExecutionException, InterruptedException {
+        // Even if regions are executed out of order, they must be phased in order
+        CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+        for (GenomeRegion region : regions(minPosition, maxPosition)) {
+            done = done.thenCombine(variants(region), (aVoid, sageVariants) -> {
+                phase(sageVariants);
                 return null;
             });
-
-            regionsIterator.remove();
         }
 
-        return done.thenApply(aVoid -> {
-            phase.flush();
-            LOGGER.info("Processing chromosome {} complete", chromosome);
-            return ChromosomePipeline.this;
-        });
-
+        done.thenRun(this::flush).get();
     }
 
     private void write(@NotNull final SageVariant entry) {
         if (include(entry)) {
-            consumer.accept(SageVariantContextFactory.create(entry));
+            final VariantContext context = SageVariantContextFactory.create(entry);
+            if (checkpointWriter != null) {
+                // Enrichment modifies the context in place so it must be checkpointed first
+                checkpointWriter.add(context);
+            }
+            consumer.accept(context);
         }
     }
 
@@ -164,24 +189,9 @@ public class ChromosomePipeline implements AutoCloseable {
     @Override
     public void close() throws IOException {
         refGenome.close();
-    }
-
-    private static class RegionFuture<T> {
-
-        private final CompletableFuture<T> future;
-        private final GenomeRegion region;
-
-        public RegionFuture(final GenomeRegion region, final CompletableFuture<T> future) {
-            this.region = region;
-            this.future = future;
-        }
-
-        public CompletableFuture<T> future() {
-            return future;
-        }
-
-        public GenomeRegion region() {
-            return region;
+        if (checkpoint != null && checkpointWriter != null && !checkpoint.isComplete(chromosome)) {
+            // Leaves a partial checkpoint that is ignored on resume
+            checkpointWriter.close();
         }
     }
 
@@ -0,0 +1,54 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.sage.variant.SageVariant;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+public class GenomePipeline {
+
+    private static final Logger LOGGER = LogManager.getLogger(GenomePipeline.class);
+
+    private final int maxRegionsInFlight;
+
+    public GenomePipeline(int maxRegionsInFlight) {
+        this.maxRegionsInFlight = maxRegionsInFlight;
+    }
+
+    public void process(@NotNull final List<ChromosomePipeline> chromosomes) throws ExecutionException, InterruptedException {
+        // Regions are submitted across chromosome boundaries so the executor is never left waiting on the tail of a chromosome.
+        // The number of regions submitted but not yet phased is bounded to limit memory.
+        final Semaphore regionsInFlight = new Semaphore(maxRegionsInFlight);
+
+        // Phasing must be done in order but we can do it eagerly as each new region comes in.
+        CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+        for (final ChromosomePipeline chromosome : chromosomes) {
+            for (final GenomeRegion region : chromosome.regions()) {
+                regionsInFlight.acquire();
+                if (done.isCompletedExceptionally()) {
+                    // Surface the failure rather than continue scheduling
+                    LOGGER.warn("Stopped scheduling regions at {}:{}", region.chromosome(), region.start());
+                    done.get();
+                }
+
+                final CompletableFuture<List<SageVariant>> variants = chromosome.variants(region);
+                done = done.thenCombine(variants, (aVoid, sageVariants) -> {
+                    chromosome.phase(sageVariants);
+                    return null;
+                });
+                done.whenComplete((aVoid, throwable) -> regionsInFlight.release());
+            }
+
+            done = done.thenRun(chromosome::flush);
+        }
+
+        done.get();
+    }
+}
@@ -0,0 +1,178 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+import com.hartwig.hmftools.common.genome.region.GenomeRegions;
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.BAMFileSpan;
+import htsjdk.samtools.BAMIndex;
+import htsjdk.samtools.Chunk;
+import htsjdk.samtools.SamReader;
+
+public class RegionSlicer {
+
+    private static final Logger LOGGER = LogManager.getLogger(RegionSlicer.class);
+
+    private static final int WINDOWS_PER_SLICE = 10;
+    private static final int MIN_WINDOW_SIZE = 1_000;
+    private static final int MIN_SPLIT_SIZE = 250;
+    private static final int MAX_SLICE_MULTIPLE = 4;
+    private static final int COMPRESSION_RATIO_ESTIMATE = 3;
+
+    private final SageConfig config;
+    private final SamReaderPool samReaderPool;
+
+    public RegionSlicer(@NotNull final SageConfig config, @NotNull final SamReaderPool samReaderPool) {
+        this.config = config;
+        this.samReaderPool = samReaderPool;
+    }
+
+    @NotNull
+    public List<GenomeRegion> regions(@NotNull final String contig, int minPosition, int maxPosition) {
+        if (config.adaptiveSlice() && maxPosition - minPosition + 1 > config.regionSliceSize()) {
+            final int windowSize = Math.max(MIN_WINDOW_SIZE, config.regionSliceSize() / WINDOWS_PER_SLICE);
+            final long[] windowCosts = windowCosts(contig, minPosition, maxPosition, windowSize);
+            if (windowCosts != null) {
+                final List<GenomeRegion> result =
+                        adaptiveRegions(contig, minPosition, maxPosition, config.regionSliceSize(), windowSize, windowCosts);
+                LOGGER.debug("Adaptive slicing of chromosome {} into {} regions", contig, result.size());
+                return result;
+            }
+
+            LOGGER.debug("Unable to estimate region cost of chromosome {}, using fixed slices", contig);
+        }
+
+        return fixedRegions(contig, minPosition, maxPosition);
+    }
+
+    @NotNull
+    List<GenomeRegion> fixedRegions(@NotNull final String contig, int minPosition, int maxPosition) {
+        // This is for the benefit of MT
+        int dynamicSliceSize = maxPosition / Math.min(config.threads(), 4) + 1;
+
+        final List<GenomeRegion> result = Lists.newArrayList();
+        final int regionSliceSize = Math.min(dynamicSliceSize, config.regionSliceSize());
+        for (int i = 0; ; i++) {
+            int start = minPosition + i * regionSliceSize;
+            int end = Math.min(start + regionSliceSize - 1, maxPosition);
+            result.add(GenomeRegions.create(contig, start, end));
+
+            if (end >= maxPosition) {
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Windows are accumulated until they reach the cost of a typical fixed slice. Windows more expensive than that are split evenly,
+     * while cheap windows are merged up to a multiple of the slice size.
+     */
+    @NotNull
+    static List<GenomeRegion> adaptiveRegions(@NotNull final String contig, int minPosition, int maxPosition, int sliceSize,
+            int windowSize, @NotNull final long[] windowCosts) {
+        final long targetCost = Math.max(1, median(windowCosts) * (sliceSize / windowSize));
+        final int maxSliceSize = MAX_SLICE_MULTIPLE * sliceSize;
+
+        final List<GenomeRegion> result = Lists.newArrayList();
+        int regionStart = minPosition;
+        long regionCost = 0;
+        for (int i = 0; i < windowCosts.length; i++) {
+            int windowStart = minPosition + i * windowSize;
+            int windowEnd = Math.min(windowStart + windowSize - 1, maxPosition);
+            long windowCost = windowCosts[i];
+
+            if (windowCost > targetCost) {
+                if (regionStart < windowStart) {
+                    result.add(GenomeRegions.create(contig, regionStart, windowStart - 1));
+                }
+
+                int windowLength = windowEnd - windowStart + 1;
+                int pieces = (int) Math.min((windowCost + targetCost - 1) / targetCost, windowLength / MIN_SPLIT_SIZE);
+                int pieceSize = windowLength / Math.max(1, pieces);
+                for (int start = windowStart; start <= windowEnd; start += pieceSize) {
+                    int end = windowEnd - start + 1 < 2 * pieceSize ? windowEnd : start + pieceSize - 1;
+                    result.add(GenomeRegions.create(contig, start, end));
+                    if (end == windowEnd) {
+                        break;
+                    }
+                }
+
+                regionStart = windowEnd + 1;
+                regionCost = 0;
+                continue;
+            }
+
+            regionCost += windowCost;
+            if (regionCost >= targetCost || windowEnd - regionStart + 1 >= maxSliceSize || windowEnd == maxPosition) {
+                result.add(GenomeRegions.create(contig, regionStart, windowEnd));
+                regionStart = windowEnd + 1;
+                regionCost = 0;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Estimates the bytes of reads overlapping each window across all bams from the bam index alone.
+     * Returns null if any bam is not an indexed BAM.
+     */
+    @Nullable
+    private long[] windowCosts(@NotNull final String contig, int minPosition, int maxPosition, int windowSize) {
+        final List<String> bams = Lists.newArrayList(config.tumorBam());
+        bams.addAll(config.referenceBam());
+
+        final long[] result = new long[(maxPosition - minPosition) / windowSize + 1];
+        for (String bam : bams) {
+            final SamReader reader = samReaderPool.reader(bam);
+            if (reader.type() != SamReader.Type.BAM_TYPE || !reader.hasIndex()) {
+                return null;
+            }
+
+            int sequenceIndex = reader.getFileHeader().getSequenceIndex(contig);
+            if (sequenceIndex < 0) {
+                continue;
+            }
+
+            final BAMIndex index = reader.indexing().getIndex();
+            for (int i = 0; i < result.length; i++) {
+                int windowStart = minPosition + i * windowSize;
+                int windowEnd = Math.min(windowStart + windowSize - 1, maxPosition);
+                result[i] += spanSize(index.getSpanOverlapping(sequenceIndex, windowStart, windowEnd));
+            }
+        }
+
+        return result;
+    }
+
+    private static long spanSize(@Nullable final BAMFileSpan span) {
+        long result = 0;
+        if (span != null) {
+            for (Chunk chunk : span.getChunks()) {
+                // Virtual file offsets hold the compressed block offset in the upper 48 bits and the offset within the block in the lower 16
+                long compressed = (chunk.getChunkEnd() >> 16) - (chunk.getChunkStart() >> 16);
+                long uncompressed = (chunk.getChunkEnd() & 0xFFFF) - (chunk.getChunkStart() & 0xFFFF);
+                result += Math.max(0, COMPRESSION_RATIO_ESTIMATE * compressed + uncompressed);
+            }
+        }
+
+        return result;
+    }
+
+    private static long median(@NotNull final long[] values) {
+        final long[] nonZero = Arrays.stream(values).filter(x -> x > 0).sorted().toArray();
+        return nonZero.length == 0 ? 0 : nonZero[nonZero.length / 2];
+    }
+}
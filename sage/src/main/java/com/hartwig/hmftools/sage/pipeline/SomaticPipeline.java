@@ -2,23 +2,28 @@ package com.hartwig.hmftools.sage.pipeline;
 
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
 import com.hartwig.hmftools.sage.candidate.Candidate;
 import com.hartwig.hmftools.sage.candidate.Candidates;
 import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.context.AltContext;
 import com.hartwig.hmftools.sage.evidence.CandidateEvidence;
 import com.hartwig.hmftools.sage.evidence.ReadContextEvidence;
+import com.hartwig.hmftools.sage.evidence.SamRecordBuffer;
 import com.hartwig.hmftools.sage.quality.QualityRecalibrationMap;
 import com.hartwig.hmftools.sage.read.ReadContextCounter;
 import com.hartwig.hmftools.sage.read.ReadContextCounters;
 import com.hartwig.hmftools.sage.ref.RefSequence;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 import com.hartwig.hmftools.sage.sam.SamSlicerFactory;
 import com.hartwig.hmftools.sage.variant.SageVariant;
 import com.hartwig.hmftools.sage.variant.SageVariantFactory;
@@ -27,6 +32,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
+import htsjdk.samtools.SAMRecord;
 import htsjdk.samtools.reference.ReferenceSequenceFile;
 
 public class SomaticPipeline implements SageVariantPipeline {
@@ -40,78 +46,114 @@ public class SomaticPipeline implements SageVariantPipeline {
     private final List<GenomeRegion> panelRegions;
     private final CandidateEvidence candidateEvidence;
     private final ReadContextEvidence readContextEvidence;
+    private final SamRecordBuffer samRecordBuffer;
     private final List<GenomeRegion> highConfidenceRegions;
 
     SomaticPipeline(@NotNull final SageConfig config, @NotNull final Executor executor, @NotNull final ReferenceSequenceFile refGenome,
             @NotNull final List<VariantHotspot> hotspots, @NotNull final List<GenomeRegion> panelRegions,
             @NotNull final List<GenomeRegion> highConfidenceRegions,
-            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap) {
+            @NotNull final Map<String, QualityRecalibrationMap> qualityRecalibrationMap, @NotNull final SamReaderPool samReaderPool) {
         this.config = config;
         this.executor = executor;
         final SamSlicerFactory samSlicerFactory = new SamSlicerFactory(config, panelRegions);
         this.hotspots = hotspots;
         this.panelRegions = panelRegions;
         this.highConfidenceRegions = highConfidenceRegions;
-        this.candidateEvidence = new CandidateEvidence(config, hotspots, panelRegions, samSlicerFactory, refGenome);
-        this.readContextEvidence = new ReadContextEvidence(config, samSlicerFactory, refGenome, qualityRecalibrationMap);
+        this.candidateEvidence = new CandidateEvidence(config, hotspots, panelRegions, samSlicerFactory, samReaderPool);
+        this.readContextEvidence = new ReadContextEvidence(config, samSlicerFactory, samReaderPool, qualityRecalibrationMap);
+        this.samRecordBuffer = new SamRecordBuffer(config, samSlicerFactory, samReaderPool);
         this.refGenome = refGenome;
     }
 
     @NotNull
     public CompletableFuture<List<SageVariant>> variants(@NotNull final GenomeRegion region) {
 
-        final CompletableFuture<RefSequence> refSequenceFuture = supplyAsync(() -> new RefSequence(region, refGenome), executor);
+        final CompletableFuture<Long> startTime = supplyAsync(System::nanoTime, executor);
+        final CompletableFuture<RefSequence> refSequenceFuture = startTime.thenApply(x -> new RefSequence(region, refGenome));
 
-        final CompletableFuture<List<Candidate>> initialCandidates = bamCandidates(region, refSequenceFuture);
-        final CompletableFuture<ReadContextCounters> tumorEvidence = bamEvidence(region, config.tumor(), config.tumorBam(), initialCandidates);
+        // In single pass mode, tumor records are retained from candidate discovery until they have been used for evidence
+        final Map<String, List<SAMRecord>> tumorRecords = Maps.newConcurrentMap();
 
-        final CompletableFuture<List<Candidate>> finalCandidates = filteredCandidates(tumorEvidence);
-        final CompletableFuture<ReadContextCounters> normalEvidence = bamEvidence(region, config.reference(), config.referenceBam(), finalCandidates);
+        final CompletableFuture<List<Candidate>> initialCandidates = bamCandidates(region, refSequenceFuture, tumorRecords);
+        final CompletableFuture<ReadContextCounters> tumorEvidence =
+                bamEvidence(region, config.tumor(), config.tumorBam(), initialCandidates, tumorRecords);
 
-        return combine(region, finalCandidates, tumorEvidence, normalEvidence);
+        final CompletableFuture<List<Candidate>> finalCandidates = filteredCandidates(tumorEvidence);
+        final CompletableFuture<ReadContextCounters> normalEvidence =
+                bamEvidence(region, config.reference(), config.referenceBam(), finalCandidates, Collections.emptyMap());
+
+        return combine(region, finalCandidates, tumorEvidence, normalEvidence).thenCombine(startTime, (variants, start) -> {
+            LOGGER.debug("Region {}:{}-{} processed {} candidates in {}ms",
+                    region.chromosome(),
+                    region.start(),
+                    region.end(),
+                    variants.size(),
+                    (System.nanoTime() - start) / 1_000_000);
+            return variants;
+        });
     }
 
     @NotNull
     private CompletableFuture<List<Candidate>> bamCandidates(@NotNull final GenomeRegion region,
-            final CompletableFuture<RefSequence> refSequenceFuture) {
+            final CompletableFuture<RefSequence> refSequenceFuture, @NotNull final Map<String, List<SAMRecord>> tumorRecords) {
         return refSequenceFuture.thenCompose(refSequence -> {
             if (region.start() == 1) {
                 LOGGER.info("Processing chromosome {}", region.chromosome());
             }
             LOGGER.debug("Processing candidates in {}:{}", region.chromosome(), region.start());
 
-            final Candidates initialCandidates = new Candidates(hotspots, panelRegions, highConfidenceRegions);
-
-            CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+            // Samples are scanned concurrently but merged in sample order so candidates are deterministic
+            final List<CompletableFuture<List<AltContext>>> sampleAltContexts = Lists.newArrayList();
             for (int i = 0; i < config.tumor().size(); i++) {
                 final String sample = config.tumor().get(i);
                 final String sampleBam = config.tumorBam().get(i);
-                done = done.thenApply(aVoid -> candidateEvidence.get(sample, sampleBam, refSequence, region))
-                        .thenAccept(initialCandidates::add);
+                sampleAltContexts.add(supplyAsync(() -> {
+                    if (config.singlePass()) {
+                        final List<SAMRecord> records = samRecordBuffer.get(sample, sampleBam, region);
+                        tumorRecords.put(sample, records);
+                        return candidateEvidence.get(sample, records, refSequence, region);
+                    }
+
+                    return candidateEvidence.get(sample, sampleBam, refSequence, region);
+                }, executor));
             }
-            return done.thenApply(y -> initialCandidates.candidates());
+
+            return allOf(sampleAltContexts).thenApply(aVoid -> {
+                final Candidates initialCandidates = new Candidates(hotspots, panelRegions, highConfidenceRegions);
+                sampleAltContexts.forEach(x -> initialCandidates.add(x.join()));
+                return initialCandidates.candidates();
+            });
         });
     }
 
     @NotNull
     private CompletableFuture<ReadContextCounters> bamEvidence(@NotNull final GenomeRegion region, @NotNull final List<String> samples,
-            @NotNull final List<String> sampleBams, @NotNull final CompletableFuture<List<Candidate>> candidates) {
+            @NotNull final List<String> sampleBams, @NotNull final CompletableFuture<List<Candidate>> candidates,
+            @NotNull final Map<String, List<SAMRecord>> sampleRecords) {
         // Scan tumors for evidence
         return candidates.thenCompose(initialCandidates -> {
             LOGGER.debug("Scanning for evidence in {}:{}", region.chromosome(), region.start());
             final String primarySample = samples.isEmpty() ? "PRIMARY" : samples.get(0);
 
-            final ReadContextCounters result = new ReadContextCounters(primarySample, initialCandidates);
-
-            CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+            // Samples are scanned concurrently but merged in sample order so counters are deterministic
+            final List<CompletableFuture<List<ReadContextCounter>>> sampleCounters = Lists.newArrayList();
             for (int i = 0; i < samples.size(); i++) {
                 final String sample = samples.get(i);
                 final String sampleBam = sampleBams.get(i);
 
-                done = done.thenApply(x -> readContextEvidence.get(initialCandidates, sample, sampleBam)).thenAccept(result::addCounters);
+                sampleCounters.add(supplyAsync(() -> {
+                    final List<SAMRecord> records = sampleRecords.remove(sample);
+                    return records == null
+                            ? readContextEvidence.get(initialCandidates, sample, sampleBam)
+                            : readContextEvidence.get(initialCandidates, sample, records);
+                }, executor));
             }
 
-            return done.thenApply(x -> result);
+            return allOf(sampleCounters).thenApply(aVoid -> {
+                final ReadContextCounters result = new ReadContextCounters(primarySample, initialCandidates);
+                sampleCounters.forEach(x -> result.addCounters(x.join()));
+                return result;
+            });
         });
     }
 
@@ -136,6 +178,11 @@ public class SomaticPipeline implements SageVariantPipeline {
         });
     }
 
+    @NotNull
+    private static CompletableFuture<Void> allOf(@NotNull final List<? extends CompletableFuture<?>> futures) {
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
     @NotNull
     private CompletableFuture<List<Candidate>> filteredCandidates(final CompletableFuture<ReadContextCounters> tumorEvidence) {
         return tumorEvidence.thenApply(x -> x.candidates(config.filter().readContextFilter()));
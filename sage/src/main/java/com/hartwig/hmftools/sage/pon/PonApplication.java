@@ -5,8 +5,12 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
@@ -19,9 +23,6 @@ import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMSequenceDictionary;
-import htsjdk.samtools.SAMSequenceRecord;
-import htsjdk.samtools.util.CloseableIterator;
-import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFFileReader;
 
 public class PonApplication implements AutoCloseable {
@@ -30,6 +31,8 @@ public class PonApplication implements AutoCloseable {
 
     private static final String IN_VCF = "in";
     private static final String OUT_VCF = "out";
+    private static final String THREADS = "threads";
+    private static final int DEFAULT_THREADS = 2;
     private static final String GLOB = "*.sage.germline.vcf.gz";
 
     public static void main(String[] args) throws IOException, ParseException {
@@ -37,6 +40,7 @@ public class PonApplication implements AutoCloseable {
         final CommandLine cmd = createCommandLine(args, options);
         final String inputFilePath = cmd.getOptionValue(IN_VCF);
         final String outputFilePath = cmd.getOptionValue(OUT_VCF);
+        final int threads = Integer.parseInt(cmd.getOptionValue(THREADS, String.valueOf(DEFAULT_THREADS)));
 
         if (outputFilePath == null || inputFilePath == null) {
             final HelpFormatter formatter = new HelpFormatter();
@@ -44,20 +48,22 @@ public class PonApplication implements AutoCloseable {
             System.exit(1);
         }
 
-        try (PonApplication app = new PonApplication(inputFilePath, outputFilePath)) {
+        try (PonApplication app = new PonApplication(inputFilePath, outputFilePath, threads)) {
             app.run();
         }
     }
 
     private final PonVCF vcf;
-    private final String input;
+    private final File outputDirectory;
     private final List<File> files;
+    private final ExecutorService executorService;
 
-    private PonApplication(@NotNull final String input, @NotNull final String output) throws IOException {
+    private PonApplication(@NotNull final String input, @NotNull final String output, int threads) throws IOException {
         LOGGER.info("Input: {}", input);
         LOGGER.info("Output: {}", output);
 
-        this.input = input;
+        final ThreadFactory namedThreadFactory = new ThreadFactoryBuilder().setNameFormat("PON-%d").build();
+        executorService = Executors.newFixedThreadPool(threads, namedThreadFactory);
 
         files = Lists.newArrayList();
         for (Path path : Files.newDirectoryStream(new File(input).toPath(), GLOB)) {
@@ -65,6 +71,7 @@ public class PonApplication implements AutoCloseable {
         }
 
         this.vcf = new PonVCF(output, files.size());
+        this.outputDirectory = new File(output).getAbsoluteFile().getParentFile();
     }
 
     private void run() throws IOException {
@@ -73,29 +80,11 @@ public class PonApplication implements AutoCloseable {
             return;
         }
 
-
-        final VCFFileReader dictionaryReader = new VCFFileReader(files.get(0), true);
+        final VCFFileReader dictionaryReader = new VCFFileReader(files.get(0), false);
         SAMSequenceDictionary dictionary = dictionaryReader.getFileHeader().getSequenceDictionary();
         dictionaryReader.close();
 
-        for (SAMSequenceRecord samSequenceRecord : dictionary.getSequences()) {
-            LOGGER.info("Processing sequence {}", samSequenceRecord.getSequenceName());
-
-            final PonBuilder ponBuilder = new PonBuilder();
-
-            for (Path file : Files.newDirectoryStream(new File(input).toPath(), GLOB)) {
-                try (VCFFileReader fileReader = new VCFFileReader(file.toFile(), true)) {
-                    CloseableIterator<VariantContext> iter = fileReader.query(samSequenceRecord.getSequenceName(), 1, samSequenceRecord.getSequenceLength());
-                    while (iter.hasNext()) {
-                        ponBuilder.add(iter.next());
-                    }
-                    iter.close();
-                }
-            }
-
-            vcf.write(ponBuilder.build());
-
-        }
+        new PonMerge(dictionary, executorService, outputDirectory).merge(files, vcf::write);
     }
 
     @NotNull
@@ -109,12 +98,14 @@ public class PonApplication implements AutoCloseable {
         final Options options = new Options();
         options.addOption(IN_VCF, true, "Input file.");
         options.addOption(OUT_VCF, true, "Output file.");
+        options.addOption(THREADS, true, "Number of threads [" + DEFAULT_THREADS + "]");
         return options;
     }
 
     @Override
-    public void close() throws IOException {
+    public void close() {
         vcf.close();
+        executorService.shutdown();
         LOGGER.info("PON complete");
     }
 }
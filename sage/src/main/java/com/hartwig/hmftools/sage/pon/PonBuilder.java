@@ -1,6 +1,5 @@
 package com.hartwig.hmftools.sage.pon;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -9,6 +8,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.hartwig.hmftools.common.variant.hotspot.ImmutableVariantHotspotImpl;
 import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspotComparator;
 import com.hartwig.hmftools.sage.vcf.SageVCF;
 
 import org.jetbrains.annotations.NotNull;
@@ -22,34 +22,60 @@ public class PonBuilder {
 
     private static final int MIN_OUTPUT_COUNT = 2;
     private static final int MIN_INPUT_ALLELIC_DEPTH = 3;
+    private static final VariantHotspotComparator COMPARATOR = new VariantHotspotComparator();
 
     private final Map<VariantHotspot, Counter> map = Maps.newHashMap();
 
     public void add(@NotNull final VariantContext context) {
         final VariantHotspot hotspot = hotspot(context);
+        add(hotspot, allelicDepth(hotspot, context));
+    }
+
+    void add(@NotNull final VariantHotspot hotspot, int allelicDepth) {
         final Counter counter = map.computeIfAbsent(hotspot, Counter::new);
-        final Genotype genotype = context.getGenotype(0);
-        if (!hotspot.ref().contains("N") && genotype.hasExtendedAttribute(SageVCF.RAW_ALLELIC_DEPTH)) {
-            String rawDepth = (String) genotype.getExtendedAttribute(SageVCF.RAW_ALLELIC_DEPTH);
-            int allelicDepth = Integer.valueOf(rawDepth.split(",")[1]);
-            if (allelicDepth >= MIN_INPUT_ALLELIC_DEPTH) {
-                counter.increment(allelicDepth);
-            }
+        if (allelicDepth >= MIN_INPUT_ALLELIC_DEPTH) {
+            counter.increment(allelicDepth);
         }
     }
 
+    void add(@NotNull final VariantHotspot hotspot, int count, int total, int max) {
+        map.computeIfAbsent(hotspot, Counter::new).add(count, total, max);
+    }
+
     @NotNull
     public List<VariantContext> build() {
+        return build(MIN_OUTPUT_COUNT);
+    }
+
+    @NotNull
+    List<VariantContext> build(int minCount) {
         return map.values()
                 .stream()
-                .filter(x -> x.counter >= MIN_OUTPUT_COUNT)
-                .sorted(Comparator.comparing(o -> o.hotspot))
+                .filter(x -> x.counter >= minCount)
+                .sorted((o1, o2) -> COMPARATOR.compare(o1.hotspot, o2.hotspot))
                 .map(PonBuilder::context)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Returns 0 if the context does not count towards the PON.
+     */
+    static int allelicDepth(@NotNull final VariantHotspot hotspot, @NotNull final VariantContext context) {
+        final Genotype genotype = context.getGenotype(0);
+        if (!hotspot.ref().contains("N") && genotype.hasExtendedAttribute(SageVCF.RAW_ALLELIC_DEPTH)) {
+            String rawDepth = (String) genotype.getExtendedAttribute(SageVCF.RAW_ALLELIC_DEPTH);
+            return Integer.valueOf(rawDepth.split(",")[1]);
+        }
+
+        return 0;
+    }
+
+    static boolean counts(int allelicDepth) {
+        return allelicDepth >= MIN_INPUT_ALLELIC_DEPTH;
+    }
+
     @NotNull
-    private static VariantHotspot hotspot(@NotNull final VariantContext context) {
+    static VariantHotspot hotspot(@NotNull final VariantContext context) {
         return ImmutableVariantHotspotImpl.builder()
                 .chromosome(context.getContig())
                 .position(context.getStart())
@@ -89,6 +115,12 @@ public class PonBuilder {
             total += depth;
             max = Integer.max(max, depth);
         }
+
+        void add(int count, int total, int max) {
+            this.counter += count;
+            this.total += total;
+            this.max = Integer.max(this.max, max);
+        }
     }
 
 }
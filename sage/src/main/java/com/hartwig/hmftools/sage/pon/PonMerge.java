@@ -0,0 +1,252 @@
+package com.hartwig.hmftools.sage.pon;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.variant.hotspot.VariantHotspot;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.util.CloseableIterator;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFFileReader;
+
+/**
+ * Streams every input vcf exactly once, merging them by position. Each file is decoded and filtered ahead of the merge on the executor
+ * in batches, with at most one outstanding batch per file so memory is bounded by the number of files rather than the size of a contig.
+ *
+ * At most maxOpenFiles inputs are open at once. Larger inputs are merged hierarchically: each group of files is merged into a temporary
+ * unfiltered PON vcf, and these are merged in turn by summing their counts and totals.
+ */
+class PonMerge {
+
+    private static final Logger LOGGER = LogManager.getLogger(PonMerge.class);
+    private static final int BATCH_SIZE = 1_000;
+    private static final int MAX_OPEN_FILES = 500;
+
+    private final SAMSequenceDictionary dictionary;
+    private final Executor executor;
+    private final int maxOpenFiles;
+    @Nullable
+    private final File tempDirectory;
+
+    PonMerge(@NotNull final SAMSequenceDictionary dictionary, @NotNull final Executor executor, @Nullable final File tempDirectory) {
+        this(dictionary, executor, MAX_OPEN_FILES, tempDirectory);
+    }
+
+    PonMerge(@NotNull final SAMSequenceDictionary dictionary, @NotNull final Executor executor, int maxOpenFiles,
+            @Nullable final File tempDirectory) {
+        this.dictionary = dictionary;
+        this.executor = executor;
+        this.maxOpenFiles = maxOpenFiles;
+        this.tempDirectory = tempDirectory;
+    }
+
+    public void merge(@NotNull final List<File> files, @NotNull final Consumer<List<VariantContext>> consumer) throws IOException {
+        merge(files, false, consumer);
+    }
+
+    private void merge(@NotNull final List<File> files, boolean partial, @NotNull final Consumer<List<VariantContext>> consumer)
+            throws IOException {
+        if (files.size() <= maxOpenFiles) {
+            mergeOpen(files, partial, x -> consumer.accept(x.build()));
+            return;
+        }
+
+        LOGGER.info("Merging {} inputs in groups of at most {}", files.size(), maxOpenFiles);
+        final List<File> partials = Lists.newArrayList();
+        try {
+            for (List<File> group : Lists.partition(files, maxOpenFiles)) {
+                final File partialFile = File.createTempFile("pon", ".vcf.gz", tempDirectory);
+                partials.add(partialFile);
+                try (PonVCF vcf = new PonVCF(partialFile.toString(), group.size())) {
+                    mergeOpen(group, partial, x -> vcf.write(x.build(1)));
+                }
+            }
+
+            merge(partials, true, consumer);
+        } finally {
+            partials.forEach(File::delete);
+        }
+    }
+
+    private void mergeOpen(@NotNull final List<File> files, boolean partial, @NotNull final Consumer<PonBuilder> consumer) {
+        final PriorityQueue<Cursor> queue =
+                new PriorityQueue<>(Math.max(1, files.size()), Comparator.comparing(Cursor::current, Entry::compare));
+        final List<Cursor> cursors = Lists.newArrayList();
+        try {
+            for (File file : files) {
+                cursors.add(new Cursor(file, partial));
+            }
+
+            for (Cursor cursor : cursors) {
+                if (cursor.start() != null) {
+                    queue.add(cursor);
+                }
+            }
+
+            int contigIndex = -1;
+            while (!queue.isEmpty()) {
+                final Entry first = queue.peek().current();
+                if (first.contigIndex != contigIndex) {
+                    contigIndex = first.contigIndex;
+                    LOGGER.info("Processing sequence {}", dictionary.getSequence(contigIndex).getSequenceName());
+                }
+
+                final PonBuilder ponBuilder = new PonBuilder();
+                while (!queue.isEmpty() && queue.peek().current().compare(first) == 0) {
+                    final Cursor cursor = queue.poll();
+                    for (Entry entry = cursor.current(); entry != null && entry.compare(first) == 0; entry = cursor.next()) {
+                        ponBuilder.add(entry.hotspot, entry.count, entry.total, entry.max);
+                    }
+
+                    if (cursor.current() != null) {
+                        queue.add(cursor);
+                    }
+                }
+
+                consumer.accept(ponBuilder);
+            }
+        } finally {
+            cursors.forEach(Cursor::close);
+        }
+    }
+
+    @NotNull
+    private List<Entry> read(@NotNull final File file, boolean partial, @NotNull final CloseableIterator<VariantContext> iterator) {
+        final List<Entry> result = Lists.newArrayListWithExpectedSize(BATCH_SIZE);
+        while (result.size() < BATCH_SIZE && iterator.hasNext()) {
+            final VariantContext context = iterator.next();
+            final int contigIndex = dictionary.getSequenceIndex(context.getContig());
+            if (contigIndex < 0) {
+                continue;
+            }
+
+            final Entry entry = partial ? partialEntry(contigIndex, context) : sampleEntry(contigIndex, context);
+            if (entry != null) {
+                if (!result.isEmpty() && entry.compare(result.get(result.size() - 1)) < 0) {
+                    throw new IllegalStateException(
+                            "Input " + file + " is not sorted at " + context.getContig() + ":" + context.getStart());
+                }
+                result.add(entry);
+            }
+        }
+
+        return result;
+    }
+
+    @Nullable
+    private static Entry sampleEntry(int contigIndex, @NotNull final VariantContext context) {
+        final VariantHotspot hotspot = PonBuilder.hotspot(context);
+        final int allelicDepth = PonBuilder.allelicDepth(hotspot, context);
+        return PonBuilder.counts(allelicDepth) ? new Entry(contigIndex, hotspot, 1, allelicDepth, allelicDepth) : null;
+    }
+
+    @NotNull
+    private static Entry partialEntry(int contigIndex, @NotNull final VariantContext context) {
+        return new Entry(contigIndex,
+                PonBuilder.hotspot(context),
+                context.getAttributeAsInt(PonVCF.PON_COUNT, 0),
+                context.getAttributeAsInt(PonVCF.PON_TOTAL, 0),
+                context.getAttributeAsInt(PonVCF.PON_MAX, 0));
+    }
+
+    private class Cursor implements AutoCloseable {
+
+        private final File file;
+        private final boolean partial;
+        private final VCFFileReader reader;
+        private final CloseableIterator<VariantContext> iterator;
+
+        private List<Entry> batch = Collections.emptyList();
+        private int index;
+        private CompletableFuture<List<Entry>> nextBatch;
+
+        private Cursor(@NotNull final File file, boolean partial) {
+            this.file = file;
+            this.partial = partial;
+            this.reader = new VCFFileReader(file, false);
+            this.iterator = reader.iterator();
+            this.nextBatch = prefetch();
+        }
+
+        @Nullable
+        public Entry start() {
+            load();
+            return current();
+        }
+
+        @Nullable
+        public Entry current() {
+            return index < batch.size() ? batch.get(index) : null;
+        }
+
+        @Nullable
+        public Entry next() {
+            final Entry previous = batch.get(index++);
+            if (index == batch.size()) {
+                load();
+                if (!batch.isEmpty() && batch.get(0).compare(previous) < 0) {
+                    throw new IllegalStateException("Input " + file + " is not sorted");
+                }
+            }
+
+            return current();
+        }
+
+        private void load() {
+            batch = nextBatch.join();
+            index = 0;
+            nextBatch = batch.isEmpty() ? CompletableFuture.completedFuture(Collections.emptyList()) : prefetch();
+        }
+
+        @NotNull
+        private CompletableFuture<List<Entry>> prefetch() {
+            return supplyAsync(() -> read(file, partial, iterator), executor);
+        }
+
+        @Override
+        public void close() {
+            // Wait for any outstanding batch before closing the iterator it reads from
+            nextBatch.exceptionally(e -> Collections.emptyList()).join();
+            iterator.close();
+            reader.close();
+        }
+    }
+
+    private static class Entry {
+
+        private final int contigIndex;
+        private final VariantHotspot hotspot;
+        private final int count;
+        private final int total;
+        private final int max;
+
+        private Entry(final int contigIndex, @NotNull final VariantHotspot hotspot, final int count, final int total, final int max) {
+            this.contigIndex = contigIndex;
+            this.hotspot = hotspot;
+            this.count = count;
+            this.total = total;
+            this.max = max;
+        }
+
+        private int compare(@NotNull final Entry other) {
+            int contigCompare = Integer.compare(contigIndex, other.contigIndex);
+            return contigCompare != 0 ? contigCompare : Long.compare(hotspot.position(), other.hotspot.position());
+        }
+    }
+}
@@ -14,6 +14,7 @@ import com.hartwig.hmftools.common.genome.chromosome.HumanChromosome;
 import com.hartwig.hmftools.common.genome.region.GenomeRegion;
 import com.hartwig.hmftools.common.genome.region.GenomeRegions;
 import com.hartwig.hmftools.sage.config.BaseQualityRecalibrationConfig;
+import com.hartwig.hmftools.sage.sam.SamReaderPool;
 
 import org.jetbrains.annotations.NotNull;
 
@@ -25,10 +26,12 @@ public class QualityRecalibration {
     private final ExecutorService executorService;
     private final IndexedFastaSequenceFile refGenome;
     private final BaseQualityRecalibrationConfig config;
+    private final SamReaderPool samReaderPool;
 
     public QualityRecalibration(final BaseQualityRecalibrationConfig config, final ExecutorService executorService,
-            final IndexedFastaSequenceFile refGenome) {
+            final IndexedFastaSequenceFile refGenome, final SamReaderPool samReaderPool) {
         this.executorService = executorService;
+        this.samReaderPool = samReaderPool;
         this.refGenome = refGenome;
         this.config = config;
     }
@@ -67,7 +70,7 @@ public class QualityRecalibration {
 
     public CompletableFuture<Collection<QualityCounter>> addRegion(String bam, String contig, int start, int end) {
         final GenomeRegion bounds = GenomeRegions.create(contig, start, end);
-        return CompletableFuture.supplyAsync(() -> new QualityCounterFactory(config, bam, refGenome).regionCount(bounds),
+        return CompletableFuture.supplyAsync(() -> new QualityCounterFactory(config, bam, refGenome, samReaderPool).regionCount(bounds),
                 executorService);
     }
 
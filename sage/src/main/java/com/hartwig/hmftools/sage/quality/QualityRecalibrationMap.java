@@ -9,18 +9,87 @@ import org.jetbrains.annotations.NotNull;
 
 public class QualityRecalibrationMap {
 
+    private static final int BASES = 4;
+    private static final int QUALITIES = Byte.MAX_VALUE + 1;
+
     @NotNull
     private final Map<QualityRecalibrationKey, QualityRecalibrationRecord> map;
 
+    // Indexed by ref, alt, trinucleotide context and qual. Only holds keys made up of A, C, G and T.
+    @NotNull
+    private final double[] table;
+
     public QualityRecalibrationMap(@NotNull final List<QualityRecalibrationRecord> records) {
         this.map = records.stream().collect(Collectors.toMap(QualityRecalibrationRecord::key, x -> x));
+        this.table = new double[BASES * BASES * BASES * BASES * BASES * QUALITIES];
+
+        for (int i = 0; i < table.length; i++) {
+            table[i] = i % QUALITIES;
+        }
+
+        for (QualityRecalibrationRecord record : records) {
+            final QualityRecalibrationKey key = record.key();
+            final byte[] context = key.trinucleotideContext();
+            if (context.length == 3) {
+                int index = index(key.ref(), key.alt(), context[0], context[1], context[2], key.qual());
+                if (index >= 0) {
+                    table[index] = record.recalibratedQual();
+                }
+            }
+        }
     }
 
     public double quality(byte ref, byte alt, byte[] trinucleotideContext, byte qual) {
+        if (trinucleotideContext.length == 3) {
+            return quality(ref, alt, trinucleotideContext[0], trinucleotideContext[1], trinucleotideContext[2], qual);
+        }
+
+        return mapQuality(ref, alt, trinucleotideContext, qual);
+    }
+
+    public double quality(byte ref, byte alt, byte previousBase, byte base, byte nextBase, byte qual) {
+        int index = index(ref, alt, previousBase, base, nextBase, qual);
+        if (index >= 0) {
+            return table[index];
+        }
+
+        return mapQuality(ref, alt, new byte[] { previousBase, base, nextBase }, qual);
+    }
+
+    private double mapQuality(byte ref, byte alt, byte[] trinucleotideContext, byte qual) {
         final QualityRecalibrationKey key =
                 ImmutableQualityRecalibrationKey.builder().ref(ref).alt(alt).qual(qual).trinucleotideContext(trinucleotideContext).build();
 
         return Optional.ofNullable(map.get(key)).map(QualityRecalibrationRecord::recalibratedQual).orElse(qual * 1d);
     }
 
+    private static int index(byte ref, byte alt, byte previousBase, byte base, byte nextBase, byte qual) {
+        int refIndex = baseIndex(ref);
+        int altIndex = baseIndex(alt);
+        int previousIndex = baseIndex(previousBase);
+        int baseIndex = baseIndex(base);
+        int nextIndex = baseIndex(nextBase);
+        if (refIndex < 0 || altIndex < 0 || previousIndex < 0 || baseIndex < 0 || nextIndex < 0 || qual < 0) {
+            return -1;
+        }
+
+        int contextIndex = (((refIndex * BASES + altIndex) * BASES + previousIndex) * BASES + baseIndex) * BASES + nextIndex;
+        return contextIndex * QUALITIES + qual;
+    }
+
+    private static int baseIndex(byte base) {
+        switch (base) {
+            case 'A':
+                return 0;
+            case 'C':
+                return 1;
+            case 'G':
+                return 2;
+            case 'T':
+                return 3;
+            default:
+                return -1;
+        }
+    }
+
 }
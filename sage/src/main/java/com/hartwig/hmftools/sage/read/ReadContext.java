@@ -237,8 +237,8 @@ public class ReadContext {
         return readBases.flankSize();
     }
 
-    public byte[] refTrinucleotideContext(int position) {
-        return refBases.trinucleotideContext(position);
+    public byte refBase(int position) {
+        return refBases.base(position);
     }
 
     public int length() {
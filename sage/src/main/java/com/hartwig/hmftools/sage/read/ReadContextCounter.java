@@ -347,9 +347,12 @@ public class ReadContextCounter implements VariantHotspot {
             int refPosition = (int) position() + i;
             int readIndex = startReadIndex + i;
             byte rawQuality = record.getBaseQualities()[readIndex];
-            byte[] trinucleotideContext = readContext.refTrinucleotideContext(refPosition);
-            double recalibratedQuality =
-                    qualityRecalibrationMap.quality((byte) ref().charAt(i), (byte) alt().charAt(i), trinucleotideContext, rawQuality);
+            double recalibratedQuality = qualityRecalibrationMap.quality((byte) ref().charAt(i),
+                    (byte) alt().charAt(i),
+                    readContext.refBase(refPosition - 1),
+                    readContext.refBase(refPosition),
+                    readContext.refBase(refPosition + 1),
+                    rawQuality);
             quality = Math.min(quality, recalibratedQuality);
         }
 
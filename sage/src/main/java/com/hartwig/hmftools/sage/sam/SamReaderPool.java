@@ -0,0 +1,51 @@
+package com.hartwig.hmftools.sage.sam;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+
+import htsjdk.samtools.SamReader;
+import htsjdk.samtools.SamReaderFactory;
+import htsjdk.samtools.cram.ref.ReferenceSource;
+
+/**
+ * Opens each bam at most once per thread so that the header and index are not re-read for every slice.
+ * A reader must only be used by the thread that requested it and any iterator closed before the next query.
+ */
+public class SamReaderPool implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(SamReaderPool.class);
+
+    private final ReferenceSource referenceSource;
+    private final Map<String, Map<Thread, SamReader>> readers = new ConcurrentHashMap<>();
+
+    public SamReaderPool(@NotNull final String refGenome) {
+        this.referenceSource = new ReferenceSource(new File(refGenome));
+    }
+
+    @NotNull
+    public SamReader reader(@NotNull final String bamFile) {
+        return readers.computeIfAbsent(bamFile, x -> new ConcurrentHashMap<>()).computeIfAbsent(Thread.currentThread(), x -> open(bamFile));
+    }
+
+    @NotNull
+    private SamReader open(@NotNull final String bamFile) {
+        LOGGER.debug("Opening {} on thread {}", bamFile, Thread.currentThread().getName());
+        return SamReaderFactory.makeDefault().referenceSource(referenceSource).open(new File(bamFile));
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Map<Thread, SamReader> bamReaders : readers.values()) {
+            for (SamReader reader : bamReaders.values()) {
+                reader.close();
+            }
+        }
+        readers.clear();
+    }
+}
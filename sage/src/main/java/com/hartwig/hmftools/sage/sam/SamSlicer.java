@@ -58,6 +58,25 @@ public class SamSlicer {
         }
     }
 
+    public void slice(@NotNull final List<SAMRecord> records, @NotNull final Consumer<SAMRecord> consumer) {
+        for (final SAMRecord record : records) {
+            if (samRecordMeetsQualityRequirements(record) && overlapsSlice(record)) {
+                consumer.accept(record);
+            }
+        }
+    }
+
+    private boolean overlapsSlice(@NotNull final SAMRecord record) {
+        for (final GenomeRegion region : regions) {
+            if (record.getContig().equals(region.chromosome()) && record.getAlignmentStart() <= region.end()
+                    && record.getAlignmentEnd() >= region.start()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
     @NotNull
     private static QueryInterval[] createIntervals(@NotNull final Collection<GenomeRegion> regions, @NotNull final SAMFileHeader header) {
         final List<QueryInterval> queryIntervals = Lists.newArrayList();
@@ -10,17 +10,48 @@ import org.jetbrains.annotations.NotNull;
 
 import htsjdk.samtools.SAMRecord;
 
-public class SamRecordSelector<P extends GenomePosition> extends PositionSelector<P> {
+/**
+ * Positions must be sorted. Each record finds the first overlapping position with a binary search and then visits only the
+ * positions it overlaps, rather than walking a cursor back and forth across every position overlapped by the previous record.
+ */
+public class SamRecordSelector<P extends GenomePosition> {
+
+    private final List<P> positions;
+    private final long[] sortedPositions;
 
     public SamRecordSelector(@NotNull final List<P> positions) {
-        super(positions);
+        this.positions = positions;
+        this.sortedPositions = new long[positions.size()];
+        for (int i = 0; i < positions.size(); i++) {
+            sortedPositions[i] = positions.get(i).position();
+        }
     }
 
     public void select(final SAMRecord record, final Consumer<P> handler) {
         long startWithSoftClip = record.getAlignmentStart() - SAMRecords.leftSoftClip(record);
         long endWithSoftClip = record.getAlignmentEnd() + SAMRecords.rightSoftClip(record);
 
-        super.select(startWithSoftClip, endWithSoftClip, handler);
+        select(startWithSoftClip, endWithSoftClip, handler);
+    }
+
+    public void select(final long start, final long end, final Consumer<P> handler) {
+        for (int i = firstIndex(start); i < sortedPositions.length && sortedPositions[i] <= end; i++) {
+            handler.accept(positions.get(i));
+        }
     }
 
+    private int firstIndex(final long position) {
+        int low = 0;
+        int high = sortedPositions.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedPositions[mid] < position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+
+        return low;
+    }
 }
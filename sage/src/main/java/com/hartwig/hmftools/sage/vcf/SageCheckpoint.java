@@ -0,0 +1,129 @@
+package com.hartwig.hmftools.sage.vcf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.hartwig.hmftools.sage.config.SageConfig;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationFile;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationRecord;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.writer.Options;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
+import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFHeader;
+
+/**
+ * Persists the variants of each completed chromosome, as written prior to enrichment, and the base quality recalibration of each
+ * sample. Chromosomes are the unit of work because phasing carries state across the regions of a chromosome but not between them.
+ * A checkpoint directory must only be reused by a run with the same inputs and configuration.
+ */
+public class SageCheckpoint {
+
+    private static final Logger LOGGER = LogManager.getLogger(SageCheckpoint.class);
+
+    private static final String COMPLETE_EXTENSION = ".sage.vcf.gz";
+    private static final String PARTIAL_EXTENSION = ".sage.partial.vcf.gz";
+    private static final String BQR_EXTENSION = ".sage.bqr.checkpoint.tsv";
+
+    private final String directory;
+    private final String version;
+    private final List<String> samples;
+
+    public SageCheckpoint(@NotNull final SageConfig config) throws IOException {
+        this(config.checkpointDir(), config.version(), SageVCF.samples(config));
+    }
+
+    SageCheckpoint(@NotNull final String directory, @NotNull final String version, @NotNull final List<String> samples)
+            throws IOException {
+        this.directory = directory;
+        this.version = version;
+        this.samples = samples;
+        Files.createDirectories(new File(directory).toPath());
+    }
+
+    public boolean isComplete(@NotNull final String contig) {
+        return new File(completeFile(contig)).exists();
+    }
+
+    /**
+     * Variants added to the writer are only visible to later runs once the chromosome has been completed.
+     */
+    @NotNull
+    public VariantContextWriter writer(@NotNull final String contig) {
+        final VariantContextWriter writer = new VariantContextWriterBuilder().setOutputFile(partialFile(contig))
+                .unsetOption(Options.INDEX_ON_THE_FLY)
+                .modifyOption(Options.USE_ASYNC_IO, false)
+                .build();
+        writer.writeHeader(header());
+        return writer;
+    }
+
+    public void complete(@NotNull final String contig, @NotNull final VariantContextWriter writer) throws IOException {
+        writer.close();
+        Files.move(new File(partialFile(contig)).toPath(), new File(completeFile(contig)).toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public void replay(@NotNull final String contig, @NotNull final Consumer<VariantContext> consumer) {
+        LOGGER.info("Restoring chromosome {} from checkpoint", contig);
+        try (final VCFFileReader reader = new VCFFileReader(new File(completeFile(contig)), false)) {
+            if (!reader.getFileHeader().getGenotypeSamples().equals(samples)) {
+                throw new IllegalStateException("Checkpoint of chromosome " + contig + " is for different samples");
+            }
+
+            for (VariantContext context : reader) {
+                consumer.accept(context);
+            }
+        }
+    }
+
+    @Nullable
+    public List<QualityRecalibrationRecord> qualityRecalibration(@NotNull final String sample) throws IOException {
+        final String file = qualityRecalibrationFile(sample);
+        if (!new File(file).exists()) {
+            return null;
+        }
+
+        LOGGER.info("Restoring base quality recalibration of {} from checkpoint", sample);
+        return QualityRecalibrationFile.read(file);
+    }
+
+    public void qualityRecalibration(@NotNull final String sample, @NotNull final Collection<QualityRecalibrationRecord> records)
+            throws IOException {
+        final String file = qualityRecalibrationFile(sample);
+        final String partialFile = file + ".partial";
+        QualityRecalibrationFile.writeExact(partialFile, records);
+        Files.move(new File(partialFile).toPath(), new File(file).toPath(), StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @NotNull
+    private VCFHeader header() {
+        return SageVCF.header(version, samples);
+    }
+
+    @NotNull
+    private String completeFile(@NotNull final String contig) {
+        return directory + File.separator + contig + COMPLETE_EXTENSION;
+    }
+
+    @NotNull
+    private String partialFile(@NotNull final String contig) {
+        return directory + File.separator + contig + PARTIAL_EXTENSION;
+    }
+
+    @NotNull
+    private String qualityRecalibrationFile(@NotNull final String sample) {
+        return directory + File.separator + sample + BQR_EXTENSION;
+    }
+}
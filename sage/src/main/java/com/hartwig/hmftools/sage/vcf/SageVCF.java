@@ -94,14 +94,19 @@ public class SageVCF implements AutoCloseable {
 
     @NotNull
     static VCFHeader header(@NotNull final SageConfig config) {
+        return header(config.version(), samples(config));
+    }
+
+    @NotNull
+    static List<String> samples(@NotNull final SageConfig config) {
         final List<String> samples = Lists.newArrayList();
         samples.addAll(config.reference());
         samples.addAll(config.tumor());
-        return header(config.version(), samples);
+        return samples;
     }
 
     @NotNull
-    private static VCFHeader header(@NotNull final String version, @NotNull final List<String> allSamples) {
+    static VCFHeader header(@NotNull final String version, @NotNull final List<String> allSamples) {
 
         VCFHeader header = SageMetaData.addSageMetaData(new VCFHeader(Collections.emptySet(), allSamples));
 
@@ -48,6 +48,7 @@ public class SageConfigTest {
     public static SageConfig testConfig() {
         return ImmutableSageConfig.builder()
                 .panelOnly(false)
+                .singlePass(false)
                 .version("2.2")
                 .outputFile("out.vcf")
                 .transcriptRegions(HmfGenePanelSupplier.allGeneList37())
@@ -67,6 +68,8 @@ public class SageConfigTest {
                 .maxReadDepthPanel(DEFAULT_MAX_READ_DEPTH_PANEL)
                 .qualityConfig(defaultQualityConfig())
                 .regionSliceSize(500_000)
+                .adaptiveSlice(false)
+                .checkpointDir("")
                 .filter(defaultFilterConfig())
                 .readContextFlankSize(SageConfig.DEFAULT_READ_CONTEXT_FLANK_SIZE)
                 .baseQualityRecalibrationConfig(defaultQualityRecalibrationConfig())
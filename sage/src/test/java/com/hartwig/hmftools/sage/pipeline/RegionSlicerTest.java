@@ -0,0 +1,86 @@
+package com.hartwig.hmftools.sage.pipeline;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.hartwig.hmftools.common.genome.region.GenomeRegion;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class RegionSlicerTest {
+
+    private static final int SLICE_SIZE = 10_000;
+    private static final int WINDOW_SIZE = 1_000;
+
+    @Test
+    public void testUniformCostMatchesSliceSize() {
+        final long[] costs = costs(50, 100);
+        final List<GenomeRegion> regions = RegionSlicer.adaptiveRegions("1", 1, 50_000, SLICE_SIZE, WINDOW_SIZE, costs);
+        assertContiguous(1, 50_000, regions);
+        assertEquals(5, regions.size());
+        assertRegion(1, 10_000, regions.get(0));
+        assertRegion(40_001, 50_000, regions.get(4));
+    }
+
+    @Test
+    public void testCheapWindowsAreMerged() {
+        final long[] costs = costs(100, 100);
+        for (int i = 10; i < 100; i++) {
+            costs[i] = 0;
+        }
+
+        final List<GenomeRegion> regions = RegionSlicer.adaptiveRegions("1", 1, 100_000, SLICE_SIZE, WINDOW_SIZE, costs);
+        assertContiguous(1, 100_000, regions);
+        assertEquals(4, regions.size());
+        assertRegion(1, 10_000, regions.get(0));
+        assertRegion(10_001, 50_000, regions.get(1));
+    }
+
+    @Test
+    public void testExpensiveWindowIsSplit() {
+        final long[] costs = costs(30, 100);
+        costs[15] = 100 * 100 * 4;
+
+        final List<GenomeRegion> regions = RegionSlicer.adaptiveRegions("1", 1, 30_000, SLICE_SIZE, WINDOW_SIZE, costs);
+        assertContiguous(1, 30_000, regions);
+        assertRegion(1, 10_000, regions.get(0));
+        assertRegion(10_001, 15_000, regions.get(1));
+        assertRegion(15_001, 15_250, regions.get(2));
+        assertRegion(15_751, 16_000, regions.get(5));
+        assertRegion(16_001, 26_000, regions.get(6));
+        assertRegion(26_001, 30_000, regions.get(7));
+    }
+
+    @Test
+    public void testPartialLastWindow() {
+        final long[] costs = costs(26, 100);
+        final List<GenomeRegion> regions = RegionSlicer.adaptiveRegions("1", 1, 25_500, SLICE_SIZE, WINDOW_SIZE, costs);
+        assertContiguous(1, 25_500, regions);
+        assertRegion(20_001, 25_500, regions.get(2));
+    }
+
+    @NotNull
+    private static long[] costs(int windows, long cost) {
+        final long[] result = new long[windows];
+        for (int i = 0; i < windows; i++) {
+            result[i] = cost;
+        }
+        return result;
+    }
+
+    private static void assertRegion(long expectedStart, long expectedEnd, @NotNull final GenomeRegion victim) {
+        assertEquals(expectedStart, victim.start());
+        assertEquals(expectedEnd, victim.end());
+    }
+
+    private static void assertContiguous(long expectedStart, long expectedEnd, @NotNull final List<GenomeRegion> regions) {
+        long expectedNext = expectedStart;
+        for (GenomeRegion region : regions) {
+            assertEquals(expectedNext, region.start());
+            expectedNext = region.end() + 1;
+        }
+        assertEquals(expectedEnd, expectedNext - 1);
+    }
+}
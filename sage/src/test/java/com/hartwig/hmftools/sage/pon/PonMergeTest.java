@@ -0,0 +1,176 @@
+package com.hartwig.hmftools.sage.pon;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.hartwig.hmftools.sage.vcf.SageVCF;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import htsjdk.samtools.SAMSequenceDictionary;
+import htsjdk.samtools.SAMSequenceRecord;
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.variantcontext.writer.Options;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
+import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
+import htsjdk.variant.vcf.VCFFileReader;
+import htsjdk.variant.vcf.VCFFormatHeaderLine;
+import htsjdk.variant.vcf.VCFHeader;
+import htsjdk.variant.vcf.VCFHeaderLineType;
+
+public class PonMergeTest {
+
+    private static final String[] BASES = { "A", "C", "G", "T" };
+    private static final String[] CONTIGS = { "1", "2" };
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMergeMatchesContigByContigBuild() throws IOException {
+        assertMergeMatchesContigByContigBuild(4, 500);
+    }
+
+    @Test
+    public void testGroupedMergeMatchesContigByContigBuild() throws IOException {
+        assertMergeMatchesContigByContigBuild(7, 2);
+        assertEquals(0, folder.getRoot().listFiles((dir, name) -> name.startsWith("pon")).length);
+    }
+
+    private void assertMergeMatchesContigByContigBuild(int sampleCount, int maxOpenFiles) throws IOException {
+        final SAMSequenceDictionary dictionary = dictionary();
+        final Random random = new Random(0);
+        final List<File> files = Lists.newArrayList();
+        for (int i = 0; i < sampleCount; i++) {
+            files.add(sample(dictionary, "SAMPLE" + i, random));
+        }
+
+        final List<String> expected = Lists.newArrayList();
+        for (SAMSequenceRecord sequence : dictionary.getSequences()) {
+            final PonBuilder ponBuilder = new PonBuilder();
+            for (File file : files) {
+                try (VCFFileReader reader = new VCFFileReader(file, false)) {
+                    for (VariantContext context : reader) {
+                        if (context.getContig().equals(sequence.getSequenceName())) {
+                            ponBuilder.add(context);
+                        }
+                    }
+                }
+            }
+            expected.addAll(describe(ponBuilder.build()));
+        }
+
+        final List<String> actual = Lists.newArrayList();
+        final ExecutorService executorService = Executors.newFixedThreadPool(3);
+        try {
+            new PonMerge(dictionary, executorService, maxOpenFiles, folder.getRoot()).merge(files, x -> actual.addAll(describe(x)));
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertTrue(expected.size() > 100);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testUnsortedInputIsRejected() throws IOException {
+        final SAMSequenceDictionary dictionary = dictionary();
+        final File file = folder.newFile("unsorted.vcf");
+        try (VariantContextWriter writer = writer(file, dictionary, "SAMPLE")) {
+            writer.add(context("1", 200, "A", "C", "SAMPLE", 10));
+            writer.add(context("1", 100, "A", "C", "SAMPLE", 10));
+        }
+
+        final ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try {
+            new PonMerge(dictionary, executorService, folder.getRoot()).merge(Lists.newArrayList(file, file), x -> { });
+            fail();
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @NotNull
+    private File sample(@NotNull final SAMSequenceDictionary dictionary, @NotNull final String sample, @NotNull final Random random)
+            throws IOException {
+        final File file = folder.newFile(sample + ".vcf");
+        try (VariantContextWriter writer = writer(file, dictionary, sample)) {
+            for (String contig : CONTIGS) {
+                int position = 1;
+                for (int i = 0; i < 1_500; i++) {
+                    position += random.nextInt(4);
+                    final String ref = BASES[position % 4];
+                    final String alt = random.nextBoolean() ? BASES[(position + 1) % 4] : BASES[(position + 2) % 4] + "T";
+                    writer.add(context(contig, position, ref, alt, sample, random.nextInt(8)));
+                }
+            }
+        }
+
+        return file;
+    }
+
+    @NotNull
+    private static VariantContext context(@NotNull final String contig, int position, @NotNull final String ref, @NotNull final String alt,
+            @NotNull final String sample, int allelicDepth) {
+        final List<Allele> alleles = Lists.newArrayList(Allele.create(ref, true), Allele.create(alt, false));
+        return new VariantContextBuilder().chr(contig)
+                .start(position)
+                .computeEndFromAlleles(alleles, position)
+                .alleles(alleles)
+                .genotypes(new GenotypeBuilder(sample).attribute(SageVCF.RAW_ALLELIC_DEPTH, "20," + allelicDepth).make())
+                .make();
+    }
+
+    @NotNull
+    private static VariantContextWriter writer(@NotNull final File file, @NotNull final SAMSequenceDictionary dictionary,
+            @NotNull final String sample) {
+        final VariantContextWriter writer = new VariantContextWriterBuilder().setOutputFile(file)
+                .setReferenceDictionary(dictionary)
+                .modifyOption(Options.INDEX_ON_THE_FLY, false)
+                .build();
+
+        final VCFHeader header = new VCFHeader(Sets.newHashSet(), Lists.newArrayList(sample));
+        header.addMetaDataLine(new VCFFormatHeaderLine(SageVCF.RAW_ALLELIC_DEPTH, 2, VCFHeaderLineType.Integer, "Raw allelic depth"));
+        header.setSequenceDictionary(dictionary);
+        writer.writeHeader(header);
+        return writer;
+    }
+
+    @NotNull
+    private static SAMSequenceDictionary dictionary() {
+        final SAMSequenceDictionary dictionary = new SAMSequenceDictionary();
+        for (String contig : CONTIGS) {
+            dictionary.addSequence(new SAMSequenceRecord(contig, 10_000));
+        }
+        return dictionary;
+    }
+
+    @NotNull
+    private static List<String> describe(@NotNull final List<VariantContext> contexts) {
+        return contexts.stream()
+                .map(x -> x.getContig() + ":" + x.getStart() + " " + x.getReference().getBaseString() + ">" + x.getAlternateAllele(0)
+                        .getBaseString() + " " + x.getAttribute(PonVCF.PON_COUNT) + " " + x.getAttribute(PonVCF.PON_TOTAL) + " "
+                        + x.getAttribute(PonVCF.PON_MAX))
+                .collect(Collectors.toList());
+    }
+}
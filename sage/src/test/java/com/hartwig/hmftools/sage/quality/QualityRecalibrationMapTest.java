@@ -0,0 +1,67 @@
+package com.hartwig.hmftools.sage.quality;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import com.google.common.collect.Lists;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class QualityRecalibrationMapTest {
+
+    private static final double EPSILON = 1e-10;
+
+    private final QualityRecalibrationMap victim = new QualityRecalibrationMap(Lists.newArrayList(
+            record('C', 'T', "ACG", 37, 31.5),
+            record('C', 'T', "ACG", 25, 20.1),
+            record('A', 'G', "TAC", 37, 35.2),
+            record('C', 'T', "NCG", 37, 12.5),
+            record('C', 'T', "ccg", 37, 14.5)));
+
+    @Test
+    public void testRecalibratedQuality() {
+        assertEquals(31.5, victim.quality((byte) 'C', (byte) 'T', "ACG".getBytes(), (byte) 37), EPSILON);
+        assertEquals(31.5, victim.quality((byte) 'C', (byte) 'T', (byte) 'A', (byte) 'C', (byte) 'G', (byte) 37), EPSILON);
+        assertEquals(20.1, victim.quality((byte) 'C', (byte) 'T', (byte) 'A', (byte) 'C', (byte) 'G', (byte) 25), EPSILON);
+        assertEquals(35.2, victim.quality((byte) 'A', (byte) 'G', (byte) 'T', (byte) 'A', (byte) 'C', (byte) 37), EPSILON);
+    }
+
+    @Test
+    public void testMissingKeyDefaultsToQual() {
+        assertEquals(37, victim.quality((byte) 'C', (byte) 'A', (byte) 'A', (byte) 'C', (byte) 'G', (byte) 37), EPSILON);
+        assertEquals(0, victim.quality((byte) 'C', (byte) 'T', (byte) 'A', (byte) 'C', (byte) 'G', (byte) 0), EPSILON);
+        assertEquals(127, victim.quality((byte) 'C', (byte) 'T', (byte) 'A', (byte) 'C', (byte) 'G', (byte) 127), EPSILON);
+        assertEquals(37, victim.quality((byte) 'C', (byte) 'T', (byte) 'N', (byte) 'C', (byte) 'A', (byte) 37), EPSILON);
+    }
+
+    @Test
+    public void testNonStandardBasesFallBackToRecords() {
+        assertEquals(12.5, victim.quality((byte) 'C', (byte) 'T', (byte) 'N', (byte) 'C', (byte) 'G', (byte) 37), EPSILON);
+        assertEquals(14.5, victim.quality((byte) 'C', (byte) 'T', "ccg".getBytes(), (byte) 37), EPSILON);
+    }
+
+    @Test
+    public void testEmpty() {
+        final QualityRecalibrationMap empty = new QualityRecalibrationMap(Lists.newArrayList());
+        final List<Byte> bases = Lists.newArrayList((byte) 'A', (byte) 'C', (byte) 'G', (byte) 'T', (byte) 'N');
+        for (byte base : bases) {
+            for (byte qual = 0; qual < 50; qual++) {
+                assertEquals(qual, empty.quality(base, (byte) 'A', (byte) 'C', base, (byte) 'T', qual), EPSILON);
+            }
+        }
+    }
+
+    @NotNull
+    private static QualityRecalibrationRecord record(char ref, char alt, @NotNull String trinucleotideContext, int qual,
+            double recalibratedQual) {
+        final QualityRecalibrationKey key = ImmutableQualityRecalibrationKey.builder()
+                .ref((byte) ref)
+                .alt((byte) alt)
+                .trinucleotideContext(trinucleotideContext.getBytes())
+                .qual((byte) qual)
+                .build();
+        return ImmutableQualityRecalibrationRecord.builder().key(key).count(1).recalibratedQual(recalibratedQual).build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.hartwig.hmftools.sage.select;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.common.genome.position.GenomePosition;
+import com.hartwig.hmftools.common.genome.position.GenomePositions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class SamRecordSelectorTest {
+
+    private final List<GenomePosition> positions =
+            Lists.newArrayList(position(1000), position(1000), position(1001), position(1050), position(1100), position(1200));
+    private final SamRecordSelector<GenomePosition> victim = new SamRecordSelector<>(positions);
+
+    @Test
+    public void testOverlap() {
+        assertEquals(positions.subList(0, 3), select(victim, 900, 1001));
+        assertEquals(positions.subList(2, 5), select(victim, 1001, 1100));
+        assertEquals(positions.subList(5, 6), select(victim, 1101, 1300));
+        assertEquals(Collections.emptyList(), select(victim, 1201, 1300));
+        assertEquals(Collections.emptyList(), select(victim, 1, 999));
+    }
+
+    @Test
+    public void testOutOfOrder() {
+        assertEquals(positions.subList(4, 6), select(victim, 1100, 1200));
+        assertEquals(positions.subList(0, 2), select(victim, 1000, 1000));
+        assertEquals(positions.subList(3, 4), select(victim, 1002, 1099));
+    }
+
+    @Test
+    public void testMatchesPositionSelector() {
+        final Random random = new Random(0);
+        final List<GenomePosition> dense = Lists.newArrayList();
+        for (int position = 1000; position < 10000; position += random.nextInt(3)) {
+            dense.add(position(position));
+        }
+
+        final PositionSelector<GenomePosition> expected = new PositionSelector<>(dense);
+        final SamRecordSelector<GenomePosition> selector = new SamRecordSelector<>(dense);
+        for (int start = 900; start < 10100; start += random.nextInt(10)) {
+            int end = start + 50 + random.nextInt(150);
+            final List<GenomePosition> expectedPositions = Lists.newArrayList();
+            expected.select(start, end, expectedPositions::add);
+            assertEquals(expectedPositions, select(selector, start, end));
+        }
+    }
+
+    @NotNull
+    private static List<GenomePosition> select(@NotNull final SamRecordSelector<GenomePosition> selector, long start, long end) {
+        final List<GenomePosition> result = Lists.newArrayList();
+        selector.select(start, end, result::add);
+        return result;
+    }
+
+    @NotNull
+    private static GenomePosition position(long position) {
+        return GenomePositions.create("1", position);
+    }
+}
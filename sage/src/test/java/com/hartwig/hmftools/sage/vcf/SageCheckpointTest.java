@@ -0,0 +1,151 @@
+package com.hartwig.hmftools.sage.vcf;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.google.common.collect.Lists;
+import com.hartwig.hmftools.sage.quality.ImmutableQualityRecalibrationKey;
+import com.hartwig.hmftools.sage.quality.ImmutableQualityRecalibrationRecord;
+import com.hartwig.hmftools.sage.quality.QualityRecalibrationRecord;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.variantcontext.VariantContextBuilder;
+import htsjdk.variant.variantcontext.writer.Options;
+import htsjdk.variant.variantcontext.writer.VariantContextWriter;
+import htsjdk.variant.variantcontext.writer.VariantContextWriterBuilder;
+import htsjdk.variant.vcf.VCFConstants;
+
+public class SageCheckpointTest {
+
+    private static final String VERSION = "2.2";
+    private static final List<String> SAMPLES = Lists.newArrayList("NORMAL", "TUMOR");
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRestoredVariantsWriteIdentically() throws IOException {
+        final SageCheckpoint victim = new SageCheckpoint(folder.getRoot().getPath(), VERSION, SAMPLES);
+        final List<VariantContext> variants = Lists.newArrayList(snv(), filteredIndel());
+
+        assertFalse(victim.isComplete("1"));
+        final VariantContextWriter checkpointWriter = victim.writer("1");
+        variants.forEach(checkpointWriter::add);
+        assertFalse(victim.isComplete("1"));
+        victim.complete("1", checkpointWriter);
+        assertTrue(victim.isComplete("1"));
+
+        final File expected = folder.newFile("expected.vcf");
+        try (VariantContextWriter writer = writer(expected)) {
+            variants.forEach(writer::add);
+        }
+
+        final File actual = folder.newFile("actual.vcf");
+        try (VariantContextWriter writer = writer(actual)) {
+            victim.replay("1", writer::add);
+        }
+
+        assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+    }
+
+    @Test
+    public void testQualityRecalibrationIsExact() throws IOException {
+        final SageCheckpoint victim = new SageCheckpoint(folder.getRoot().getPath(), VERSION, SAMPLES);
+        assertNull(victim.qualityRecalibration("TUMOR"));
+
+        final QualityRecalibrationRecord record = ImmutableQualityRecalibrationRecord.builder()
+                .key(ImmutableQualityRecalibrationKey.builder().ref((byte) 'A').alt((byte) 'C').qual((byte) 37)
+                        .trinucleotideContext("TAG".getBytes()).build())
+                .count(1234)
+                .recalibratedQual(31.123456789012345)
+                .build();
+        victim.qualityRecalibration("TUMOR", Lists.newArrayList(record));
+
+        final List<QualityRecalibrationRecord> restored = victim.qualityRecalibration("TUMOR");
+        assertEquals(1, restored.size());
+        assertEquals(record.count(), restored.get(0).count());
+        assertEquals(record.recalibratedQual(), restored.get(0).recalibratedQual(), 0);
+        assertEquals(record.key().qual(), restored.get(0).key().qual());
+        assertArrayEquals(record.key().trinucleotideContext(), restored.get(0).key().trinucleotideContext());
+    }
+
+    @NotNull
+    private static VariantContextWriter writer(@NotNull final File file) {
+        final VariantContextWriter writer = new VariantContextWriterBuilder().setOutputFile(file)
+                .unsetOption(Options.INDEX_ON_THE_FLY)
+                .modifyOption(Options.USE_ASYNC_IO, false)
+                .build();
+        writer.writeHeader(SageVCF.header(VERSION, SAMPLES));
+        return writer;
+    }
+
+    @NotNull
+    private static VariantContext snv() {
+        final List<Allele> alleles = Lists.newArrayList(Allele.create("A", true), Allele.create("T", false));
+        final VariantContext context = new VariantContextBuilder().chr("1")
+                .start(1000)
+                .computeEndFromAlleles(alleles, 1000)
+                .alleles(alleles)
+                .attribute(SageVCF.READ_CONTEXT, "GTAGCTTACG")
+                .attribute(SageVCF.READ_CONTEXT_EVENTS, 1)
+                .attribute("TIER", "PANEL")
+                .attribute(SageVCF.PHASE, 3)
+                .log10PError(123.456789 / -10d)
+                .genotypes(genotype("NORMAL", alleles.get(0), alleles.get(0), 0.0),
+                        genotype("TUMOR", alleles.get(0), alleles.get(1), 1 / 3d))
+                .make();
+        context.getCommonInfo().addFilter(SageVCF.PASS);
+        return context;
+    }
+
+    @NotNull
+    private static VariantContext filteredIndel() {
+        final List<Allele> alleles = Lists.newArrayList(Allele.create("GAA", true), Allele.create("G", false));
+        return new VariantContextBuilder().chr("1")
+                .start(2000)
+                .computeEndFromAlleles(alleles, 2000)
+                .alleles(alleles)
+                .attribute(SageVCF.READ_CONTEXT, "GTAGAAAAAAAATT")
+                .attribute(SageVCF.READ_CONTEXT_EVENTS, 2)
+                .attribute(SageVCF.READ_CONTEXT_REPEAT_COUNT, 8)
+                .attribute(SageVCF.READ_CONTEXT_REPEAT_SEQUENCE, "A")
+                .attribute(SageVCF.RIGHT_ALIGNED_MICROHOMOLOGY, true)
+                .log10PError(17.5 / -10d)
+                .filters("min_tumor_qual", "min_tumor_vaf")
+                .genotypes(genotype("NORMAL", alleles.get(0), alleles.get(0), 0.0),
+                        genotype("TUMOR", alleles.get(0), alleles.get(1), 0.0123))
+                .make();
+    }
+
+    @NotNull
+    private static Genotype genotype(@NotNull final String sample, @NotNull final Allele first, @NotNull final Allele second, double vaf) {
+        return new GenotypeBuilder(sample).DP(61)
+                .AD(new int[] { 40, 21 })
+                .attribute(SageVCF.READ_CONTEXT_QUALITY, new int[] { 700, 10, 5, 0, 1200, 1915 })
+                .attribute(SageVCF.READ_CONTEXT_COUNT, new int[] { 18, 1, 1, 0, 40, 61 })
+                .attribute(SageVCF.READ_CONTEXT_IMPROPER_PAIR, 2)
+                .attribute(SageVCF.READ_CONTEXT_JITTER, new int[] { 0, 1, 0 })
+                .attribute(SageVCF.RAW_ALLELIC_DEPTH, new int[] { 41, 22 })
+                .attribute(SageVCF.RAW_ALLELIC_BASE_QUALITY, new int[] { 1400, 700 })
+                .attribute(SageVCF.RAW_DEPTH, 64)
+                .attribute(VCFConstants.ALLELE_FREQUENCY_KEY, vaf)
+                .alleles(Lists.newArrayList(first, second))
+                .make();
+    }
+}